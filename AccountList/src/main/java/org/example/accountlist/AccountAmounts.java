@@ -0,0 +1,50 @@
+package org.example.accountList;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Montants des comptes en centimes entiers (long) : pas de dérive d'arrondi, comparaisons exactes
+ *
+ * - un montant reçu (BigDecimal) est refusé s'il a plus de 2 décimales, jamais arrondi en silence
+ * - un solde est restitué en BigDecimal d'échelle 2
+ */
+final class AccountAmounts {
+
+    private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private AccountAmounts() {
+    }
+
+    /**
+     * Montant exact en centimes
+     *
+     * @throws IllegalArgumentException plus de 2 décimales ou montant hors limites
+     */
+    static long toCents(BigDecimal amount) {
+        try {
+            return amount.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Montant invalide (2 décimales au plus): " + amount.toPlainString());
+        }
+    }
+
+    static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Centimes arrondis vers le haut ou le bas, bornés à l'intervalle d'un long (bornes de filtre)
+     */
+    static long roundedCents(BigDecimal amount, RoundingMode mode) {
+        BigDecimal cents = amount.movePointRight(2).setScale(0, mode);
+        if (cents.compareTo(MIN_CENTS) <= 0) {
+            return Long.MIN_VALUE;
+        }
+        if (cents.compareTo(MAX_CENTS) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        return cents.longValue();
+    }
+}
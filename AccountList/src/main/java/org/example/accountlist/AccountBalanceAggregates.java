@@ -0,0 +1,109 @@
+package org.example.accountList;
+
+import org.example.accountList.MockBankingAccountListService.BankingAccountData;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Nombre de comptes et somme des soldes par type de compte, par statut et par client, tenus à jour à chaque changement
+ *
+ * - chaque groupe porte deux LongAdder (comptes, solde en centimes) : les mises à jour concurrentes ne se bloquent pas
+ * - soldes cumulés en centimes entiers, comme les soldes des comptes : totaux exacts, égaux à la somme des soldes
+ * - une lecture additionne les cellules sans verrou : cohérente groupe par groupe, pas forcément entre groupes
+ *   pendant des écritures (suffisant pour des tableaux de bord)
+ */
+class AccountBalanceAggregates {
+
+    enum Dimension {
+        TYPE("byType"),
+        STATUS("byStatus"),
+        CUSTOMER("byCustomer");
+
+        private final String label;
+
+        Dimension(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Totals {
+        final LongAdder accounts = new LongAdder();
+        final LongAdder balanceCents = new LongAdder();
+
+        void add(int accountDelta, long centsDelta) {
+            if (accountDelta != 0) {
+                accounts.add(accountDelta);
+            }
+            if (centsDelta != 0) {
+                balanceCents.add(centsDelta);
+            }
+        }
+    }
+
+    private final Totals total = new Totals();
+    private final Map<String, Totals> byType = new ConcurrentHashMap<>();
+    private final Map<String, Totals> byStatus = new ConcurrentHashMap<>();
+    private final Map<String, Totals> byCustomer = new ConcurrentHashMap<>();
+
+    void accountAdded(BankingAccountData account) {
+        apply(account.accountTypeCode, account.status, account.customerCode, 1, account.balanceCents);
+    }
+
+    void balanceChanged(BankingAccountData account, long oldCents, long newCents) {
+        apply(account.accountTypeCode, account.status, account.customerCode, 0, newCents - oldCents);
+    }
+
+    /**
+     * Changement de statut (clôture...) : le compte et son solde passent d'un groupe de statut à l'autre
+     */
+    void statusChanged(BankingAccountData account, String oldStatus, String newStatus) {
+        long cents = account.balanceCents;
+        totals(byStatus, oldStatus).add(-1, -cents);
+        totals(byStatus, newStatus).add(1, cents);
+    }
+
+    private void apply(String typeCode, String status, String customerCode, int accountDelta, long centsDelta) {
+        total.add(accountDelta, centsDelta);
+        totals(byType, typeCode).add(accountDelta, centsDelta);
+        totals(byStatus, status).add(accountDelta, centsDelta);
+        totals(byCustomer, customerCode).add(accountDelta, centsDelta);
+    }
+
+    private static Totals totals(Map<String, Totals> groups, String key) {
+        Totals totals = groups.get(key);
+        return totals != null ? totals : groups.computeIfAbsent(key, k -> new Totals());
+    }
+
+    /**
+     * Vue REST : total général + groupes demandés, triés par clé ; les groupes vidés (0 compte) sont omis
+     */
+    Map<String, Object> describe(Iterable<Dimension> dimensions) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", describe(total));
+        for (Dimension dimension : dimensions) {
+            Map<String, Totals> groups = dimension == Dimension.TYPE ? byType
+                    : dimension == Dimension.STATUS ? byStatus
+                    : byCustomer;
+
+            Map<String, Object> described = new TreeMap<>();
+            groups.forEach((key, totals) -> {
+                if (totals.accounts.sum() != 0) {
+                    described.put(key, describe(totals));
+                }
+            });
+            result.put(dimension.label, described);
+        }
+        return result;
+    }
+
+    private static Map<String, Object> describe(Totals totals) {
+        Map<String, Object> described = new LinkedHashMap<>();
+        described.put("accounts", totals.accounts.sum());
+        described.put("totalBalance", AccountAmounts.toAmount(totals.balanceCents.sum()));
+        return described;
+    }
+}
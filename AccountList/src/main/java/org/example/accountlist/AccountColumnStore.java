@@ -0,0 +1,254 @@
+package org.example.accountList;
+
+import org.example.accountList.Account.ComparisonAmount;
+import org.example.accountList.MockBankingAccountListService.BankingAccountData;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Comptes rangés en colonnes de types primitifs, pour les filtres de solde sur tout le portefeuille
+ *
+ * - solde en centimes : long[] (plus de Double en boîte), statut : byte[], type : short[], client : int[]
+ * - statut, type et client sont des codes de dictionnaire
+ * - une ligne par version de compte (voir AccountRegistry), avec ses séquences de création et de péremption :
+ *   un parcours à la séquence seq ne retient que les lignes visibles à seq
+ * - un filtre ComparisonAmount devient un intervalle fermé [bas, haut] de centimes, parcouru par blocs de 64 lignes
+ *   sans branche ni allocation ; le résultat est un bitmap de lignes (long[] fourni par l'appelant, réutilisable)
+ *
+ * Un seul écrivain à la fois (le registre, sous son verrou de publication) ; les parcours lisent en parallèle.
+ * Les colonnes sont publiées ensemble par un seul objet Columns (volatile) : un agrandissement en construit un nouveau,
+ * le publie, puis seulement size ; un parcours lit Columns une fois et ne dépasse jamais sa capacité.
+ * Une ligne est entièrement écrite avant que size ne la publie, et une ligne publiée ne change plus
+ * (seule sa séquence de péremption passe de Long.MAX_VALUE à une séquence plus récente que toute lecture en cours).
+ * compact() réécrit les colonnes : le registre ne l'appelle que lorsqu'aucun parcours n'est en cours.
+ */
+class AccountColumnStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Codes de critère : absent (toute valeur), ou valeur absente du dictionnaire (aucune ligne)
+    private static final int ANY = -1;
+    private static final int UNKNOWN = -2;
+
+    private volatile Columns columns = new Columns(INITIAL_CAPACITY);
+    // Écrit après les colonnes (et après la publication d'un nouvel objet Columns)
+    private volatile int size;
+
+    private final Map<String, Integer> statusCodes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> typeCodes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> customerCodes = new ConcurrentHashMap<>();
+
+    /**
+     * Ajoute une ligne pour la version (createdSeq déjà attribuée) et y mémorise son numéro de ligne
+     */
+    void append(BankingAccountData version) {
+        int row = size;
+        Columns columns = ensureCapacity(row + 1);
+        columns.rows[row] = version;
+        columns.balances[row] = version.balanceCents;
+        columns.statuses[row] = (byte) code(statusCodes, version.status, Byte.MAX_VALUE);
+        columns.types[row] = (short) code(typeCodes, version.accountTypeCode, Short.MAX_VALUE);
+        columns.customers[row] = code(customerCodes, version.customerCode, Integer.MAX_VALUE);
+        columns.created[row] = version.createdSeq;
+        columns.retired[row] = Long.MAX_VALUE;
+        version.row = row;
+        size = row + 1;
+    }
+
+    /**
+     * La version cesse d'être visible à partir de la séquence seq
+     */
+    void retire(BankingAccountData version, long seq) {
+        columns.retired[version.row] = seq;
+    }
+
+    /**
+     * Supprime les lignes périmées au plus tard à watermark et renumérote les versions restantes
+     * Aucun parcours ne doit être en cours. Retourne le nombre de lignes supprimées.
+     */
+    int compact(long watermark) {
+        Columns columns = this.columns;
+        int kept = 0;
+        int count = size;
+        for (int row = 0; row < count; row++) {
+            if (columns.retired[row] <= watermark) {
+                continue;
+            }
+            if (kept != row) {
+                columns.rows[kept] = columns.rows[row];
+                columns.balances[kept] = columns.balances[row];
+                columns.statuses[kept] = columns.statuses[row];
+                columns.types[kept] = columns.types[row];
+                columns.customers[kept] = columns.customers[row];
+                columns.created[kept] = columns.created[row];
+                columns.retired[kept] = columns.retired[row];
+                columns.rows[kept].row = kept;
+            }
+            kept++;
+        }
+        Arrays.fill(columns.rows, kept, count, null);
+        size = kept;
+        return count - kept;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Bitmap vide dimensionné pour le nombre de lignes actuel
+     * À allouer après avoir fixé la séquence de lecture : il couvre alors toutes les lignes visibles à cette séquence.
+     */
+    long[] newBitmap() {
+        return new long[(size + 63) >>> 6];
+    }
+
+    /**
+     * Lignes visibles à seq dont le solde satisfait le filtre et, s'ils sont fournis, le statut / type / client
+     * Écrit le résultat dans matches et retourne le nombre de lignes retenues ; les lignes au-delà du bitmap,
+     * ajoutées après son allocation, sont plus récentes que seq et ignorées.
+     */
+    int scan(long seq, ComparisonAmount balance, String status, String typeCode, String customerCode, long[] matches) {
+        // Colonnes lues une fois, avant size : les lignes au-delà de leur capacité sont postérieures au bitmap
+        Columns columns = this.columns;
+        int count = Math.min(Math.min(size, columns.capacity()), matches.length << 6);
+        int blocks = (count + 63) >>> 6;
+        Arrays.fill(matches, blocks, matches.length, 0L);
+
+        // Valeur inconnue du dictionnaire : aucune ligne
+        int wantedStatus = wanted(statusCodes, status);
+        int wantedType = wanted(typeCodes, typeCode);
+        int wantedCustomer = wanted(customerCodes, customerCode);
+        if (wantedStatus == UNKNOWN || wantedType == UNKNOWN || wantedCustomer == UNKNOWN) {
+            Arrays.fill(matches, 0, blocks, 0L);
+            return 0;
+        }
+
+        long[] range = AccountSearchIndex.centsRange(balance);
+        long low = range[0];
+        long high = range[1];
+        boolean anyStatus = wantedStatus == ANY;
+        boolean anyType = wantedType == ANY;
+        boolean anyCustomer = wantedCustomer == ANY;
+
+        long[] balances = columns.balances;
+        byte[] statuses = columns.statuses;
+        short[] types = columns.types;
+        int[] customers = columns.customers;
+        long[] created = columns.created;
+        long[] retired = columns.retired;
+
+        int matched = 0;
+        for (int block = 0; block < blocks; block++) {
+            int base = block << 6;
+            int length = Math.min(64, count - base);
+            long bits = 0L;
+            for (int k = 0; k < length; k++) {
+                int i = base + k;
+                long value = balances[i];
+                // Masques entiers : pas de branche par ligne
+                int hit = (value >= low ? 1 : 0) & (value <= high ? 1 : 0)
+                        & (created[i] <= seq ? 1 : 0) & (seq < retired[i] ? 1 : 0)
+                        & ((anyStatus | statuses[i] == wantedStatus) ? 1 : 0)
+                        & ((anyType | types[i] == wantedType) ? 1 : 0)
+                        & ((anyCustomer | customers[i] == wantedCustomer) ? 1 : 0);
+                bits |= (long) hit << k;
+            }
+            matches[block] = bits;
+            matched += Long.bitCount(bits);
+        }
+        return matched;
+    }
+
+    /**
+     * Comptes des lignes marquées dans le bitmap, dans l'ordre des lignes
+     */
+    void collect(long[] matches, List<BankingAccountData> result) {
+        BankingAccountData[] rows = columns.rows;
+        for (int block = 0; block < matches.length; block++) {
+            long bits = matches[block];
+            while (bits != 0) {
+                int row = (block << 6) + Long.numberOfTrailingZeros(bits);
+                result.add(rows[row]);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private static int wanted(Map<String, Integer> dictionary, String value) {
+        if (value == null) {
+            return ANY;
+        }
+        Integer code = dictionary.get(value);
+        return code != null ? code : UNKNOWN;
+    }
+
+    private static int code(Map<String, Integer> dictionary, String value, int max) {
+        Integer code = dictionary.get(value);
+        if (code == null) {
+            if (dictionary.size() > max) {
+                throw new IllegalStateException("Dictionnaire de colonne plein (" + max + " valeurs)");
+            }
+            code = dictionary.size();
+            dictionary.put(value, code);
+        }
+        return code;
+    }
+
+    /**
+     * Colonnes assez longues pour capacity lignes ; un agrandissement publie un nouvel objet Columns avant toute
+     * écriture de size, les parcours en cours gardent l'ancien (mêmes lignes, jamais plus courtes que leur bitmap)
+     */
+    private Columns ensureCapacity(int capacity) {
+        Columns current = columns;
+        if (capacity <= current.capacity()) {
+            return current;
+        }
+        Columns grown = current.copyOf(Math.max(capacity, current.capacity() * 2));
+        columns = grown;
+        return grown;
+    }
+
+    /**
+     * Jeu de colonnes de même longueur, remplacé d'un bloc lors d'un agrandissement
+     */
+    private static final class Columns {
+        final BankingAccountData[] rows;
+        final long[] balances;
+        final byte[] statuses;
+        final short[] types;
+        final int[] customers;
+        final long[] created;
+        final long[] retired;
+
+        Columns(int capacity) {
+            this(new BankingAccountData[capacity], new long[capacity], new byte[capacity], new short[capacity],
+                    new int[capacity], new long[capacity], new long[capacity]);
+        }
+
+        private Columns(BankingAccountData[] rows, long[] balances, byte[] statuses, short[] types,
+                        int[] customers, long[] created, long[] retired) {
+            this.rows = rows;
+            this.balances = balances;
+            this.statuses = statuses;
+            this.types = types;
+            this.customers = customers;
+            this.created = created;
+            this.retired = retired;
+        }
+
+        int capacity() {
+            return balances.length;
+        }
+
+        Columns copyOf(int capacity) {
+            return new Columns(Arrays.copyOf(rows, capacity), Arrays.copyOf(balances, capacity),
+                    Arrays.copyOf(statuses, capacity), Arrays.copyOf(types, capacity),
+                    Arrays.copyOf(customers, capacity), Arrays.copyOf(created, capacity),
+                    Arrays.copyOf(retired, capacity));
+        }
+    }
+}
@@ -18,9 +18,17 @@ public class AccountListApplication {
         System.out.println("🏦");
         System.out.println("🏦 📋 ENDPOINTS DISPONIBLES:");
         System.out.println("🏦   GET    /api/banking/accounts/all              - TOUS les comptes (simple)");
+        System.out.println("🏦   GET    /api/banking/accounts/page             - Tous les comptes, page par page");
         System.out.println("🏦   POST   /api/banking/accounts/search           - Recherche avec critères");
+        System.out.println("🏦   POST   /api/banking/accounts/search/page      - Recherche avec critères, page par page");
         System.out.println("🏦   GET    /api/banking/accounts/customer/{code}  - Comptes d'un client");
+        System.out.println("🏦   GET    /api/banking/accounts/aggregates       - Comptes et soldes par type/statut/client");
+        System.out.println("🏦   POST   /api/banking/accounts                  - Ouvrir un compte");
+        System.out.println("🏦   POST   /api/banking/accounts/{iban}/close     - Clôturer un compte (solde nul)");
+        System.out.println("🏦   POST   /api/banking/accounts/{iban}/credit    - Créditer un compte");
+        System.out.println("🏦   POST   /api/banking/accounts/{iban}/debit     - Débiter un compte");
         System.out.println("🏦   GET    /api/banking/accounts/status           - Statut service");
+        System.out.println("🏦   (pages : pageSize, sort=IBAN|BALANCE et pageToken de la page précédente)");
         System.out.println("🏦");
         System.out.println("🏦 💡 EXEMPLES D'UTILISATION:");
         System.out.println("🏦   curl http://localhost:8094/api/banking/accounts/all");
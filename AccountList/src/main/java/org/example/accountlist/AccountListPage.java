@@ -0,0 +1,49 @@
+package org.example.accountList;
+
+import org.example.accountList.Account.GetAccountListResponseFlow;
+
+/**
+ * Page de résultats getAccountList, avec le jeton opaque de la page suivante (null = dernière page)
+ */
+public class AccountListPage {
+
+    /**
+     * Ordres de tri stables proposés à la pagination
+     */
+    public enum Sort {
+        IBAN,       // IBAN croissant
+        BALANCE     // solde croissant, puis IBAN
+    }
+
+    private final GetAccountListResponseFlow responseFlow;
+    private final Sort sort;
+    private final int pageSize;
+    private final String nextPageToken;
+
+    public AccountListPage(GetAccountListResponseFlow responseFlow, Sort sort, int pageSize, String nextPageToken) {
+        this.responseFlow = responseFlow;
+        this.sort = sort;
+        this.pageSize = pageSize;
+        this.nextPageToken = nextPageToken;
+    }
+
+    public GetAccountListResponseFlow getResponseFlow() {
+        return responseFlow;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+}
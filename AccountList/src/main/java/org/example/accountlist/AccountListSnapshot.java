@@ -0,0 +1,152 @@
+package org.example.accountList;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Comptes de GET /accounts/all déjà sérialisés (JSON + variante compressée), pour une version donnée des comptes
+ *
+ * Seules les données des comptes sont mises en cache : le début du corps JSON jusqu'à la liste des comptes incluse.
+ * Les champs propres à chaque réponse (horodatage...) forment une fin de corps fournie à chaque appel :
+ * - JSON : début en cache + fin
+ * - gzip : en-tête gzip + début compressé une fois (bloc deflate terminé par SYNC_FLUSH, réutilisable)
+ *   + fin compressée à la demande (dernier bloc) + CRC32 prolongé sur la fin et longueur totale
+ * Construit une fois par version du registre : un appel ne sérialise et ne compresse que quelques dizaines d'octets.
+ */
+public class AccountListSnapshot {
+
+    // En-tête gzip minimal : deflate, sans nom ni date, système inconnu
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int[] CRC_TABLE = crcTable();
+
+    private final long version;
+    private final int totalAccounts;
+    private final byte[] accountsJson;
+    private final byte[] accountsDeflated;
+    private final long accountsCrc;
+    private final String etag;
+
+    /**
+     * @param accountsJson début du corps JSON, sans l'accolade fermante : {"totalAccounts":..,"accounts":[..]
+     */
+    public AccountListSnapshot(long version, int totalAccounts, byte[] accountsJson) {
+        this.version = version;
+        this.totalAccounts = totalAccounts;
+        this.accountsJson = accountsJson;
+        this.accountsDeflated = deflateWithoutEnd(accountsJson);
+
+        CRC32 crc = new CRC32();
+        crc.update(accountsJson);
+        this.accountsCrc = crc.getValue();
+        // ETag faible : mêmes comptes, mais horodatage propre à chaque réponse
+        this.etag = "W/\"all-" + Long.toHexString(accountsCrc) + "-" + accountsJson.length + "\"";
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getTotalAccounts() {
+        return totalAccounts;
+    }
+
+    /**
+     * Corps JSON complet : comptes en cache suivis de la fin de corps de cette réponse
+     *
+     * @param tail champs de la réponse, de la virgule qui suit la liste des comptes à l'accolade fermante
+     */
+    public byte[] getJson(byte[] tail) {
+        byte[] json = new byte[accountsJson.length + tail.length];
+        System.arraycopy(accountsJson, 0, json, 0, accountsJson.length);
+        System.arraycopy(tail, 0, json, accountsJson.length, tail.length);
+        return json;
+    }
+
+    /**
+     * Même corps que getJson(tail), compressé gzip sans recompresser les comptes
+     */
+    public byte[] getGzip(byte[] tail) {
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream(
+                GZIP_HEADER.length + accountsDeflated.length + tail.length + 32);
+        gzip.writeBytes(GZIP_HEADER);
+        gzip.writeBytes(accountsDeflated);
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(tail);
+            deflater.finish();
+            byte[] buffer = new byte[tail.length + 64];
+            while (!deflater.finished()) {
+                gzip.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+
+        writeIntLE(gzip, (int) crc32(accountsCrc, tail));
+        writeIntLE(gzip, accountsJson.length + tail.length);
+        return gzip.toByteArray();
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * ETag de la variante gzip (mêmes données, autres octets)
+     */
+    public String getGzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+
+    /**
+     * Blocs deflate bruts des comptes, sans bloc final : la fin de corps compressée ensuite les prolonge
+     */
+    private static byte[] deflateWithoutEnd(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            int length;
+            do {
+                length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                out.write(buffer, 0, length);
+            } while (length == buffer.length);
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * CRC32 de (données déjà sommées + bytes), à partir de la somme crc des données déjà sommées
+     */
+    static long crc32(long crc, byte[] bytes) {
+        int c = ~(int) crc;
+        for (byte b : bytes) {
+            c = CRC_TABLE[(c ^ b) & 0xff] ^ (c >>> 8);
+        }
+        return ~c & 0xffffffffL;
+    }
+
+    private static int[] crcTable() {
+        int[] table = new int[256];
+        for (int n = 0; n < 256; n++) {
+            int c = n;
+            for (int k = 0; k < 8; k++) {
+                c = (c & 1) != 0 ? 0xedb88320 ^ (c >>> 1) : c >>> 1;
+            }
+            table[n] = c;
+        }
+        return table;
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+}
@@ -0,0 +1,330 @@
+package org.example.accountList;
+
+import org.example.accountList.Account.ComparisonAmount;
+import org.example.accountList.MockBankingAccountListService.BankingAccountData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Registre des comptes modifiable à chaud : ouverture, clôture, crédit, débit
+ *
+ * - chaque compte est une suite de versions immuables ; une écriture publie une copie modifiée à la séquence suivante
+ * - verrous par tranche de comptes (lock striping) : les opérations sur un même compte s'exécutent l'une après l'autre
+ *   (lecture du solde, contrôle, écriture), celles sur des comptes différents avancent en parallèle
+ * - publication : courte section sous publishLock (séquence, index, colonnes, puis séquence publiée) ;
+ *   index, colonnes et agrégats restent ainsi cohérents avec les comptes
+ * - lecture : fixe la séquence publiée et ne retient que les versions visibles à cette séquence ; une recherche voit
+ *   un état cohérent du registre sans jamais bloquer un écrivain ni être bloquée par lui
+ * - les versions périmées sont purgées par un écrivain quand aucune lecture n'est en cours (tryLock : pas d'attente) ;
+ *   au-delà d'un plafond, l'écrivain attend brièvement la fin des lectures pour que la purge finisse par passer
+ * - suffixes de compte attribués par client avec un compteur atomique : pas de doublon entre ouvertures concurrentes
+ */
+class AccountRegistry {
+
+    private static final int STRIPES = 64;
+
+    // Purge dès que les versions périmées dépassent ce seuil et le quart des comptes
+    private static final int PURGE_THRESHOLD = 1024;
+
+    // Au-delà de ce plafond (et de la moitié des comptes), la purge attend au plus PURGE_WAIT_MS la fin des lectures
+    private static final int PURGE_FORCE_THRESHOLD = 16 * PURGE_THRESHOLD;
+    private static final long PURGE_WAIT_MS = 100;
+
+    private final Map<String, BankingAccountData> current = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ReentrantLock publishLock = new ReentrantLock();
+    // Pris en lecture par les recherches, en écriture par la purge seulement : les écrivains ne le prennent jamais
+    private final ReentrantReadWriteLock readers = new ReentrantReadWriteLock();
+    private volatile long publishedSeq;
+    private final AtomicInteger retiredVersions = new AtomicInteger();
+    // Plus grand suffixe de compte par client
+    private final Map<String, AtomicInteger> lastSuffixes = new ConcurrentHashMap<>();
+
+    private final AccountSearchIndex searchIndex = new AccountSearchIndex();
+    private final AccountColumnStore balanceColumns = new AccountColumnStore();
+    private final AccountBalanceAggregates balanceAggregates = new AccountBalanceAggregates();
+
+    AccountRegistry() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Ouvre un compte (IBAN encore inconnu du registre)
+     */
+    BankingAccountData open(BankingAccountData account) {
+        ReentrantLock stripe = stripe(account.iban);
+        stripe.lock();
+        try {
+            if (current.containsKey(account.iban)) {
+                throw new IllegalStateException("Compte déjà existant: " + account.iban);
+            }
+            publish(null, account);
+            balanceAggregates.accountAdded(account);
+            int suffix = parseSuffix(account.suffix);
+            if (suffix > 0) {
+                lastSuffix(account.customerCode).accumulateAndGet(suffix, Math::max);
+            }
+        } finally {
+            stripe.unlock();
+        }
+        purgeIfNeeded();
+        return account;
+    }
+
+    /**
+     * Suffixe du prochain compte du client : supérieur à tous ses suffixes, jamais attribué deux fois
+     */
+    int nextSuffix(String customerCode) {
+        return lastSuffix(customerCode).incrementAndGet();
+    }
+
+    /**
+     * Clôture un compte ouvert à solde nul (statut F)
+     */
+    BankingAccountData close(String iban) {
+        return update(iban, account -> {
+            if (account.balanceCents != 0) {
+                throw new IllegalStateException("Clôture impossible, solde non nul: " + account.balance());
+            }
+            account.status = "F";
+        });
+    }
+
+    /**
+     * Crédite un compte ouvert (montant en centimes)
+     */
+    BankingAccountData credit(String iban, long amountCents) {
+        requirePositive(amountCents);
+        return update(iban, account -> account.balanceCents = Math.addExact(account.balanceCents, amountCents));
+    }
+
+    /**
+     * Débite un compte ouvert (montant en centimes) ; pas de découvert : le solde doit couvrir le montant
+     */
+    BankingAccountData debit(String iban, long amountCents) {
+        requirePositive(amountCents);
+        return update(iban, account -> {
+            if (account.balanceCents < amountCents) {
+                throw new IllegalStateException("Solde insuffisant: " + account.balance()
+                        + " < " + AccountAmounts.toAmount(amountCents));
+            }
+            account.balanceCents -= amountCents;
+        });
+    }
+
+    /**
+     * Lecture, contrôle et écriture d'un compte ouvert sous le verrou de sa tranche
+     * change modifie une copie de la version courante (et lève une exception pour refuser l'opération).
+     */
+    private BankingAccountData update(String iban, Consumer<BankingAccountData> change) {
+        BankingAccountData next;
+        ReentrantLock stripe = stripe(iban);
+        stripe.lock();
+        try {
+            BankingAccountData previous = current.get(iban);
+            if (previous == null) {
+                throw new NoSuchElementException("Compte non trouvé: " + iban);
+            }
+            if (!"O".equals(previous.status)) {
+                throw new IllegalStateException("Compte non ouvert (statut " + previous.status + "): " + iban);
+            }
+            next = previous.copy();
+            change.accept(next);
+            publish(previous, next);
+
+            if (next.balanceCents != previous.balanceCents) {
+                balanceAggregates.balanceChanged(next, previous.balanceCents, next.balanceCents);
+            }
+            if (!next.status.equals(previous.status)) {
+                balanceAggregates.statusChanged(next, previous.status, next.status);
+            }
+        } finally {
+            stripe.unlock();
+        }
+        purgeIfNeeded();
+        return next;
+    }
+
+    /**
+     * Publie next (et périme previous) à la séquence suivante
+     */
+    private void publish(BankingAccountData previous, BankingAccountData next) {
+        publishLock.lock();
+        try {
+            long seq = publishedSeq + 1;
+            next.createdSeq = seq;
+            searchIndex.add(next);
+            balanceColumns.append(next);
+            if (previous != null) {
+                previous.retiredSeq = seq;
+                balanceColumns.retire(previous, seq);
+                retiredVersions.incrementAndGet();
+            }
+            current.put(next.iban, next);
+            // En dernier : une lecture qui fixe seq voit tout ce qui précède
+            publishedSeq = seq;
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Purge des versions périmées, seulement si aucune lecture n'est en cours
+     * Les lectures attendent la fin de la purge ; les écrivains continuent, sauf pendant le compactage des colonnes.
+     * Sous un flux continu de lectures, tryLock échouerait toujours : au-delà du plafond, l'écrivain attend
+     * (hors verrou de tranche) que les lectures en cours se terminent, les nouvelles lectures passant après lui.
+     */
+    private void purgeIfNeeded() {
+        int retired = retiredVersions.get();
+        if (retired < PURGE_THRESHOLD || retired < current.size() / 4) {
+            return;
+        }
+        ReentrantReadWriteLock.WriteLock exclusive = readers.writeLock();
+        boolean force = retired >= PURGE_FORCE_THRESHOLD && retired >= current.size() / 2;
+        try {
+            if (!(force ? exclusive.tryLock(PURGE_WAIT_MS, TimeUnit.MILLISECONDS) : exclusive.tryLock())) {
+                return;   // lectures en cours : une prochaine écriture réessaiera
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            // Versions périmées au plus tard à watermark : invisibles pour toute lecture à venir (seq >= watermark)
+            long watermark = publishedSeq;
+            int purged = searchIndex.purge(watermark);
+            publishLock.lock();
+            try {
+                balanceColumns.compact(watermark);
+            } finally {
+                publishLock.unlock();
+            }
+            retiredVersions.addAndGet(-purged);
+        } finally {
+            exclusive.unlock();
+        }
+    }
+
+    /**
+     * Exécute une lecture sur l'état publié à une séquence fixe
+     */
+    private <T> T read(LongFunction<T> query) {
+        ReentrantReadWriteLock.ReadLock shared = readers.readLock();
+        shared.lock();
+        try {
+            return query.apply(publishedSeq);
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    /**
+     * Comptes satisfaisant les critères (null = critère absent), tous les comptes sans critère
+     * Sans client mais avec un filtre de solde, parcours des colonnes de soldes ; sinon index.
+     */
+    List<BankingAccountData> search(String customerCode, String status, String typeCode, ComparisonAmount balance) {
+        return read(seq -> {
+            if (customerCode == null && AccountSearchIndex.isBalanceFilter(balance)) {
+                long[] matches = balanceColumns.newBitmap();
+                int count = balanceColumns.scan(seq, balance, status, typeCode, null, matches);
+                List<BankingAccountData> result = new ArrayList<>(count);
+                balanceColumns.collect(matches, result);
+                return result;
+            }
+            List<BankingAccountData> matching = searchIndex.search(seq, customerCode, status, typeCode, balance);
+            if (matching != null) {
+                return matching;
+            }
+            List<BankingAccountData> all = new ArrayList<>(current.size());
+            searchIndex.forEachVisible(seq, all::add);
+            return all;
+        });
+    }
+
+    /**
+     * Page triée de comptes, strictement après after (null = première page), limit au plus
+     */
+    List<BankingAccountData> page(String customerCode, String status, String typeCode, ComparisonAmount balance,
+                                  AccountListPage.Sort order, BankingAccountData after, int limit) {
+        return read(seq -> searchIndex.page(seq, customerCode, status, typeCode, balance, order, after, limit));
+    }
+
+    /**
+     * Tous les comptes à la séquence publiée, par IBAN, passés à action sous un même instantané
+     * Retourne la séquence lue.
+     */
+    long forEachAccount(Consumer<BankingAccountData> action) {
+        return read(seq -> {
+            searchIndex.forEachVisible(seq, action);
+            return seq;
+        });
+    }
+
+    BankingAccountData get(String iban) {
+        return current.get(iban);
+    }
+
+    Collection<BankingAccountData> accounts() {
+        return Collections.unmodifiableCollection(current.values());
+    }
+
+    int size() {
+        return current.size();
+    }
+
+    /**
+     * Versions périmées pas encore purgées
+     */
+    int getRetiredVersions() {
+        return retiredVersions.get();
+    }
+
+    /**
+     * Séquence publiée : change à chaque écriture (version des comptes pour GET /accounts/all)
+     */
+    long getVersion() {
+        return publishedSeq;
+    }
+
+    Map<String, Object> describeAggregates(Iterable<AccountBalanceAggregates.Dimension> dimensions) {
+        return balanceAggregates.describe(dimensions);
+    }
+
+    private AtomicInteger lastSuffix(String customerCode) {
+        AtomicInteger last = lastSuffixes.get(customerCode);
+        return last != null ? last : lastSuffixes.computeIfAbsent(customerCode, c -> new AtomicInteger());
+    }
+
+    private static int parseSuffix(String suffix) {
+        try {
+            return suffix != null ? Integer.parseInt(suffix.trim()) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private ReentrantLock stripe(String iban) {
+        int hash = iban.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static void requirePositive(long amountCents) {
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Montant invalide: " + AccountAmounts.toAmount(amountCents));
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package org.example.accountList;
+
+import org.example.accountList.Account.Comparator;
+import org.example.accountList.Account.ComparisonAmount;
+import org.example.accountList.MockBankingAccountListService.BankingAccountData;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Index secondaires des comptes pour le filtrage de getAccountList
+ *
+ * - client, statut, type de compte : comptes par valeur (index de hachage)
+ * - solde : comptes triés par (solde en centimes, IBAN), chaque opérateur de ComparisonAmount devient une sous-vue de l'arbre
+ * - client et solde : comptes de chaque client triés par (solde, IBAN), pour paginer par solde sans trier
+ * Une recherche part du plus petit ensemble candidat et n'y vérifie que les critères restants,
+ * au lieu de parcourir tous les comptes.
+ *
+ * Tous les ensembles sont triés par IBAN et les soldes par (solde, IBAN) : une page se lit à partir
+ * du dernier compte de la page précédente (keyset), sans relire ni retrier ce qui précède.
+ * Seul un petit ensemble candidat dans un autre ordre est parcouru en entier, en ne gardant que les limit
+ * premiers comptes après le curseur (tas borné).
+ *
+ * L'index contient des versions de comptes (voir AccountRegistry) : une lecture à la séquence seq ne retient
+ * que les versions visibles à seq. Structures concurrentes : les lectures le parcourent sans verrou
+ * pendant que le registre y publie de nouvelles versions.
+ */
+class AccountSearchIndex {
+
+    static final java.util.Comparator<BankingAccountData> BY_IBAN =
+            java.util.Comparator.<BankingAccountData, String>comparing(account -> account.iban)
+                    .thenComparingLong(account -> account.createdSeq);
+    static final java.util.Comparator<BankingAccountData> BY_BALANCE =
+            java.util.Comparator.<BankingAccountData>comparingLong(account -> account.balanceCents).thenComparing(BY_IBAN);
+
+    // Au-delà, un ensemble candidat qui n'est pas dans l'ordre demandé n'est pas trié : on parcourt un index ordonné
+    private static final int SORT_LIMIT = 10_000;
+
+    // Bornes des sondes d'une tranche de soldes : avant / après tout IBAN
+    private static final String LOWEST_IBAN = "";
+    private static final String HIGHEST_IBAN = "\uffff";
+
+    /**
+     * Versions d'une même valeur indexée, avec leur nombre (size() d'un ConcurrentSkipListSet parcourt tout l'ensemble)
+     */
+    private static final class Versions {
+        final NavigableSet<BankingAccountData> set;
+        final AtomicInteger size = new AtomicInteger();
+
+        Versions() {
+            this(BY_IBAN);
+        }
+
+        Versions(java.util.Comparator<BankingAccountData> order) {
+            set = new ConcurrentSkipListSet<>(order);
+        }
+
+        void add(BankingAccountData version) {
+            if (set.add(version)) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(BankingAccountData version) {
+            if (set.remove(version)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    private static final Versions NONE = new Versions();
+    private static final Versions NONE_BY_BALANCE = new Versions(BY_BALANCE);
+
+    private final Versions all = new Versions();
+    private final ConcurrentHashMap<String, Versions> byCustomer = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Versions> byStatus = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Versions> byType = new ConcurrentHashMap<>();
+    private final NavigableSet<BankingAccountData> byBalance = new ConcurrentSkipListSet<>(BY_BALANCE);
+    private final ConcurrentHashMap<String, Versions> byCustomerBalance = new ConcurrentHashMap<>();
+
+    void add(BankingAccountData version) {
+        all.add(version);
+        addTo(byCustomer, version.customerCode, version);
+        addTo(byStatus, version.status, version);
+        addTo(byType, version.accountTypeCode, version);
+        byBalance.add(version);
+        addTo(byCustomerBalance, version.customerCode, version, BY_BALANCE);
+    }
+
+    void remove(BankingAccountData version) {
+        all.remove(version);
+        removeFrom(byCustomer, version.customerCode, version);
+        removeFrom(byStatus, version.status, version);
+        removeFrom(byType, version.accountTypeCode, version);
+        byBalance.remove(version);
+        removeFrom(byCustomerBalance, version.customerCode, version);
+    }
+
+    /**
+     * Retire les versions périmées au plus tard à la séquence watermark, que plus aucune lecture ne peut voir
+     * Retourne le nombre de versions retirées.
+     */
+    int purge(long watermark) {
+        List<BankingAccountData> retired = new ArrayList<>();
+        for (BankingAccountData version : all.set) {
+            if (version.retiredSeq <= watermark) {
+                retired.add(version);
+            }
+        }
+        retired.forEach(this::remove);
+        return retired.size();
+    }
+
+    /**
+     * Tous les comptes visibles à seq, par IBAN
+     */
+    void forEachVisible(long seq, Consumer<BankingAccountData> action) {
+        for (BankingAccountData version : all.set) {
+            if (version.visibleAt(seq)) {
+                action.accept(version);
+            }
+        }
+    }
+
+    /**
+     * Comptes visibles à seq satisfaisant tous les critères fournis (null = critère absent)
+     * Sans aucun critère indexable, retourne null : l'appelant renvoie tous les comptes.
+     */
+    List<BankingAccountData> search(long seq, String customerCode, String status, String typeCode, ComparisonAmount balance) {
+        Versions smallest = smallestCandidates(customerCode, status, typeCode);
+        long[] cents = isBalanceFilter(balance) ? centsRange(balance) : null;
+        NavigableSet<BankingAccountData> balanceRange = balanceRange(cents);
+
+        if (smallest == null && balanceRange == null) {
+            return null;
+        }
+
+        // Tranche de soldes plus petite que tous les ensembles d'égalité : c'est elle qui pilote
+        if (balanceRange != null && (smallest == null || sizeBelow(balanceRange, smallest.size.get()))) {
+            return matching(seq, balanceRange, customerCode, status, typeCode, null, Integer.MAX_VALUE);
+        }
+        return matching(seq, smallest.set, customerCode, status, typeCode, cents, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Page de comptes visibles à seq, triés selon order, strictement après le compte after (null = première page)
+     * limit comptes au plus ; l'appelant en demande un de plus pour savoir s'il reste une page.
+     */
+    List<BankingAccountData> page(long seq, String customerCode, String status, String typeCode, ComparisonAmount balance,
+                                  AccountListPage.Sort order, BankingAccountData after, int limit) {
+        Versions smallest = smallestCandidates(customerCode, status, typeCode);
+        long[] cents = isBalanceFilter(balance) ? centsRange(balance) : null;
+        NavigableSet<BankingAccountData> balanceRange = balanceRange(cents);
+
+        if (order == AccountListPage.Sort.BALANCE) {
+            // Comptes d'un client : déjà triés par solde, lus à partir du curseur
+            if (customerCode != null) {
+                NavigableSet<BankingAccountData> ordered =
+                        slice(byCustomerBalance.getOrDefault(customerCode, NONE_BY_BALANCE).set, cents);
+                return matching(seq, after != null ? ordered.tailSet(after, false) : ordered,
+                        null, status, typeCode, null, limit);
+            }
+
+            NavigableSet<BankingAccountData> ordered = balanceRange != null ? balanceRange : byBalance;
+
+            // Peu de comptes candidats (un statut ou un type rare) : tas borné plutôt que parcours de tous les soldes
+            if (smallest != null && smallest.size.get() <= SORT_LIMIT && !sizeBelow(ordered, smallest.size.get())) {
+                return boundedPage(seq, smallest.set, BY_BALANCE, null, status, typeCode, cents, after, limit);
+            }
+            return matching(seq, after != null ? ordered.tailSet(after, false) : ordered,
+                    null, status, typeCode, null, limit);
+        }
+
+        // Tri par IBAN : seul le filtre de solde est sélectif et la tranche est petite, tas borné sur la tranche
+        if (smallest == null && balanceRange != null && sizeBelow(balanceRange, SORT_LIMIT + 1)) {
+            return boundedPage(seq, balanceRange, BY_IBAN, null, null, null, null, after, limit);
+        }
+
+        NavigableSet<BankingAccountData> ordered = smallest != null ? smallest.set : all.set;
+        return matching(seq, after != null ? ordered.tailSet(after, false) : ordered,
+                customerCode, status, typeCode, cents, limit);
+    }
+
+    /**
+     * Les limit premiers comptes (selon order) strictement après after parmi des candidats dans un autre ordre
+     * Tas borné à limit comptes, le dernier de la page en tête : rien n'est trié ni copié au-delà de la page.
+     */
+    private static List<BankingAccountData> boundedPage(long seq, Iterable<BankingAccountData> candidates,
+                                                        java.util.Comparator<BankingAccountData> order,
+                                                        String customerCode, String status, String typeCode,
+                                                        long[] cents, BankingAccountData after, int limit) {
+        PriorityQueue<BankingAccountData> page = new PriorityQueue<>(Math.max(1, Math.min(limit, 64)), order.reversed());
+        for (BankingAccountData account : candidates) {
+            if ((after != null && order.compare(account, after) <= 0)
+                    || !account.visibleAt(seq) || !matchesAll(account, customerCode, status, typeCode, cents)) {
+                continue;
+            }
+            if (page.size() < limit) {
+                page.add(account);
+            } else if (order.compare(account, page.peek()) < 0) {
+                page.poll();
+                page.add(account);
+            }
+        }
+        List<BankingAccountData> result = new ArrayList<>(page);
+        result.sort(order);
+        return result;
+    }
+
+    /**
+     * Versions visibles à seq et satisfaisant les critères, dans l'ordre de parcours, limit au plus
+     * cents : intervalle de soldes [bas, haut] en centimes (null = pas de filtre de solde)
+     */
+    private static List<BankingAccountData> matching(long seq, Iterable<BankingAccountData> candidates,
+                                                     String customerCode, String status, String typeCode,
+                                                     long[] cents, int limit) {
+        List<BankingAccountData> result = new ArrayList<>(Math.min(limit, 16));
+        for (BankingAccountData account : candidates) {
+            if (account.visibleAt(seq) && matchesAll(account, customerCode, status, typeCode, cents)) {
+                result.add(account);
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Plus petit des ensembles client / statut / type demandés - null si aucun de ces critères
+     */
+    private Versions smallestCandidates(String customerCode, String status, String typeCode) {
+        Versions smallest = null;
+        if (customerCode != null) {
+            smallest = smaller(smallest, byCustomer.getOrDefault(customerCode, NONE));
+        }
+        if (status != null) {
+            smallest = smaller(smallest, byStatus.getOrDefault(status, NONE));
+        }
+        if (typeCode != null) {
+            smallest = smaller(smallest, byType.getOrDefault(typeCode, NONE));
+        }
+        return smallest;
+    }
+
+    private static Versions smaller(Versions current, Versions candidate) {
+        return current == null || candidate.size.get() < current.size.get() ? candidate : current;
+    }
+
+    /**
+     * Sous-vue de l'index des soldes pour l'intervalle en centimes - null si pas de filtre de solde
+     */
+    private NavigableSet<BankingAccountData> balanceRange(long[] cents) {
+        return cents == null ? null : slice(byBalance, cents);
+    }
+
+    /**
+     * Sous-vue d'un ensemble trié par (solde, IBAN) pour l'intervalle en centimes (null = tout l'ensemble)
+     */
+    private static NavigableSet<BankingAccountData> slice(NavigableSet<BankingAccountData> byBalance, long[] cents) {
+        if (cents == null) {
+            return byBalance;
+        }
+        if (cents[0] > cents[1]) {
+            return Collections.emptyNavigableSet();
+        }
+        return byBalance.subSet(probe(cents[0], LOWEST_IBAN, Long.MIN_VALUE), true,
+                probe(cents[1], HIGHEST_IBAN, Long.MAX_VALUE), true);
+    }
+
+    /**
+     * Compte "sonde" servant de borne dans les ensembles triés
+     * createdSeq = Long.MAX_VALUE : placée après toutes les versions du même IBAN (reprise d'une page après ce compte)
+     */
+    static BankingAccountData probe(long balanceCents, String iban, long createdSeq) {
+        BankingAccountData probe = new BankingAccountData();
+        probe.balanceCents = balanceCents;
+        probe.iban = iban;
+        probe.createdSeq = createdSeq;
+        return probe;
+    }
+
+    /**
+     * Filtre de solde exprimé en intervalle fermé [bas, haut] de centimes, calculé exactement sur les montants décimaux
+     * Une borne qui n'est pas au centime est arrondie vers l'intérieur (EQUALS sur 10.005 : intervalle vide).
+     */
+    static long[] centsRange(ComparisonAmount filter) {
+        if (!isBalanceFilter(filter)) {
+            return new long[]{Long.MIN_VALUE, Long.MAX_VALUE};
+        }
+        BigDecimal amount1 = filter.getAmount1();
+        BigDecimal amount2 = filter.getAmount2();
+
+        switch (filter.getComparator()) {
+            case EQUALS:
+                return new long[]{ceiling(amount1), floor(amount1)};
+            case GREATER_THAN:
+                return new long[]{next(floor(amount1)), Long.MAX_VALUE};
+            case GREATER_EQUALS:
+                return new long[]{ceiling(amount1), Long.MAX_VALUE};
+            case LOWER_THAN:
+                return new long[]{Long.MIN_VALUE, previous(ceiling(amount1))};
+            case LOWER_EQUALS:
+                return new long[]{Long.MIN_VALUE, floor(amount1)};
+            case BETWEEN:
+                return new long[]{next(floor(amount1)), previous(ceiling(amount2))};
+            case BETWEEN_EQUALS:
+                return new long[]{ceiling(amount1), floor(amount2)};
+            default:
+                return new long[]{Long.MIN_VALUE, Long.MAX_VALUE};
+        }
+    }
+
+    private static long ceiling(BigDecimal amount) {
+        return AccountAmounts.roundedCents(amount, RoundingMode.CEILING);
+    }
+
+    private static long floor(BigDecimal amount) {
+        return AccountAmounts.roundedCents(amount, RoundingMode.FLOOR);
+    }
+
+    private static long next(long cents) {
+        return cents == Long.MAX_VALUE ? cents : cents + 1;
+    }
+
+    private static long previous(long cents) {
+        return cents == Long.MIN_VALUE ? cents : cents - 1;
+    }
+
+    /**
+     * Le filtre de solde restreint-il le résultat ? (montant absent, comparateur absent ou BETWEEN sans borne haute : non)
+     */
+    static boolean isBalanceFilter(ComparisonAmount filter) {
+        if (filter == null || filter.getAmount1() == null || filter.getComparator() == null) {
+            return false;
+        }
+        Comparator comparator = filter.getComparator();
+        return (comparator != Comparator.BETWEEN && comparator != Comparator.BETWEEN_EQUALS) || filter.getAmount2() != null;
+    }
+
+    private static boolean matchesAll(BankingAccountData account, String customerCode, String status,
+                                      String typeCode, long[] cents) {
+        return (customerCode == null || customerCode.equals(account.customerCode))
+                && (status == null || status.equals(account.status))
+                && (typeCode == null || typeCode.equals(account.accountTypeCode))
+                && (cents == null || (account.balanceCents >= cents[0] && account.balanceCents <= cents[1]));
+    }
+
+    /**
+     * L'ensemble compte-t-il moins de limit versions ? (arrêt dès la limite atteinte : la taille d'une sous-vue n'est pas en O(1))
+     */
+    private static boolean sizeBelow(Iterable<BankingAccountData> versions, int limit) {
+        int size = 0;
+        for (BankingAccountData ignored : versions) {
+            if (++size >= limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addTo(ConcurrentHashMap<String, Versions> index, String key, BankingAccountData version) {
+        addTo(index, key, version, BY_IBAN);
+    }
+
+    private static void addTo(ConcurrentHashMap<String, Versions> index, String key, BankingAccountData version,
+                              java.util.Comparator<BankingAccountData> order) {
+        // compute atomique par clé : un ensemble vidé par une purge ne peut pas être retiré pendant l'ajout
+        index.compute(key, (k, versions) -> {
+            Versions target = versions != null ? versions : new Versions(order);
+            target.add(version);
+            return target;
+        });
+    }
+
+    private static void removeFrom(ConcurrentHashMap<String, Versions> index, String key, BankingAccountData version) {
+        index.computeIfPresent(key, (k, versions) -> {
+            versions.remove(version);
+            return versions.size.get() == 0 ? null : versions;
+        });
+    }
+}
@@ -1,14 +1,22 @@
 package org.example.accountlist;
 
 import org.example.accountList.Account.*;
+import org.example.accountList.AccountListPage;
+import org.example.accountList.AccountListSnapshot;
+import org.example.accountList.Account.Comparator;
 import org.example.accountList.Account.RequestHeader;
 import org.example.accountlist.MockBankingAccountListService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.xml.datatype.DatatypeFactory;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
@@ -24,25 +32,56 @@ public class BankingAccountListController {
     @Autowired
     private MockBankingAccountListService accountListService;
 
+    // Pagination : taille par défaut et plafond de pageSize
+    @Value("${banking.accounts.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${banking.accounts.page.max-size:500}")
+    private int maxPageSize;
+
     /**
      * GET /api/banking/accounts/all - Récupérer TOUS les comptes (approche simple)
+     * Servi depuis le registre du service : comptes pré-sérialisés (JSON, ou gzip si préféré), ETag / If-None-Match
+     * Horodatage et autres champs de réponse générés à chaque appel, hors du cache
+     * Toujours la liste complète : la pagination est servie par GET /page (autre format de réponse)
      */
     @GetMapping("/all")
-    public ResponseEntity<?> getAllAccounts() {
+    public ResponseEntity<?> getAllAccounts(@RequestParam(required = false) Integer pageSize,
+                                            @RequestParam(required = false) String pageToken,
+                                            WebRequest webRequest) {
         System.out.println("🏦 === GET /api/banking/accounts/all ===");
 
+        if (pageSize != null || pageToken != null) {
+            return ResponseEntity.badRequest()
+                    .body(createErrorResponse("Pagination non supportée sur /all : utiliser GET /api/banking/accounts/page"));
+        }
+
         try {
-            List<Map<String, Object>> allAccounts = generateMockAccounts();
+            // Comptes pré-sérialisés, reconstruits seulement quand les comptes changent
+            AccountListSnapshot snapshot = accountListService.getAllAccountsSnapshot();
+            boolean gzip = prefersGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+            // Un ETag par représentation : JSON brut et JSON compressé n'ont pas les mêmes octets
+            String etag = gzip ? snapshot.getGzipEtag() : snapshot.getEtag();
+            if (etagMatches(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                        .build();
+            }
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("totalAccounts", allAccounts.size());
-            response.put("accounts", allAccounts);
-            response.put("timestamp", System.currentTimeMillis());
-            response.put("description", "Liste complète des comptes bancaires pour filtrage frontend");
-            response.put("note", "Filtrage et recherche à effectuer côté frontend");
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
 
-            System.out.println("✅ " + allAccounts.size() + " comptes retournés pour filtrage frontend");
-            return ResponseEntity.ok(response);
+            byte[] tail = accountListService.createAllAccountsTail();
+            System.out.println("✅ " + snapshot.getTotalAccounts() + " comptes retournés pour filtrage frontend"
+                    + (gzip ? " (gzip)" : ""));
+            return response.body(gzip ? snapshot.getGzip(tail) : snapshot.getJson(tail));
 
         } catch (Exception e) {
             System.err.println("❌ Erreur récupération comptes: " + e.getMessage());
@@ -51,14 +90,32 @@ public class BankingAccountListController {
         }
     }
 
+    /**
+     * GET /api/banking/accounts/page - Tous les comptes, une page à la fois
+     * ?pageSize=100&sort=IBAN|BALANCE&pageToken=... (jeton retourné par la page précédente)
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> getAccountsPage(@RequestParam(required = false) Integer pageSize,
+                                             @RequestParam(required = false) String pageToken,
+                                             @RequestParam(required = false) String sort) {
+        System.out.println("🏦 === GET /api/banking/accounts/page ===");
+        return accountPage(Collections.emptyMap(), pageSize, pageToken, sort);
+    }
+
     /**
      * POST /api/banking/accounts/search - Recherche avec critères (utilise getAccountList)
+     * Toujours tous les comptes trouvés : la pagination est servie par POST /search/page
      */
     @PostMapping("/search")
     public ResponseEntity<?> searchAccounts(@RequestBody Map<String, Object> searchCriteria) {
         System.out.println("🏦 === POST /api/banking/accounts/search ===");
         System.out.println("Critères reçus: " + searchCriteria);
 
+        if (searchCriteria.containsKey("pageSize") || searchCriteria.containsKey("pageToken")) {
+            return ResponseEntity.badRequest()
+                    .body(createErrorResponse("Pagination non supportée sur /search : utiliser POST /api/banking/accounts/search/page"));
+        }
+
         try {
             GetAccountListRequestFlow soapRequest = buildAccountListRequest(searchCriteria);
             GetAccountListResponseFlow soapResponse = accountListService.getAccountList(soapRequest);
@@ -78,6 +135,9 @@ public class BankingAccountListController {
                 return ResponseEntity.ok(restResponse);
             }
 
+        } catch (IllegalArgumentException e) {
+            // Critère mal formé (comparateur, montant, statut...)
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
         } catch (Exception e) {
             System.err.println("❌ Erreur recherche comptes: " + e.getMessage());
             e.printStackTrace();
@@ -86,6 +146,26 @@ public class BankingAccountListController {
         }
     }
 
+    /**
+     * POST /api/banking/accounts/search/page - Recherche avec critères, une page à la fois
+     * Critères de /search + pageSize, sort (IBAN ou BALANCE) et pageToken (jeton retourné par la page précédente)
+     */
+    @PostMapping("/search/page")
+    public ResponseEntity<?> searchAccountsPage(@RequestBody Map<String, Object> searchCriteria) {
+        System.out.println("🏦 === POST /api/banking/accounts/search/page ===");
+        System.out.println("Critères reçus: " + searchCriteria);
+
+        Object pageSize = searchCriteria.get("pageSize");
+        try {
+            return accountPage(searchCriteria,
+                    pageSize != null ? Integer.valueOf(pageSize.toString()) : null,
+                    (String) searchCriteria.get("pageToken"),
+                    (String) searchCriteria.get("sort"));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse("pageSize invalide: " + pageSize));
+        }
+    }
+
     /**
      * GET /api/banking/accounts/customer/{customerCode} - Comptes d'un client
      */
@@ -112,6 +192,119 @@ public class BankingAccountListController {
         }
     }
 
+    /**
+     * GET /api/banking/accounts/aggregates - Nombre de comptes et soldes cumulés par type, statut et client
+     * ?groupBy=type,status,customer (par défaut les trois) ; valeurs tenues à jour à chaque changement de compte
+     */
+    @GetMapping("/aggregates")
+    public ResponseEntity<?> getBalanceAggregates(@RequestParam(required = false) String groupBy) {
+        System.out.println("🏦 === GET /api/banking/accounts/aggregates ===");
+
+        try {
+            Map<String, Object> response = new LinkedHashMap<>(accountListService.getBalanceAggregates(groupBy));
+            response.put("currency", "XOF");
+            response.put("timestamp", System.currentTimeMillis());
+
+            System.out.println("✅ Agrégats de soldes retournés");
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Erreur agrégats: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Erreur agrégats: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /api/banking/accounts - Ouvrir un compte
+     * Corps : customerCode, customerName, accountType, accountTypeDescription, title, initialBalance (optionnel)
+     */
+    @PostMapping
+    public ResponseEntity<?> openAccount(@RequestBody Map<String, Object> request) {
+        System.out.println("🏦 === POST /api/banking/accounts ===");
+
+        return accountOperation("ouverture", HttpStatus.CREATED, () -> accountListService.openAccount(
+                Objects.toString(request.get("customerCode"), null),
+                Objects.toString(request.get("customerName"), null),
+                Objects.toString(request.get("accountType"), null),
+                Objects.toString(request.get("accountTypeDescription"), null),
+                Objects.toString(request.get("title"), null),
+                amountOf(request.get("initialBalance"))));
+    }
+
+    /**
+     * POST /api/banking/accounts/{iban}/close - Clôturer un compte (solde nul)
+     */
+    @PostMapping("/{iban}/close")
+    public ResponseEntity<?> closeAccount(@PathVariable String iban) {
+        System.out.println("🏦 === POST /api/banking/accounts/" + iban + "/close ===");
+
+        return accountOperation("clôture", HttpStatus.OK, () -> accountListService.closeAccount(iban));
+    }
+
+    /**
+     * POST /api/banking/accounts/{iban}/credit - Créditer un compte ouvert ({"amount": ...})
+     */
+    @PostMapping("/{iban}/credit")
+    public ResponseEntity<?> creditAccount(@PathVariable String iban, @RequestBody Map<String, Object> request) {
+        System.out.println("🏦 === POST /api/banking/accounts/" + iban + "/credit ===");
+
+        return accountOperation("crédit", HttpStatus.OK,
+                () -> accountListService.creditAccount(iban, amountOf(request.get("amount"))));
+    }
+
+    /**
+     * POST /api/banking/accounts/{iban}/debit - Débiter un compte ouvert, sans découvert ({"amount": ...})
+     */
+    @PostMapping("/{iban}/debit")
+    public ResponseEntity<?> debitAccount(@PathVariable String iban, @RequestBody Map<String, Object> request) {
+        System.out.println("🏦 === POST /api/banking/accounts/" + iban + "/debit ===");
+
+        return accountOperation("débit", HttpStatus.OK,
+                () -> accountListService.debitAccount(iban, amountOf(request.get("amount"))));
+    }
+
+    /**
+     * Exécute une opération sur un compte : 404 compte inconnu, 400 requête invalide, 409 opération refusée
+     */
+    private ResponseEntity<?> accountOperation(String operation, HttpStatus successStatus,
+                                               java.util.function.Supplier<Map<String, Object>> action) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("account", action.get());
+            response.put("operation", operation);
+            response.put("timestamp", System.currentTimeMillis());
+
+            System.out.println("✅ Opération " + operation + " effectuée");
+            return ResponseEntity.status(successStatus).body(response);
+
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(createErrorResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            System.out.println("⚠️ Opération " + operation + " refusée: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Erreur opération " + operation + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Erreur " + operation + ": " + e.getMessage()));
+        }
+    }
+
+    private BigDecimal amountOf(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Montant invalide: " + value);
+        }
+    }
+
     /**
      * GET /api/banking/accounts/status - Statut du service
      */
@@ -143,6 +336,54 @@ public class BankingAccountListController {
         }
     }
 
+    /**
+     * Page de comptes : critères de recherche + tri stable + jeton de la page suivante
+     */
+    private ResponseEntity<?> accountPage(Map<String, Object> criteria, Integer pageSize, String pageToken, String sort) {
+        AccountListPage.Sort pageSort;
+        try {
+            pageSort = sort != null ? AccountListPage.Sort.valueOf(sort.trim().toUpperCase()) : AccountListPage.Sort.IBAN;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(createErrorResponse("Tri inconnu: " + sort + " (valeurs: IBAN, BALANCE)"));
+        }
+        int size = Math.max(1, Math.min(pageSize != null ? pageSize : defaultPageSize, maxPageSize));
+
+        try {
+            GetAccountListRequestFlow soapRequest = buildAccountListRequest(criteria);
+            AccountListPage page = accountListService.getAccountListPage(soapRequest, pageSort, pageToken, size);
+
+            if (!"0".equals(page.getResponseFlow().getResponseStatus().getStatusCode().toString())) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(createErrorResponse("Erreur recherche: " +
+                                page.getResponseFlow().getResponseStatus().getStatusCode().toString()));
+            }
+
+            Map<String, Object> response;
+            if (Boolean.TRUE.equals(criteria.get("fullResponse"))) {
+                response = new HashMap<>();
+                response.put("response", page.getResponseFlow());
+            } else {
+                response = convertToSimpleResponse(page.getResponseFlow());
+            }
+            response.put("sort", page.getSort().name());
+            response.put("pageSize", page.getPageSize());
+            response.put("hasNextPage", page.hasNextPage());
+            response.put("nextPageToken", page.getNextPageToken());
+
+            System.out.println("✅ Page de comptes retournée (tri " + page.getSort() + ")");
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            // Jeton de page invalide ou critère mal formé
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Erreur page de comptes: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Erreur recherche: " + e.getMessage()));
+        }
+    }
+
     // ========================================
     // MÉTHODES UTILITAIRES PRIVÉES
     // ========================================
@@ -168,7 +409,7 @@ public class BankingAccountListController {
             AccountFile accountFile = new AccountFile();
             PopulationFile popFile = new PopulationFile();
             RestrictedCustomer customer = new RestrictedCustomer();
-            customer.setCustomerNumber((String) criteria.get("customerCode"));
+            customer.setCustomerNumber(textOf(criteria, "customerCode"));
             popFile.setCustomer(customer);
             accountFile.setCustomer(popFile);
             accountRequest.setAccount(accountFile);
@@ -176,21 +417,60 @@ public class BankingAccountListController {
 
         // Filtre par statut
         if (criteria.containsKey("accountStatus")) {
-            String status = (String) criteria.get("accountStatus");
-            accountRequest.setAccountStatus(AccountStatus.fromValue(status));
+            String status = textOf(criteria, "accountStatus");
+            try {
+                accountRequest.setAccountStatus(AccountStatus.fromValue(status));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("accountStatus inconnu: " + status);
+            }
         }
 
         // Filtre par type
         if (criteria.containsKey("accountType")) {
             AccountType accountType = new AccountType();
-            accountType.setCode((String) criteria.get("accountType"));
+            accountType.setCode(textOf(criteria, "accountType"));
             accountRequest.setAccountType(accountType);
         }
 
+        // Filtre par solde : balanceComparator (GREATER_THAN, BETWEEN...), balanceAmount1, balanceAmount2
+        if (criteria.containsKey("balanceComparator") && criteria.containsKey("balanceAmount1")) {
+            ComparisonAmount balance = new ComparisonAmount();
+            balance.setComparator(comparatorOf(criteria.get("balanceComparator")));
+            balance.setAmount1(amountOf(criteria.get("balanceAmount1")));
+            balance.setAmount2(amountOf(criteria.get("balanceAmount2")));
+            accountRequest.setBalance(balance);
+        }
+
         request.setGetAccountListRequest(accountRequest);
         return request;
     }
 
+    /**
+     * Critère texte : absent (null) ou chaîne, sinon 400
+     */
+    private String textOf(Map<String, Object> criteria, String key) {
+        Object value = criteria.get(key);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException(key + " doit être une chaîne: " + value);
+        }
+        return (String) value;
+    }
+
+    /**
+     * Comparateur de solde (GREATER_THAN, BETWEEN...), insensible à la casse ; absent ou inconnu : 400
+     */
+    private Comparator comparatorOf(Object value) {
+        String invalid = "balanceComparator invalide: " + value + " (valeurs: " + Arrays.toString(Comparator.values()) + ")";
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException(invalid);
+        }
+        try {
+            return Comparator.valueOf(((String) value).trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(invalid);
+        }
+    }
+
     private Map<String, Object> convertToSimpleResponse(GetAccountListResponseFlow soapResponse) {
         Map<String, Object> response = new HashMap<>();
 
@@ -262,11 +542,11 @@ public class BankingAccountListController {
                     // Statut et soldes
                     if (accountResp.getAccountStatus() != null) {
                         accountMap.put("status", accountResp.getAccountStatus().toString());
-                        accountMap.put("statusDescription", getStatusDescription(accountResp.getAccountStatus().toString()));
+                        accountMap.put("statusDescription", MockBankingAccountListService.getStatusDescription(accountResp.getAccountStatus().toString()));
                     }
 
                     if (accountResp.getIndicativeBalance() != null) {
-                        accountMap.put("balance", accountResp.getIndicativeBalance().doubleValue());
+                        accountMap.put("balance", accountResp.getIndicativeBalance());
                     }
 
                     // Titre du compte
@@ -309,152 +589,70 @@ public class BankingAccountListController {
     }
 
     /**
-     * Génération des données Mock des comptes (pour endpoint /all simple)
+     * gzip préféré à la réponse non compressée selon Accept-Encoding et ses valeurs q
+     * gzip;q=0 ou identity mieux classé : JSON brut. Sans en-tête : JSON brut.
      */
-    private List<Map<String, Object>> generateMockAccounts() {
-        List<Map<String, Object>> accounts = new ArrayList<>();
-
-        // Comptes pour DIOUF ABLAYE (00100002)
-        accounts.add(createAccountMap(
-                "SN08SN0100010012345678901", "12345678901", "01", "00100002", "DIOUF ABLAYE",
-                "CCL", "COMPTE COURANT LIBRE", "O", 850000.0, "2020-01-15", "COMPTE PRINCIPAL DIOUF"
-        ));
-        accounts.add(createAccountMap(
-                "SN08SN0100010098765432109", "98765432109", "02", "00100002", "DIOUF ABLAYE",
-                "EPG", "LIVRET EPARGNE", "O", 250000.0, "2021-06-10", "LIVRET EPARGNE DIOUF"
-        ));
-
-        // Comptes pour FALL MAMADOU (00100004)
-        accounts.add(createAccountMap(
-                "SN08SN0100010011111111111", "11111111111", "01", "00100004", "FALL MAMADOU",
-                "CCL", "COMPTE COURANT LIBRE", "O", 450000.0, "2019-03-20", "COMPTE COURANT FALL"
-        ));
-
-        // Comptes pour DIALLO AISSATOU (00100005)
-        accounts.add(createAccountMap(
-                "SN08SN0100010022222222222", "22222222222", "01", "00100005", "DIALLO AISSATOU",
-                "CCL", "COMPTE COURANT LIBRE", "O", 320000.0, "2020-08-15", "COMPTE PRINCIPAL DIALLO"
-        ));
-        accounts.add(createAccountMap(
-                "SN08SN0100010033333333333", "33333333333", "02", "00100005", "DIALLO AISSATOU",
-                "EPG", "LIVRET EPARGNE", "O", 180000.0, "2021-12-01", "EPARGNE DIALLO"
-        ));
-        accounts.add(createAccountMap(
-                "SN08SN0100010044444444444", "44444444444", "03", "00100005", "DIALLO AISSATOU",
-                "PLA", "PLACEMENT TERME", "O", 500000.0, "2022-02-14", "PLACEMENT DIALLO"
-        ));
-
-        // Comptes pour TECHCORP SARL (00100003)
-        accounts.add(createAccountMap(
-                "SN08SN0100010055555555555", "55555555555", "01", "00100003", "TECHCORP SARL",
-                "PRO", "COMPTE PROFESSIONNEL", "O", 1200000.0, "2018-05-10", "COMPTE PRINCIPAL TECHCORP"
-        ));
-        accounts.add(createAccountMap(
-                "SN08SN0100010066666666666", "66666666666", "02", "00100003", "TECHCORP SARL",
-                "DEV", "COMPTE DEVISES", "O", 75000.0, "2019-11-22", "COMPTE USD TECHCORP"
-        ));
-
-        // Comptes pour GLOBAL SOLUTIONS (00100006)
-        accounts.add(createAccountMap(
-                "SN08SN0100010077777777777", "77777777777", "01", "00100006", "GLOBAL SOLUTIONS",
-                "PRO", "COMPTE PROFESSIONNEL", "O", 2500000.0, "2017-01-30", "COMPTE PRINCIPAL GLOBAL"
-        ));
-        accounts.add(createAccountMap(
-                "SN08SN0100010088888888888", "88888888888", "02", "00100006", "GLOBAL SOLUTIONS",
-                "INV", "COMPTE INVESTISSEMENT", "O", 800000.0, "2020-04-05", "INVESTISSEMENTS GLOBAL"
-        ));
-
-        // Comptes fermés
-        accounts.add(createAccountMap(
-                "SN08SN0100010099999999999", "99999999999", "04", "00100002", "DIOUF ABLAYE",
-                "CCL", "COMPTE COURANT LIBRE", "F", 0.0, "2018-01-10", "ANCIEN COMPTE DIOUF (FERMÉ)"
-        ));
-
-        return accounts;
+    private static boolean prefersGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        double gzip = -1;
+        double identity = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase();
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        q = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;   // valeur q illisible : codage ignoré
+                    }
+                }
+            }
+            switch (name) {
+                case "gzip":
+                case "x-gzip":
+                    gzip = Math.max(gzip, q);
+                    break;
+                case "identity":
+                    identity = q;
+                    break;
+                case "*":
+                    any = q;
+                    break;
+                default:
+                    break;
+            }
+        }
+        // Codages non cités : valeur de *, et identity reste acceptable par défaut
+        if (gzip < 0) {
+            gzip = Math.max(any, 0);
+        }
+        if (identity < 0) {
+            identity = any >= 0 ? any : 1;
+        }
+        return gzip > 0 && gzip >= identity;
     }
 
     /**
-     * Créer un objet compte Mock pour endpoint simple
+     * If-None-Match contient-il l'ETag (comparaison faible, liste ou *) ?
      */
-    private Map<String, Object> createAccountMap(String iban, String accountNumber, String suffix,
-                                                 String customerCode, String customerName,
-                                                 String accountTypeCode, String accountTypeDesc,
-                                                 String status, Double balance, String openingDate, String title) {
-        Map<String, Object> account = new HashMap<>();
-
-        // Identifiants
-        account.put("iban", iban);
-        account.put("accountNumber", accountNumber);
-        account.put("suffix", suffix);
-        account.put("customerCode", customerCode);
-        account.put("customerName", customerName);
-
-        // Type et produit
-        Map<String, String> accountType = new HashMap<>();
-        accountType.put("code", accountTypeCode);
-        accountType.put("designation", accountTypeDesc);
-        account.put("accountType", accountType);
-
-        Map<String, String> product = new HashMap<>();
-        product.put("code", accountTypeCode);
-        product.put("designation", accountTypeDesc);
-        product.put("attribute", "ACCOUNT PRODUCT");
-        account.put("product", product);
-
-        // Agence
-        Map<String, String> branch = new HashMap<>();
-        branch.put("code", "00001");
-        branch.put("designation", "AGENCE PRINCIPALE");
-        account.put("branch", branch);
-
-        // Devise
-        Map<String, String> currency = new HashMap<>();
-        currency.put("code", "XOF");
-        currency.put("designation", "FRANC CFA");
-        account.put("currency", currency);
-
-        // Informations financières
-        account.put("balance", balance);
-        account.put("status", status);
-        account.put("statusDescription", getStatusDescription(status));
-
-        // Dates
-        account.put("openingDate", openingDate);
-        account.put("lastUpdate", "2025-07-01");
-
-        // Autres informations
-        account.put("title", title);
-        account.put("checkKey", generateCheckKey());
-
-        // Type client
-        if (customerCode.equals("00100003") || customerCode.equals("00100006")) {
-            account.put("customerType", "2");
-            account.put("customerTypeDescription", "Entreprise");
-        } else {
-            account.put("customerType", "1");
-            account.put("customerTypeDescription", "Particulier");
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
         }
-
-        // Chargé de clientèle
-        Map<String, String> officer = new HashMap<>();
-        officer.put("code", "002");
-        officer.put("name", "FAYE MARIANE");
-        account.put("customerOfficer", officer);
-
-        return account;
-    }
-
-    private String getStatusDescription(String status) {
-        switch (status) {
-            case "O": return "Ouvert";
-            case "F": return "Fermé";
-            case "I": return "Inactif";
-            default: return "Inconnu";
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaque)) {
+                return true;
+            }
         }
-    }
-
-    private String generateCheckKey() {
-        return String.format("%02d", (int)(Math.random() * 100));
+        return false;
     }
 
     private Map<String, Object> createErrorResponse(String errorMessage) {
@@ -1,13 +1,18 @@
 package org.example.accountList;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.accountList.Account.Comparator;
 import org.example.accountlist.GetAccountListService;
 import org.example.accountList.Account.*;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
@@ -23,9 +28,19 @@ import static org.example.accountList.Account.Comparator.LOWER_THAN;
 @Service
 public class MockBankingAccountListService implements GetAccountListService {
 
-    private final Map<String, BankingAccountData> mockAccounts = new HashMap<>();
+    // Comptes, index de recherche, colonnes de soldes et agrégats, modifiables à chaud (ouverture, clôture, mouvements)
+    private final AccountRegistry registry = new AccountRegistry();
     private final AtomicLong requestCounter = new AtomicLong(1);
 
+    // Numéros des comptes ouverts à chaud (hors plage des comptes de démonstration)
+    private final AtomicLong nextAccountNumber = new AtomicLong(70000000000L);
+
+    // Snapshot de /all, invalidé dès que la version du registre change
+    private volatile AccountListSnapshot allAccountsSnapshot;
+
+    @Autowired(required = false)
+    private ObjectMapper objectMapper;
+
     public MockBankingAccountListService() {
         System.out.println("🏦 ==========================================");
         System.out.println("🏦 MOCK ACCOUNT LIST SERVICE ACTIVÉ DIRECTEMENT");
@@ -139,9 +154,9 @@ public class MockBankingAccountListService implements GetAccountListService {
             addAccount("SN08SN0100010099999999999", "99999999999", "04", "00100002", "DIOUF ABLAYE",
                     "CCL", "COMPTE COURANT LIBRE", "F", 0.0, "2018-01-10", "ANCIEN COMPTE DIOUF (FERMÉ)");
 
-            System.out.println("✅ " + mockAccounts.size() + " comptes bancaires initialisés");
-            mockAccounts.forEach((iban, data) ->
-                    System.out.println("  📝 " + iban + ": " + data.accountTitle)
+            System.out.println("✅ " + registry.size() + " comptes bancaires initialisés");
+            registry.accounts().forEach(data ->
+                    System.out.println("  📝 " + data.iban + ": " + data.accountTitle)
             );
 
         } catch (Exception e) {
@@ -161,11 +176,87 @@ public class MockBankingAccountListService implements GetAccountListService {
         account.accountTypeCode = accountTypeCode;
         account.accountTypeDesc = accountTypeDesc;
         account.status = status;
-        account.balance = balance;
+        account.balanceCents = AccountAmounts.toCents(BigDecimal.valueOf(balance));
         account.openingDate = openingDate;
         account.accountTitle = title;
 
-        mockAccounts.put(iban, account);
+        registry.open(account);
+    }
+
+    // ========================================
+    // OPÉRATIONS SUR LES COMPTES
+    // ========================================
+
+    /**
+     * Ouvre un compte pour un client ; numéro, IBAN et suffixe sont attribués par le mock
+     *
+     * @throws IllegalArgumentException client ou type de compte absent, solde initial négatif ou de plus de 2 décimales
+     */
+    public Map<String, Object> openAccount(String customerCode, String customerName, String accountTypeCode,
+                                           String accountTypeDesc, String title, BigDecimal initialBalance) {
+        if (customerCode == null || customerCode.isBlank()) {
+            throw new IllegalArgumentException("Code client requis");
+        }
+        if (accountTypeCode == null || accountTypeCode.isBlank()) {
+            throw new IllegalArgumentException("Type de compte requis");
+        }
+        if (initialBalance != null && initialBalance.signum() < 0) {
+            throw new IllegalArgumentException("Solde initial négatif: " + initialBalance);
+        }
+
+        BankingAccountData account = new BankingAccountData();
+        account.accountNumber = String.format("%011d", nextAccountNumber.getAndIncrement());
+        account.iban = "SN08SN01000100" + account.accountNumber;
+        account.suffix = String.format("%02d", registry.nextSuffix(customerCode));
+        account.customerCode = customerCode;
+        account.customerName = customerName;
+        account.accountTypeCode = accountTypeCode;
+        account.accountTypeDesc = accountTypeDesc != null ? accountTypeDesc : accountTypeCode;
+        account.status = "O";
+        account.balanceCents = initialBalance != null ? AccountAmounts.toCents(initialBalance) : 0L;
+        account.openingDate = LocalDate.now().toString();
+        account.accountTitle = title != null ? title : account.accountTypeDesc + " " + customerName;
+
+        System.out.println("🏦 MOCK: ouverture du compte " + account.iban + " (client " + customerCode + ")");
+        return createAccountMap(registry.open(account));
+    }
+
+    /**
+     * Clôture un compte ouvert dont le solde est nul
+     *
+     * @throws NoSuchElementException compte inconnu
+     * @throws IllegalStateException compte déjà clôturé ou solde non nul
+     */
+    public Map<String, Object> closeAccount(String iban) {
+        System.out.println("🏦 MOCK: clôture du compte " + iban);
+        return createAccountMap(registry.close(iban));
+    }
+
+    /**
+     * @throws IllegalArgumentException montant nul, négatif ou de plus de 2 décimales
+     * @throws NoSuchElementException compte inconnu
+     * @throws IllegalStateException compte non ouvert
+     */
+    public Map<String, Object> creditAccount(String iban, BigDecimal amount) {
+        System.out.println("🏦 MOCK: crédit de " + amount + " sur " + iban);
+        return createAccountMap(registry.credit(iban, amountOf(amount)));
+    }
+
+    /**
+     * @throws IllegalArgumentException montant nul, négatif ou de plus de 2 décimales
+     * @throws NoSuchElementException compte inconnu
+     * @throws IllegalStateException compte non ouvert ou solde insuffisant
+     */
+    public Map<String, Object> debitAccount(String iban, BigDecimal amount) {
+        System.out.println("🏦 MOCK: débit de " + amount + " sur " + iban);
+        return createAccountMap(registry.debit(iban, amountOf(amount)));
+    }
+
+    private static long amountOf(BigDecimal amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Montant requis");
+        }
+        return AccountAmounts.toCents(amount);
     }
 
     // ========================================
@@ -173,87 +264,115 @@ public class MockBankingAccountListService implements GetAccountListService {
     // ========================================
 
     private List<BankingAccountData> applyFilters(GetAccountListRequest request) {
-        List<BankingAccountData> result = new ArrayList<>();
+        // Index client / statut / type / solde, ou balayage des colonnes de soldes pour tout le portefeuille,
+        // sur un état cohérent du registre même pendant des écritures
+        return registry.search(customerCodeOf(request), statusOf(request), typeCodeOf(request), request.getBalance());
+    }
+
+    private String customerCodeOf(GetAccountListRequest request) {
+        if (request.getAccount() != null &&
+                request.getAccount().getCustomer() != null &&
+                request.getAccount().getCustomer().getCustomer() != null) {
+            return request.getAccount().getCustomer().getCustomer().getCustomerNumber();
+        }
+        return null;
+    }
 
-        for (BankingAccountData account : mockAccounts.values()) {
-            boolean matches = true;
+    private String statusOf(GetAccountListRequest request) {
+        return request.getAccountStatus() != null ? request.getAccountStatus().value() : null;
+    }
 
-            // Filtre par client
-            if (request.getAccount() != null &&
-                    request.getAccount().getCustomer() != null &&
-                    request.getAccount().getCustomer().getCustomer() != null &&
-                    request.getAccount().getCustomer().getCustomer().getCustomerNumber() != null) {
+    private String typeCodeOf(GetAccountListRequest request) {
+        return request.getAccountType() != null ? request.getAccountType().getCode() : null;
+    }
 
-                String filterCustomer = request.getAccount().getCustomer().getCustomer().getCustomerNumber();
-                if (!account.customerCode.equals(filterCustomer)) {
-                    matches = false;
-                }
-            }
+    // ========================================
+    // PAGINATION (KEYSET)
+    // ========================================
 
-            // Filtre par statut
-            if (request.getAccountStatus() != null) {
-                AccountStatus filterStatus = request.getAccountStatus();
-                if (!account.status.equals(filterStatus.value())) {
-                    matches = false;
-                }
-            }
+    /**
+     * getAccountList paginé : pageSize comptes au plus, triés selon sort, après le jeton pageToken (null = première page)
+     * Le jeton porte la clé (solde, IBAN) du dernier compte renvoyé et une empreinte des critères :
+     * la page suivante reprend l'index à cette clé, sans relire les pages précédentes.
+     *
+     * @throws IllegalArgumentException jeton illisible, ou émis pour d'autres critères / un autre tri
+     */
+    public AccountListPage getAccountListPage(GetAccountListRequestFlow request, AccountListPage.Sort sort,
+                                              String pageToken, int pageSize) {
+        System.out.println("🏦 MOCK: getAccountListPage() appelé (tri " + sort + ", " + pageSize + " comptes)");
+
+        GetAccountListRequest criteria = request.getGetAccountListRequest();
+        String customerCode = customerCodeOf(criteria);
+        String status = statusOf(criteria);
+        String typeCode = typeCodeOf(criteria);
+        String fingerprint = criteriaFingerprint(customerCode, status, typeCode, criteria.getBalance());
+
+        BankingAccountData after = pageToken != null ? decodePageToken(pageToken, sort, fingerprint) : null;
+
+        simulateDelay(300);
+
+        // Un compte de plus que demandé : indique s'il reste une page
+        List<BankingAccountData> accounts = registry.page(customerCode, status, typeCode, criteria.getBalance(),
+                sort, after, pageSize + 1);
+        String nextPageToken = null;
+        if (accounts.size() > pageSize) {
+            accounts = accounts.subList(0, pageSize);
+            nextPageToken = encodePageToken(sort, fingerprint, accounts.get(pageSize - 1));
+        }
 
-            // Filtre par type de compte
-            if (request.getAccountType() != null && request.getAccountType().getCode() != null) {
-                String filterType = request.getAccountType().getCode();
-                if (!account.accountTypeCode.equals(filterType)) {
-                    matches = false;
-                }
-            }
+        try {
+            GetAccountListResponseFlow responseFlow = new GetAccountListResponseFlow();
+            responseFlow.setResponseHeader(createResponseHeader(
+                    request.getRequestHeader().getRequestId()
+            ));
+            responseFlow.setResponseStatus(createSuccessStatus());
+            responseFlow.setGetAccountListResponse(buildAccountListResponse(accounts));
 
-            // Filtre par solde
-            if (request.getBalance() != null) {
-                ComparisonAmount balanceFilter = request.getBalance();
-                if (!matchesBalanceFilter(account.balance, balanceFilter)) {
-                    matches = false;
-                }
-            }
+            System.out.println("✅ Page de " + accounts.size() + " comptes" + (nextPageToken != null ? " (suite disponible)" : ""));
+            return new AccountListPage(responseFlow, sort, pageSize, nextPageToken);
 
-            if (matches) {
-                result.add(account);
-            }
+        } catch (Exception e) {
+            System.err.println("❌ Erreur Mock Account List (page): " + e.getMessage());
+            return new AccountListPage(buildErrorResponse(request.getRequestHeader().getRequestId(), e.getMessage()),
+                    sort, pageSize, null);
         }
+    }
 
-        return result;
-    }
-
-    private boolean matchesBalanceFilter(Double accountBalance, ComparisonAmount filter) {
-        if (filter.getAmount1() == null) return true;
-
-        double filterAmount1 = filter.getAmount1().doubleValue();
-        Comparator comparator = filter.getComparator();
-
-        switch (comparator) {
-            case EQUALS:
-                return accountBalance.equals(filterAmount1);
-            case GREATER_THAN:
-                return accountBalance > filterAmount1;
-            case GREATER_EQUALS:
-                return accountBalance >= filterAmount1;
-            case LOWER_THAN:
-                return accountBalance < filterAmount1;
-            case LOWER_EQUALS:
-                return accountBalance <= filterAmount1;
-            case BETWEEN:
-                if (filter.getAmount2() != null) {
-                    double filterAmount2 = filter.getAmount2().doubleValue();
-                    return accountBalance > filterAmount1 && accountBalance < filterAmount2;
-                }
-                return true;
-            case BETWEEN_EQUALS:
-                if (filter.getAmount2() != null) {
-                    double filterAmount2 = filter.getAmount2().doubleValue();
-                    return accountBalance >= filterAmount1 && accountBalance <= filterAmount2;
-                }
-                return true;
-            default:
-                return true;
+    private String encodePageToken(AccountListPage.Sort sort, String fingerprint, BankingAccountData last) {
+        String key = sort + "|" + fingerprint + "|" + last.balanceCents + "|" + last.iban;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compte "sonde" (solde, IBAN) après lequel reprendre
+     */
+    private BankingAccountData decodePageToken(String pageToken, AccountListPage.Sort sort, String fingerprint) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Jeton de page illisible");
         }
+        if (parts.length != 4 || !parts[0].equals(sort.name()) || !parts[1].equals(fingerprint)) {
+            throw new IllegalArgumentException("Jeton de page émis pour d'autres critères ou un autre tri");
+        }
+
+        BankingAccountData after = new BankingAccountData();
+        try {
+            after.balanceCents = Long.parseLong(parts[2]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Jeton de page illisible");
+        }
+        after.iban = parts[3];
+        after.createdSeq = Long.MAX_VALUE;   // après toutes les versions de ce compte
+        return after;
+    }
+
+    private String criteriaFingerprint(String customerCode, String status, String typeCode, ComparisonAmount balance) {
+        boolean balanceFiltered = AccountSearchIndex.isBalanceFilter(balance);
+        // Filtre de solde réduit à son intervalle de centimes : même empreinte pour 10, 10.0 et 10.00
+        return Integer.toHexString(Objects.hash(customerCode, status, typeCode,
+                balanceFiltered ? Arrays.hashCode(AccountSearchIndex.centsRange(balance)) : null));
     }
 
     // ========================================
@@ -360,14 +479,14 @@ public class MockBankingAccountListService implements GetAccountListService {
         response.setAccountTitle(accountTitle);
 
         // Solde indicatif
-        response.setIndicativeBalance(BigDecimal.valueOf(data.balance));
+        response.setIndicativeBalance(data.balance());
 
         // Dates
         response.setOpeningDate(parseDate(data.openingDate));
         response.setDateLocation(parseDate("2025-07-01"));
 
         // Clé de contrôle
-        response.setCheckKey(String.format("%02d", (int)(Math.random() * 100)));
+        response.setCheckKey(data.checkKey());
         response.setCheckDigitDeclared(response.getCheckKey());
 
         return response;
@@ -451,24 +570,195 @@ public class MockBankingAccountListService implements GetAccountListService {
         }
     }
 
+    // ========================================
+    // SNAPSHOT DE /accounts/all
+    // ========================================
+
+    /**
+     * Comptes de GET /accounts/all, sérialisés et compressés une seule fois par version du registre
+     * La fin du corps, propre à chaque réponse, est fournie par createAllAccountsTail()
+     */
+    public AccountListSnapshot getAllAccountsSnapshot() throws IOException {
+        AccountListSnapshot snapshot = allAccountsSnapshot;
+        if (snapshot != null && snapshot.getVersion() == registry.getVersion()) {
+            return snapshot;
+        }
+        return rebuildAllAccountsSnapshot();
+    }
+
+    private synchronized AccountListSnapshot rebuildAllAccountsSnapshot() throws IOException {
+        AccountListSnapshot snapshot = allAccountsSnapshot;
+        if (snapshot != null && snapshot.getVersion() == registry.getVersion()) {
+            return snapshot;   // reconstruit entre-temps par un autre thread
+        }
+
+        long start = System.nanoTime();
+        List<Map<String, Object>> accounts = new ArrayList<>(registry.size());
+        // Version = séquence lue : une écriture pendant la construction invalidera ce snapshot
+        long version = registry.forEachAccount(account -> accounts.add(createAccountMap(account)));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("totalAccounts", accounts.size());
+        body.put("accounts", accounts);
+
+        // Sans l'accolade fermante : la fin du corps est ajoutée à chaque réponse
+        byte[] json = mapper().writeValueAsBytes(body);
+        snapshot = new AccountListSnapshot(version, accounts.size(), Arrays.copyOf(json, json.length - 1));
+        allAccountsSnapshot = snapshot;
+        System.out.println("📦 Snapshot /all v" + version + ": " + accounts.size() + " comptes, "
+                + json.length + " octets en " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return snapshot;
+    }
+
+    /**
+     * Fin du corps de GET /accounts/all pour une réponse : ,"timestamp":..,"description":..,"note":..}
+     */
+    public byte[] createAllAccountsTail() throws IOException {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("timestamp", System.currentTimeMillis());
+        fields.put("description", "Liste complète des comptes bancaires pour filtrage frontend");
+        fields.put("note", "Filtrage et recherche à effectuer côté frontend");
+
+        byte[] tail = mapper().writeValueAsBytes(fields);
+        tail[0] = ',';   // suite de l'objet ouvert par le snapshot
+        return tail;
+    }
+
+    private ObjectMapper mapper() {
+        return objectMapper != null ? objectMapper : new ObjectMapper();
+    }
+
+    /**
+     * Vue REST simple d'un compte (format de /accounts/all)
+     */
+    private Map<String, Object> createAccountMap(BankingAccountData data) {
+        Map<String, Object> account = new HashMap<>();
+
+        // Identifiants
+        account.put("iban", data.iban);
+        account.put("accountNumber", data.accountNumber);
+        account.put("suffix", data.suffix);
+        account.put("customerCode", data.customerCode);
+        account.put("customerName", data.customerName);
+
+        // Type et produit
+        Map<String, String> accountType = new HashMap<>();
+        accountType.put("code", data.accountTypeCode);
+        accountType.put("designation", data.accountTypeDesc);
+        account.put("accountType", accountType);
+
+        Map<String, String> product = new HashMap<>();
+        product.put("code", data.accountTypeCode);
+        product.put("designation", data.accountTypeDesc);
+        product.put("attribute", "ACCOUNT PRODUCT");
+        account.put("product", product);
+
+        // Agence
+        Map<String, String> branch = new HashMap<>();
+        branch.put("code", "00001");
+        branch.put("designation", "AGENCE PRINCIPALE");
+        account.put("branch", branch);
+
+        // Devise
+        Map<String, String> currency = new HashMap<>();
+        currency.put("code", "XOF");
+        currency.put("designation", "FRANC CFA");
+        account.put("currency", currency);
+
+        // Informations financières
+        account.put("balance", data.balance());
+        account.put("status", data.status);
+        account.put("statusDescription", getStatusDescription(data.status));
+
+        // Dates
+        account.put("openingDate", data.openingDate);
+        account.put("lastUpdate", "2025-07-01");
+
+        // Autres informations
+        account.put("title", data.accountTitle);
+        account.put("checkKey", data.checkKey());
+
+        // Type client
+        if (data.customerCode.equals("00100003") || data.customerCode.equals("00100006")) {
+            account.put("customerType", "2");
+            account.put("customerTypeDescription", "Entreprise");
+        } else {
+            account.put("customerType", "1");
+            account.put("customerTypeDescription", "Particulier");
+        }
+
+        // Chargé de clientèle
+        Map<String, String> officer = new HashMap<>();
+        officer.put("code", "002");
+        officer.put("name", "FAYE MARIANE");
+        account.put("customerOfficer", officer);
+
+        return account;
+    }
+
+    /**
+     * Libellé d'un statut de compte (O, F, I), partagé avec les réponses du contrôleur
+     */
+    public static String getStatusDescription(String status) {
+        switch (status) {
+            case "O": return "Ouvert";
+            case "F": return "Fermé";
+            case "I": return "Inactif";
+            default: return "Inconnu";
+        }
+    }
+
+    // ========================================
+    // AGRÉGATS DE SOLDES
+    // ========================================
+
+    /**
+     * Comptes et soldes cumulés par type / statut / client, lus dans les agrégats tenus à jour (aucun parcours des comptes)
+     *
+     * @param groupBy dimensions séparées par des virgules parmi type, status, customer (null = toutes)
+     * @throws IllegalArgumentException dimension inconnue
+     */
+    public Map<String, Object> getBalanceAggregates(String groupBy) {
+        Set<AccountBalanceAggregates.Dimension> dimensions = EnumSet.allOf(AccountBalanceAggregates.Dimension.class);
+        if (groupBy != null && !groupBy.isBlank()) {
+            dimensions.clear();
+            for (String name : groupBy.split(",")) {
+                try {
+                    dimensions.add(AccountBalanceAggregates.Dimension.valueOf(name.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Regroupement inconnu: " + name.trim()
+                            + " (valeurs: type, status, customer)");
+                }
+            }
+        }
+        return registry.describeAggregates(dimensions);
+    }
+
     // MÉTHODES PUBLIQUES POUR MONITORING
     public int getMockAccountsCount() {
-        return mockAccounts.size();
+        return registry.size();
+    }
+
+    public long getAccountsVersion() {
+        return registry.getVersion();
     }
 
     public Set<String> getAvailableAccountNumbers() {
-        return new HashSet<>(mockAccounts.keySet());
+        Set<String> ibans = new HashSet<>();
+        registry.accounts().forEach(data -> ibans.add(data.iban));
+        return ibans;
     }
 
     public void printMockStatus() {
-        System.out.println("🏦 ACCOUNT LIST MOCK STATUS: " + mockAccounts.size() + " comptes");
-        mockAccounts.forEach((iban, data) ->
-                System.out.println("  - " + iban + ": " + data.accountTitle + " (" + data.customerName + ")")
+        System.out.println("🏦 ACCOUNT LIST MOCK STATUS: " + registry.size() + " comptes");
+        registry.accounts().forEach(data ->
+                System.out.println("  - " + data.iban + ": " + data.accountTitle + " (" + data.customerName + ")")
         );
     }
 
-    // CLASSE INTERNE POUR DONNÉES
-    private static class BankingAccountData {
+    // CLASSE INTERNE POUR DONNÉES (partagée avec les index du package)
+    // Une instance est une version de compte : jamais modifiée une fois publiée, une écriture en publie une copie
+    static class BankingAccountData {
         String iban;
         String accountNumber;
         String suffix;
@@ -477,8 +767,55 @@ public class MockBankingAccountListService implements GetAccountListService {
         String accountTypeCode;
         String accountTypeDesc;
         String status;
-        Double balance;
+        long balanceCents;   // solde exact en centimes
         String openingDate;
         String accountTitle;
+
+        // Versionnement (AccountRegistry) : visible pour une lecture à la séquence seq si createdSeq <= seq < retiredSeq
+        long createdSeq;
+        volatile long retiredSeq = Long.MAX_VALUE;
+        int row = -1;   // ligne dans AccountColumnStore
+
+        /**
+         * Clé de contrôle à 2 chiffres, stable pour un compte : 97 - (numéro de compte modulo 97)
+         */
+        String checkKey() {
+            int remainder = 0;
+            for (int i = 0; i < accountNumber.length(); i++) {
+                int digit = Character.getNumericValue(accountNumber.charAt(i));
+                remainder = (remainder * (digit >= 10 ? 100 : 10) + Math.max(digit, 0)) % 97;
+            }
+            return String.format("%02d", 97 - remainder);
+        }
+
+        /**
+         * Solde au centime (BigDecimal d'échelle 2)
+         */
+        BigDecimal balance() {
+            return AccountAmounts.toAmount(balanceCents);
+        }
+
+        boolean visibleAt(long seq) {
+            return createdSeq <= seq && seq < retiredSeq;
+        }
+
+        /**
+         * Copie des données du compte, pour en publier une nouvelle version
+         */
+        BankingAccountData copy() {
+            BankingAccountData copy = new BankingAccountData();
+            copy.iban = iban;
+            copy.accountNumber = accountNumber;
+            copy.suffix = suffix;
+            copy.customerCode = customerCode;
+            copy.customerName = customerName;
+            copy.accountTypeCode = accountTypeCode;
+            copy.accountTypeDesc = accountTypeDesc;
+            copy.status = status;
+            copy.balanceCents = balanceCents;
+            copy.openingDate = openingDate;
+            copy.accountTitle = accountTitle;
+            return copy;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package org.example.accountList;
+
+import org.example.accountList.AccountBalanceAggregates.Dimension;
+import org.example.accountList.MockBankingAccountListService.BankingAccountData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static org.example.accountList.AccountRegistryTests.account;
+import static org.example.accountList.AccountRegistryTests.iban;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Agrégats en centimes tenus à jour par le registre, comparés aux soldes recalculés compte par compte
+ */
+class AccountBalanceAggregatesTests {
+
+    private static final String[] TYPES = {"CCL", "EPG", "PLA"};
+    private static final int ACCOUNTS = 500;
+
+    @Test
+    void aggregatesMatchRecomputedSumsAfterConcurrentWrites() throws Exception {
+        AccountRegistry registry = new AccountRegistry();
+        Random setup = new Random(24);
+        LongAdder expectedCents = new LongAdder();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            long cents = setup.nextInt(100_000);
+            BankingAccountData account = account(iban(i), "C" + i % 40, "01", cents);
+            account.accountTypeCode = TYPES[i % TYPES.length];
+            registry.open(account);
+            expectedCents.add(cents);
+        }
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            Thread writer = new Thread(() -> {
+                Random random = new Random(seed);
+                try {
+                    for (int i = 0; i < 20_000; i++) {
+                        String iban = iban(random.nextInt(ACCOUNTS));
+                        long cents = 1 + random.nextInt(5000);
+                        try {
+                            if (random.nextInt(200) == 0) {
+                                closeAccount(registry, iban, expectedCents);
+                            } else if (random.nextBoolean()) {
+                                registry.credit(iban, cents);
+                                expectedCents.add(cents);
+                            } else {
+                                registry.debit(iban, cents);
+                                expectedCents.add(-cents);
+                            }
+                        } catch (IllegalStateException refused) {
+                            // solde insuffisant ou compte clôturé : rien n'a été écrit
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        assertNull(failure.get());
+
+        Map<String, Object> aggregates = registry.describeAggregates(EnumSet.allOf(Dimension.class));
+
+        assertEquals(totals(ACCOUNTS, expectedCents.sum()), aggregates.get("total"));
+        assertEquals(totals(ACCOUNTS, recomputedCents(registry.accounts())), aggregates.get("total"));
+        assertEquals(recomputedGroups(registry, account -> account.accountTypeCode), aggregates.get("byType"));
+        assertEquals(recomputedGroups(registry, account -> account.status), aggregates.get("byStatus"));
+        assertEquals(recomputedGroups(registry, account -> account.customerCode), aggregates.get("byCustomer"));
+    }
+
+    @Test
+    void closingMovesTheAccountToTheClosedStatusGroup() {
+        AccountRegistry registry = new AccountRegistry();
+        registry.open(account(iban(1), "C1", "01", 1010));
+        registry.open(account(iban(2), "C1", "01", 20));
+
+        registry.debit(iban(2), 20);
+        registry.close(iban(2));
+
+        Map<String, Object> aggregates = registry.describeAggregates(EnumSet.of(Dimension.STATUS));
+        Map<String, Object> expected = new TreeMap<>();
+        expected.put("F", totals(1, 0));
+        expected.put("O", totals(1, 1010));
+
+        assertEquals(totals(2, 1010), aggregates.get("total"));
+        assertEquals(expected, aggregates.get("byStatus"));
+    }
+
+    private static void closeAccount(AccountRegistry registry, String iban, LongAdder expectedCents) {
+        BankingAccountData current = registry.get(iban);
+        if (current.balanceCents > 0) {
+            registry.debit(iban, current.balanceCents);
+            expectedCents.add(-current.balanceCents);
+        }
+        registry.close(iban);
+    }
+
+    private static Map<String, Object> recomputedGroups(AccountRegistry registry,
+                                                        Function<BankingAccountData, String> key) {
+        Map<String, List<BankingAccountData>> groups = new TreeMap<>();
+        for (BankingAccountData account : registry.accounts()) {
+            groups.computeIfAbsent(key.apply(account), k -> new ArrayList<>()).add(account);
+        }
+        Map<String, Object> expected = new TreeMap<>();
+        groups.forEach((group, accounts) -> expected.put(group, totals(accounts.size(), recomputedCents(accounts))));
+        return expected;
+    }
+
+    private static long recomputedCents(Iterable<BankingAccountData> accounts) {
+        long cents = 0;
+        for (BankingAccountData account : accounts) {
+            cents += account.balanceCents;
+        }
+        return cents;
+    }
+
+    private static Map<String, Object> totals(long accounts, long cents) {
+        return Map.of("accounts", accounts, "totalBalance", BigDecimal.valueOf(cents, 2));
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.accountList;
+
+import org.example.accountList.Account.Comparator;
+import org.example.accountList.Account.ComparisonAmount;
+import org.example.accountList.MockBankingAccountListService.BankingAccountData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.example.accountList.AccountRegistryTests.account;
+import static org.example.accountList.AccountRegistryTests.iban;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pagination par clé (keyset) pendant des écritures concurrentes : pas de doublon, pas de trou, ordre conservé
+ * Le curseur est celui du jeton de page : (solde, IBAN) du dernier compte, après toutes ses versions.
+ */
+class AccountKeysetPaginationTests {
+
+    private static final int ACCOUNTS = 4000;
+    private static final int PAGE_SIZE = 37;
+
+    @Test
+    void ibanPagesStayContinuousWhileAccountsChange() throws Exception {
+        AccountRegistry registry = registryWithEvenIbans();
+
+        // Ouvertures (IBAN impairs, intercalés) et mouvements sur les comptes existants pendant le parcours
+        List<BankingAccountData> pages = walkWhileWriting(registry, AccountListPage.Sort.IBAN, random -> {
+            if (random.nextBoolean()) {
+                registry.credit(iban(2 * random.nextInt(ACCOUNTS)), 100 + random.nextInt(10_000));
+            } else {
+                int number = 2 * random.nextInt(ACCOUNTS) + 1;
+                if (registry.get(iban(number)) == null) {
+                    registry.open(account(iban(number), "C" + number % 50, "01", 1000));
+                }
+            }
+        });
+
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < pages.size(); i++) {
+            if (i > 0) {
+                assertTrue(pages.get(i - 1).iban.compareTo(pages.get(i).iban) < 0,
+                        "ordre IBAN rompu entre " + pages.get(i - 1).iban + " et " + pages.get(i).iban);
+            }
+            seen.add(pages.get(i).iban);
+        }
+        for (int i = 0; i < ACCOUNTS; i++) {
+            assertTrue(seen.contains(iban(2 * i)), "compte présent avant le parcours et absent des pages: " + iban(2 * i));
+        }
+    }
+
+    @Test
+    void balancePagesStayContinuousWhileAccountsAreOpened() throws Exception {
+        AccountRegistry registry = registryWithEvenIbans();
+
+        // Tri par solde : seules des ouvertures, les soldes des comptes déjà listés ne bougent pas
+        List<BankingAccountData> pages = walkWhileWriting(registry, AccountListPage.Sort.BALANCE, random -> {
+            int number = 2 * random.nextInt(ACCOUNTS) + 1;
+            if (registry.get(iban(number)) == null) {
+                registry.open(account(iban(number), "C" + number % 50, "01", random.nextInt(100_000)));
+            }
+        });
+
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < pages.size(); i++) {
+            if (i > 0) {
+                assertTrue(AccountSearchIndex.BY_BALANCE.compare(pages.get(i - 1), pages.get(i)) < 0,
+                        "ordre (solde, IBAN) rompu avant " + pages.get(i).iban);
+            }
+            assertTrue(seen.add(pages.get(i).iban), "compte retourné deux fois: " + pages.get(i).iban);
+        }
+        for (int i = 0; i < ACCOUNTS; i++) {
+            assertTrue(seen.contains(iban(2 * i)), "compte présent avant le parcours et absent des pages: " + iban(2 * i));
+        }
+    }
+
+    @Test
+    void pagesOfAQuietRegistryMatchTheFullSearch() {
+        AccountRegistry registry = registryWithEvenIbans();
+
+        List<BankingAccountData> pages = walk(registry, "C7", "O", null, AccountListPage.Sort.BALANCE);
+
+        assertEquals(AccountSearchIndexTests.ibans(registry.search("C7", "O", null, null)),
+                AccountSearchIndexTests.ibans(pages));
+    }
+
+    @Test
+    void pagesOfSmallCandidateSetsFollowTheRequestedOrder() {
+        AccountRegistry registry = registryWithEvenIbans();
+        Random random = new Random(7);
+        for (int i = 0; i < 300; i++) {
+            BankingAccountData account = account(iban(2 * i + 1), "C" + i % 50, "01", random.nextInt(100_000));
+            account.status = "I";
+            registry.open(account);
+        }
+
+        // Statut rare trié par solde, puis petite tranche de soldes triée par IBAN : candidats hors de l'ordre demandé
+        assertOrderedPages(registry, null, "I", null, AccountListPage.Sort.BALANCE, AccountSearchIndex.BY_BALANCE);
+        ComparisonAmount slice = AccountSearchIndexTests.balanceFilter(Comparator.BETWEEN_EQUALS,
+                new BigDecimal("100.00"), new BigDecimal("130.00"));
+        assertOrderedPages(registry, null, null, slice, AccountListPage.Sort.IBAN, AccountSearchIndex.BY_IBAN);
+        ComparisonAmount wide = AccountSearchIndexTests.balanceFilter(Comparator.GREATER_THAN, new BigDecimal("400.00"), null);
+        assertOrderedPages(registry, "C3", null, wide, AccountListPage.Sort.BALANCE, AccountSearchIndex.BY_BALANCE);
+    }
+
+    private static void assertOrderedPages(AccountRegistry registry, String customerCode, String status,
+                                           ComparisonAmount balance, AccountListPage.Sort order,
+                                           java.util.Comparator<BankingAccountData> expectedOrder) {
+        List<BankingAccountData> pages = walk(registry, customerCode, status, balance, order);
+        List<BankingAccountData> expected = new ArrayList<>(registry.search(customerCode, status, null, balance));
+        expected.sort(expectedOrder);
+
+        assertTrue(pages.size() > PAGE_SIZE, "une seule page: " + pages.size());
+        assertEquals(AccountSearchIndexTests.ibans(expected), AccountSearchIndexTests.ibans(pages));
+        for (int i = 0; i < pages.size(); i++) {
+            assertEquals(expected.get(i).iban, pages.get(i).iban, "ordre " + order + " rompu à la position " + i);
+        }
+    }
+
+    private static AccountRegistry registryWithEvenIbans() {
+        AccountRegistry registry = new AccountRegistry();
+        Random random = new Random(21);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            registry.open(account(iban(2 * i), "C" + i % 50, "01", random.nextInt(100_000)));
+        }
+        return registry;
+    }
+
+    private interface Write {
+        void apply(Random random);
+    }
+
+    /**
+     * Parcours complet des pages pendant qu'un écrivain modifie le registre sans s'arrêter
+     */
+    private static List<BankingAccountData> walkWhileWriting(AccountRegistry registry, AccountListPage.Sort order,
+                                                             Write write) throws Exception {
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch writing = new CountDownLatch(100);
+        Thread writer = new Thread(() -> {
+            Random random = new Random(order.ordinal());
+            try {
+                while (!stop.get()) {
+                    write.apply(random);
+                    writing.countDown();
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            } finally {
+                while (writing.getCount() > 0) {
+                    writing.countDown();
+                }
+            }
+        });
+        writer.start();
+        try {
+            // Le parcours commence une fois l'écrivain lancé
+            writing.await();
+            return walk(registry, null, null, null, order);
+        } finally {
+            stop.set(true);
+            writer.join();
+            assertNull(failure.get());
+        }
+    }
+
+    private static List<BankingAccountData> walk(AccountRegistry registry, String customerCode, String status,
+                                                 ComparisonAmount balance, AccountListPage.Sort order) {
+        List<BankingAccountData> accounts = new ArrayList<>();
+        BankingAccountData after = null;
+        while (true) {
+            List<BankingAccountData> page = registry.page(customerCode, status, null, balance, order, after, PAGE_SIZE);
+            accounts.addAll(page);
+            if (page.size() < PAGE_SIZE) {
+                return accounts;
+            }
+            BankingAccountData last = page.get(page.size() - 1);
+            after = AccountSearchIndex.probe(last.balanceCents, last.iban, Long.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.accountList;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Snapshot de /accounts/all : comptes compressés une fois, fin de corps propre à chaque réponse
+ */
+class AccountListSnapshotTests {
+
+    @Test
+    void gzipBodyDecompressesToTheJsonBodyForEveryTail() throws IOException {
+        StringBuilder accounts = new StringBuilder("{\"totalAccounts\":500,\"accounts\":[");
+        for (int i = 0; i < 500; i++) {
+            accounts.append(i > 0 ? "," : "").append("{\"iban\":\"").append(AccountRegistryTests.iban(i))
+                    .append("\",\"title\":\"COMPTE é ").append(i).append("\"}");
+        }
+        accounts.append(']');
+        AccountListSnapshot snapshot = new AccountListSnapshot(1, 500, bytes(accounts.toString()));
+
+        byte[] first = bytes(",\"timestamp\":1700000000000,\"note\":\"à filtrer côté frontend\"}");
+        byte[] second = bytes(",\"timestamp\":1700000000999,\"note\":\"à filtrer côté frontend\"}");
+
+        assertEquals(accounts + new String(first, StandardCharsets.UTF_8),
+                new String(snapshot.getJson(first), StandardCharsets.UTF_8));
+        assertArrayEquals(snapshot.getJson(first), gunzip(snapshot.getGzip(first)));
+        assertArrayEquals(snapshot.getJson(second), gunzip(snapshot.getGzip(second)));
+    }
+
+    @Test
+    void etagsDependOnAccountsOnly() {
+        AccountListSnapshot snapshot = new AccountListSnapshot(1, 1, bytes("{\"accounts\":[1]"));
+        AccountListSnapshot changed = new AccountListSnapshot(2, 1, bytes("{\"accounts\":[2]"));
+
+        assertEquals(snapshot.getEtag(), new AccountListSnapshot(3, 1, bytes("{\"accounts\":[1]")).getEtag());
+        assertNotEquals(snapshot.getEtag(), changed.getEtag());
+        assertNotEquals(snapshot.getEtag(), snapshot.getGzipEtag());
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.accountList;
+
+import org.example.accountList.MockBankingAccountListService.BankingAccountData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Registre des comptes : montants au centime, suffixes attribués par client et purge des versions périmées sous lectures continues
+ */
+class AccountRegistryTests {
+
+    static BankingAccountData account(String iban, String customerCode, String suffix, long balanceCents) {
+        BankingAccountData account = new BankingAccountData();
+        account.iban = iban;
+        account.accountNumber = iban.substring(iban.length() - 11);
+        account.suffix = suffix;
+        account.customerCode = customerCode;
+        account.customerName = "CLIENT " + customerCode;
+        account.accountTypeCode = "CCL";
+        account.accountTypeDesc = "COMPTE COURANT LIBRE";
+        account.status = "O";
+        account.balanceCents = balanceCents;
+        account.openingDate = "2024-01-01";
+        account.accountTitle = "COMPTE " + iban;
+        return account;
+    }
+
+    static String iban(int number) {
+        return String.format("SN08SN01000100%011d", number);
+    }
+
+    @Test
+    void centsLeaveNoResidueBeforeClosing() {
+        AccountRegistry registry = new AccountRegistry();
+        registry.open(account(iban(1), "00100002", "01", 0));
+
+        // 0.1 + 0.2 puis débit de 0.3 : solde exactement nul, la clôture est acceptée
+        registry.credit(iban(1), AccountAmounts.toCents(new BigDecimal("0.1")));
+        registry.credit(iban(1), AccountAmounts.toCents(new BigDecimal("0.2")));
+        registry.debit(iban(1), AccountAmounts.toCents(new BigDecimal("0.3")));
+        registry.close(iban(1));
+
+        assertEquals("F", registry.get(iban(1)).status);
+        assertEquals(new BigDecimal("0.00"), registry.get(iban(1)).balance());
+    }
+
+    @Test
+    void amountsWithMoreThanTwoDecimalsAreRejected() {
+        assertEquals(1999, AccountAmounts.toCents(new BigDecimal("19.990")));
+        assertThrows(IllegalArgumentException.class, () -> AccountAmounts.toCents(new BigDecimal("0.001")));
+        assertThrows(IllegalArgumentException.class, () -> AccountAmounts.toCents(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void nextSuffixFollowsExistingSuffixes() {
+        AccountRegistry registry = new AccountRegistry();
+        registry.open(account(iban(1), "00100002", "01", 0));
+        registry.open(account(iban(2), "00100002", "02", 0));
+        registry.open(account(iban(3), "00100002", "04", 0));
+
+        // Trois comptes mais suffixe 04 déjà pris : le suivant est 05
+        assertEquals(5, registry.nextSuffix("00100002"));
+        assertEquals(1, registry.nextSuffix("00100099"));
+    }
+
+    @Test
+    void concurrentOpeningsNeverShareASuffix() throws Exception {
+        AccountRegistry registry = new AccountRegistry();
+        registry.open(account(iban(1), "00100002", "03", 0));
+
+        int threads = 8;
+        int perThread = 200;
+        Set<Integer> suffixes = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    suffixes.add(registry.nextSuffix("00100002"));
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(threads * perThread, suffixes.size());
+        assertTrue(suffixes.stream().allMatch(suffix -> suffix > 3));
+    }
+
+    @Test
+    void retiredVersionsArePurgedWhileReadersNeverStop() throws Exception {
+        AccountRegistry registry = new AccountRegistry();
+        int accounts = 2000;
+        for (int i = 0; i < accounts; i++) {
+            registry.open(account(iban(i), "C" + (i % 100), "01", 100_000));
+        }
+
+        // Lectures qui se chevauchent en permanence : tryLock seul n'obtiendrait jamais le verrou de purge
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            Thread reader = new Thread(() -> {
+                while (!stop.get()) {
+                    registry.search(null, null, null, null);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        int writes = 40_000;
+        try {
+            for (int i = 0; i < writes; i++) {
+                registry.credit(iban(i % accounts), 100);
+            }
+        } finally {
+            stop.set(true);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+        }
+
+        assertTrue(registry.getRetiredVersions() < writes / 2,
+                "versions périmées non purgées: " + registry.getRetiredVersions());
+        assertEquals(accounts, registry.search(null, null, null, null).size());
+    }
+}
@@ -0,0 +1,178 @@
+package org.example.accountList;
+
+import org.example.accountList.Account.Comparator;
+import org.example.accountList.Account.ComparisonAmount;
+import org.example.accountList.MockBankingAccountListService.BankingAccountData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.example.accountList.AccountRegistryTests.account;
+import static org.example.accountList.AccountRegistryTests.iban;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Recherche par index (client, statut, type, solde) et par colonnes de soldes comparée à un parcours de tous les comptes
+ */
+class AccountSearchIndexTests {
+
+    private static final String[] STATUSES = {"O", "F", "I"};
+    private static final String[] TYPES = {"CCL", "EPG", "PLA", "PRO"};
+    private static final int ACCOUNTS = 3000;
+    private static final int CUSTOMERS = 200;
+
+    private AccountRegistry registry;
+    private List<BigDecimal> balances;
+    private Random random;
+
+    static ComparisonAmount balanceFilter(Comparator comparator, BigDecimal amount1, BigDecimal amount2) {
+        ComparisonAmount filter = new ComparisonAmount();
+        filter.setComparator(comparator);
+        filter.setAmount1(amount1);
+        filter.setAmount2(amount2);
+        return filter;
+    }
+
+    @BeforeEach
+    void createAccounts() {
+        registry = new AccountRegistry();
+        balances = new ArrayList<>();
+        random = new Random(20);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            BankingAccountData account = account(iban(i), "C" + random.nextInt(CUSTOMERS), "01",
+                    random.nextInt(500) * 1025L);
+            account.accountTypeCode = TYPES[random.nextInt(TYPES.length)];
+            account.status = random.nextInt(10) == 0 ? STATUSES[1 + random.nextInt(2)] : "O";
+            registry.open(account);
+            balances.add(account.balance());
+        }
+
+        // Versions successives : l'index et les colonnes ne doivent retenir que la dernière
+        for (int i = 0; i < 2 * ACCOUNTS; i++) {
+            String iban = iban(random.nextInt(ACCOUNTS));
+            if (!"O".equals(registry.get(iban).status)) {
+                continue;
+            }
+            if (random.nextBoolean()) {
+                registry.credit(iban, 50 + 100L * random.nextInt(100));
+            } else if (registry.get(iban).balanceCents >= 100) {
+                registry.debit(iban, 100);
+            }
+        }
+        for (int i = 0; i < 50; i++) {
+            String iban = iban(random.nextInt(ACCOUNTS));
+            BankingAccountData current = registry.get(iban);
+            if ("O".equals(current.status)) {
+                if (current.balanceCents > 0) {
+                    registry.debit(iban, current.balanceCents);
+                }
+                registry.close(iban);
+            }
+        }
+    }
+
+    @Test
+    void searchMatchesLinearScan() {
+        Comparator[] comparators = Comparator.values();
+        for (int q = 0; q < 1000; q++) {
+            String customerCode = random.nextInt(3) == 0 ? "C" + random.nextInt(CUSTOMERS) : null;
+            String status = random.nextInt(3) == 0 ? STATUSES[random.nextInt(STATUSES.length)] : null;
+            String typeCode = random.nextInt(3) == 0 ? TYPES[random.nextInt(TYPES.length)] : null;
+            ComparisonAmount balance = null;
+            if (random.nextInt(4) != 0) {
+                // Montants pris parmi les soldes existants : les bornes tombent sur des comptes (EQUALS, bornes incluses)
+                BigDecimal amount1 = balances.get(random.nextInt(balances.size()));
+                if (random.nextInt(5) == 0) {
+                    // Borne entre deux centimes : arrondie vers l'intérieur de l'intervalle
+                    amount1 = amount1.add(new BigDecimal("0.005"));
+                }
+                BigDecimal amount2 = amount1.add(BigDecimal.valueOf(random.nextInt(2000)));
+                balance = balanceFilter(comparators[random.nextInt(comparators.length)], amount1,
+                        random.nextInt(10) == 0 ? null : amount2);
+            }
+
+            assertEquals(linearScan(customerCode, status, typeCode, balance),
+                    ibans(registry.search(customerCode, status, typeCode, balance)),
+                    "client=" + customerCode + " statut=" + status + " type=" + typeCode + " solde=" + describe(balance));
+        }
+    }
+
+    @Test
+    void searchWithoutCriteriaReturnsEveryAccountOnce() {
+        List<BankingAccountData> all = registry.search(null, null, null, null);
+
+        assertEquals(ACCOUNTS, all.size());
+        assertEquals(ACCOUNTS, ibans(all).size());
+    }
+
+    @Test
+    void balanceFilterWithoutUpperBoundIsIgnored() {
+        ComparisonAmount open = balanceFilter(Comparator.BETWEEN, BigDecimal.valueOf(100), null);
+
+        assertEquals(linearScan("C1", null, null, null), ibans(registry.search("C1", null, null, open)));
+        assertEquals(ACCOUNTS, registry.search(null, null, null, open).size());
+    }
+
+    private Set<String> linearScan(String customerCode, String status, String typeCode, ComparisonAmount balance) {
+        Set<String> expected = new TreeSet<>();
+        for (BankingAccountData account : registry.accounts()) {
+            if ((customerCode == null || customerCode.equals(account.customerCode))
+                    && (status == null || status.equals(account.status))
+                    && (typeCode == null || typeCode.equals(account.accountTypeCode))
+                    && inRange(account.balance(), balance)) {
+                expected.add(account.iban);
+            }
+        }
+        return expected;
+    }
+
+    private static boolean inRange(BigDecimal value, ComparisonAmount filter) {
+        if (filter == null) {
+            return true;
+        }
+        BigDecimal amount1 = filter.getAmount1();
+        boolean between = filter.getComparator() == Comparator.BETWEEN || filter.getComparator() == Comparator.BETWEEN_EQUALS;
+        if (between && filter.getAmount2() == null) {
+            return true;
+        }
+        switch (filter.getComparator()) {
+            case EQUALS:
+                return value.compareTo(amount1) == 0;
+            case GREATER_THAN:
+                return value.compareTo(amount1) > 0;
+            case GREATER_EQUALS:
+                return value.compareTo(amount1) >= 0;
+            case LOWER_THAN:
+                return value.compareTo(amount1) < 0;
+            case LOWER_EQUALS:
+                return value.compareTo(amount1) <= 0;
+            case BETWEEN:
+                return value.compareTo(amount1) > 0 && value.compareTo(filter.getAmount2()) < 0;
+            case BETWEEN_EQUALS:
+                return value.compareTo(amount1) >= 0 && value.compareTo(filter.getAmount2()) <= 0;
+            default:
+                return true;
+        }
+    }
+
+    static Set<String> ibans(List<BankingAccountData> accounts) {
+        assertNotNull(accounts);
+        Set<String> ibans = new TreeSet<>();
+        for (BankingAccountData account : accounts) {
+            ibans.add(account.iban);
+        }
+        assertEquals(accounts.size(), ibans.size(), "compte retourné plusieurs fois");
+        return ibans;
+    }
+
+    private static String describe(ComparisonAmount filter) {
+        return filter == null ? "-" : filter.getComparator() + " " + filter.getAmount1() + " " + filter.getAmount2();
+    }
+}
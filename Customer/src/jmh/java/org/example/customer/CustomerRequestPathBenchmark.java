@@ -0,0 +1,146 @@
+package org.example.customer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.customer.client.*;
+import org.example.customer.rest.CustomerDetailResponse;
+import org.example.customer.rest.CustomerRestMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.GregorianCalendar;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks JMH de chaque étape d'une consultation client
+ *
+ * Lancement : mvn -Pjmh compile exec:exec
+ * Un seul benchmark : mvn -Pjmh compile exec:exec -Djmh.args="-f 1 buildCustomerResponse"
+ * Formats de sortie : mvn -Pjmh compile exec:exec -Djmh.args="-f 1 serialize"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerRequestPathBenchmark {
+
+    // Particulier ("1") ou entreprise (tout autre type)
+    @Param({"1", "3"})
+    public String customerType;
+
+    private BankingCustomerController controller;
+    private CustomerResponseBuilder responseBuilder;
+    private ObjectMapper objectMapper;
+    private CustomerPayloadFormats payloadFormats;
+    private BankingCustomerData customerData;
+    private GetCustomerDetailResponseFlow soapResponse;
+    private CustomerDetailResponse restResponse;
+
+    @Setup
+    public void setUp() throws Exception {
+        controller = new BankingCustomerController();
+        inject(controller, "bankingService", new MockBankingCustomerService());
+        inject(controller, "customerRestMapper", Mappers.getMapper(CustomerRestMapper.class));
+
+        responseBuilder = new CustomerResponseBuilder();
+        // Même configuration que l'ObjectMapper de Spring Boot
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        customerData = new BankingCustomerData();
+        customerData.customerCode = "BENCH001";
+        customerData.customerType = customerType;
+        if ("1".equals(customerType)) {
+            customerData.lastname = "DIOUF";
+            customerData.firstname = "ABLAYE";
+            customerData.sex = "M";
+            customerData.birthDate = "1983-06-20";
+        } else {
+            customerData.lastname = "TECHCORP SARL";
+            customerData.firstname = "DAHMAN";
+            customerData.sex = "C";
+            customerData.birthDate = "2015-03-15";
+        }
+        customerData.displayName = customerData.lastname + " " + customerData.firstname;
+        customerData.nationality = "SENEGALAIS";
+        customerData.phoneNumber = "+221778665273";
+        customerData.countryOfResidence = "SENEGAL";
+        customerData.addressLine1 = "Grand Dakar, Dakar";
+        customerData.addressLine2 = "GRAND DAKAR 2 PARCELLE N 200";
+        customerData.city = "DAKAR";
+        customerData.postalCode = "0000";
+
+        // Client absent des instantanés Mock : la conversion passe toujours par le mapper
+        soapResponse = new GetCustomerDetailResponseFlow();
+        soapResponse.setResponseHeader(responseBuilder.createResponseHeader("BENCH_REQ", "BENCH_RESP"));
+        soapResponse.setResponseStatus(responseBuilder.createSuccessStatus());
+        soapResponse.setGetCustomerDetailResponse(responseBuilder.buildCustomerResponse(customerData, CustomerSection.ALL));
+
+        restResponse = controller.convertToSimpleResponse(soapResponse);
+
+        payloadFormats = new CustomerPayloadFormats(objectMapper);
+        for (CustomerPayloadFormats.Format format : CustomerPayloadFormats.Format.values()) {
+            System.out.println("📦 " + format + " : " + payloadFormats.write(format, restResponse).length + " octets");
+        }
+    }
+
+    /**
+     * Requête SOAP construite par le contrôleur (DatatypeFactory partagée)
+     */
+    @Benchmark
+    public GetCustomerDetailRequestFlow buildSoapRequest() throws Exception {
+        return controller.buildSoapRequest(customerData.customerCode);
+    }
+
+    /**
+     * Référence : horodatage avec création d'une DatatypeFactory à chaque appel
+     */
+    @Benchmark
+    public XMLGregorianCalendar newDatatypeFactoryTimestamp() throws Exception {
+        return DatatypeFactory.newInstance()
+                .newXMLGregorianCalendar(GregorianCalendar.from(
+                        LocalDateTime.now().atZone(ZoneId.systemDefault())));
+    }
+
+    @Benchmark
+    public GetCustomerDetailResponse buildCustomerResponse() throws Exception {
+        return responseBuilder.buildCustomerResponse(customerData, CustomerSection.ALL);
+    }
+
+    @Benchmark
+    public CustomerDetailResponse convertToSimpleResponse() {
+        return controller.convertToSimpleResponse(soapResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() throws Exception {
+        return objectMapper.writeValueAsBytes(restResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeCbor() throws Exception {
+        return payloadFormats.write(CustomerPayloadFormats.Format.CBOR, restResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeSmile() throws Exception {
+        return payloadFormats.write(CustomerPayloadFormats.Format.SMILE, restResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeProtobuf() throws Exception {
+        return payloadFormats.write(CustomerPayloadFormats.Format.PROTOBUF, restResponse);
+    }
+
+    private static void inject(Object target, String fieldName, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
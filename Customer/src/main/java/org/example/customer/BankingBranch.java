@@ -0,0 +1,55 @@
+package org.example.customer;
+
+/**
+ * Agences bancaires connues du service (code Amplitude sur 5 chiffres)
+ */
+public enum BankingBranch {
+    AGENCE_TEST("00001", "AGENCE TEST", "DAKAR"),
+    DAKAR_PLATEAU("00002", "DAKAR PLATEAU", "DAKAR"),
+    DAKAR_MEDINA("00003", "DAKAR MEDINA", "DAKAR"),
+    PIKINE("00004", "PIKINE", "PIKINE"),
+    GUEDIAWAYE("00005", "GUEDIAWAYE", "GUEDIAWAYE"),
+    RUFISQUE("00006", "RUFISQUE", "RUFISQUE"),
+    THIES("00007", "THIES", "THIES"),
+    SAINT_LOUIS("00008", "SAINT-LOUIS", "SAINT-LOUIS"),
+    KAOLACK("00009", "KAOLACK", "KAOLACK"),
+    ZIGUINCHOR("00010", "ZIGUINCHOR", "ZIGUINCHOR"),
+    TOUBA("00011", "TOUBA", "TOUBA"),
+    MBOUR("00012", "MBOUR", "MBOUR");
+
+    private final String code;
+    private final String designation;
+    private final String city;
+
+    BankingBranch(String code, String designation, String city) {
+        this.code = code;
+        this.designation = designation;
+        this.city = city;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getDesignation() {
+        return designation;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    /**
+     * Agence correspondant au code - l'agence de test si le code est inconnu ou absent
+     */
+    public static BankingBranch fromCode(String code) {
+        if (code != null) {
+            for (BankingBranch branch : values()) {
+                if (branch.code.equals(code)) {
+                    return branch;
+                }
+            }
+        }
+        return AGENCE_TEST;
+    }
+}
@@ -4,15 +4,49 @@ package org.example.customer;// ========================================
 import org.example.customer.client.*;
 import org.example.customer.MockBankingCustomerService;
 import org.example.customer.client.RequestHeader;
+import org.example.customer.rest.CustomerDetailResponse;
+import org.example.customer.rest.CustomerRestMapper;
+import org.example.customer.rest.CustomerView;
+import org.example.customer.rest.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import javax.xml.datatype.DatatypeConfigurationException;
 import javax.xml.datatype.DatatypeFactory;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Contrôleur REST pour service bancaire
@@ -22,39 +56,191 @@ import java.util.*;
 @CrossOrigin(origins = "*")
 public class BankingCustomerController {
 
+    private static final DatatypeFactory DATATYPE_FACTORY;
+
+    static {
+        try {
+            DATATYPE_FACTORY = DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException e) {
+            throw new IllegalStateException("DatatypeFactory indisponible", e);
+        }
+    }
+
+    // Taille maximale d'un lot et nombre d'appels simultanés pour /customers/batch
+    private static final int BATCH_MAX_SIZE = 200;
+    private static final int BATCH_PARALLELISM = 64;
+    private static final int SEARCH_MAX_PAGE_SIZE = 100;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     @Autowired
     private MockBankingCustomerService bankingService;
 
+    @Autowired
+    private CustomerRestMapper customerRestMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SanctionsScreeningService screeningService;
+
+    @Autowired
+    private CustomerLookupMetrics lookupMetrics;
+
+    @Autowired
+    private CustomerPayloadFormats payloadFormats;
+
+    @Autowired
+    private CustomerPartitionRouter partitionRouter;
+
+    // Une ligne JSON par client, vidage géré par le tampon de l'export
+    private ObjectWriter exportWriter;
+
+    // Durée maximale de l'export, appliquée à sa seule réponse asynchrone
+    @Value("${banking.customer.export.timeout-ms:1800000}")
+    private long exportTimeoutMs;
+
+    private final CustomerResponseBuilder responseBuilder = new CustomerResponseBuilder();
+
+    // Implémentation active : Mock par défaut, ou celle sélectionnée par banking.customer.backend
+    @Autowired
+    private GetCustomerDetailService customerDetailService;
+
+    @Value("${banking.customer.backend:mock}")
+    private String configuredBackend;
+
+    private final ExecutorService batchExecutor = Executors.newFixedThreadPool(BATCH_PARALLELISM, new ThreadFactory() {
+        private final AtomicInteger threadCounter = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "customer-batch-" + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
     /**
-     * GET /api/banking/customer/{customerCode} - Récupérer UN client
+     * GET /api/banking/customer/{customerCode}?fields=identity,phones - Récupérer UN client
+     * JSON par défaut, CBOR / Smile / Protobuf selon l'en-tête Accept
+     * Chaque étape est chronométrée (banking.customer.lookup.phase) ; la réponse est sérialisée ici pour en mesurer le coût et la taille
      */
     @GetMapping("/customer/{customerCode}")
-    public ResponseEntity<?> getCustomerDetail(@PathVariable String customerCode) {
+    public ResponseEntity<?> getCustomerDetail(@PathVariable String customerCode,
+                                               @RequestParam(required = false) String fields,
+                                               WebRequest webRequest) {
         System.out.println("🏦 === GET /api/banking/customer/" + customerCode + " ===");
 
+        CustomerPayloadFormats.Format format = payloadFormats.negotiate(webRequest.getHeader(HttpHeaders.ACCEPT));
         try {
+            Set<CustomerSection> sections;
+            try {
+                sections = CustomerSection.parse(fields);
+            } catch (IllegalArgumentException e) {
+                return lookupError(HttpStatus.BAD_REQUEST, e.getMessage(), format);
+            }
+
+            // Client d'une autre partition : relayé à son instance ou refusé (421)
+            if (!partitionRouter.owns(customerCode)) {
+                lookupMetrics.recordOutcome(CustomerLookupMetrics.Outcome.MISDIRECTED);
+                return partitionRouter.forwardGet(customerCode, requestPathAndQuery(webRequest), webRequest);
+            }
+
+            if (!isKnownCustomer(customerCode)) {
+                lookupMetrics.recordOutcome(CustomerLookupMetrics.Outcome.NOT_FOUND);
+                return lookupError(HttpStatus.NOT_FOUND, "Client non trouvé: " + customerCode, format);
+            }
+
+            // If-None-Match : 304 sans construire ni sérialiser la réponse
+            String etag = customerDetailService.getCustomerETag(customerCode);
+            if (etag != null) {
+                if (!sections.containsAll(CustomerSection.ALL)) {
+                    etag += "-" + Integer.toHexString(CustomerSection.bitmask(sections));
+                }
+                if (format != CustomerPayloadFormats.Format.JSON) {
+                    etag += "-" + format.name().toLowerCase();
+                }
+                if (webRequest.checkNotModified(etag)) {
+                    lookupMetrics.recordOutcome(CustomerLookupMetrics.Outcome.NOT_MODIFIED);
+                    System.out.println("✅ Client bancaire inchangé: " + customerCode);
+                    return null;
+                }
+            }
+
+            long phaseStart = System.nanoTime();
             GetCustomerDetailRequestFlow soapRequest = buildSoapRequest(customerCode);
-            GetCustomerDetailResponseFlow soapResponse = bankingService.getCustomerDetail(soapRequest);
+            lookupMetrics.recordPhase(CustomerLookupMetrics.Phase.REQUEST_BUILD, phaseStart);
+
+            phaseStart = System.nanoTime();
+            GetCustomerDetailResponseFlow soapResponse = customerDetailService.getCustomerDetail(soapRequest, sections);
+            lookupMetrics.recordPhase(CustomerLookupMetrics.Phase.SERVICE_CALL, phaseStart);
 
             if (!"0".equals(soapResponse.getResponseStatus().getStatusCode())) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(createErrorResponse("Client non trouvé: " + customerCode));
+                lookupMetrics.recordOutcome(CustomerLookupMetrics.Outcome.NOT_FOUND);
+                return lookupError(HttpStatus.NOT_FOUND, "Client non trouvé: " + customerCode, format);
             }
 
-            Map<String, Object> restResponse = convertToSimpleResponse(soapResponse);
+            GetCustomerDetailResponse customerDetail = soapResponse.getGetCustomerDetailResponse();
+            // Hit / miss selon le cache du backend actif (toujours miss pour un backend sans cache de vues)
+            boolean cachedView = customerDetail != null && customerDetailService.hasCachedView(customerDetail);
+
+            phaseStart = System.nanoTime();
+            CustomerDetailResponse restResponse = convertToSimpleResponse(soapResponse, sections);
+            lookupMetrics.recordPhase(CustomerLookupMetrics.Phase.REST_CONVERSION, phaseStart);
+
+            phaseStart = System.nanoTime();
+            byte[] payload = payloadFormats.write(format, restResponse);
+            lookupMetrics.recordPhase(CustomerLookupMetrics.Phase.SERIALIZATION, phaseStart);
+            lookupMetrics.recordPayloadSize(format, payload.length);
+            lookupMetrics.recordOutcome(cachedView
+                    ? CustomerLookupMetrics.Outcome.HIT
+                    : CustomerLookupMetrics.Outcome.MISS);
 
             System.out.println("✅ Client bancaire récupéré: " + customerCode);
-            return ResponseEntity.ok(restResponse);
+            return ResponseEntity.ok()
+                    .contentType(format.getMediaType())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(payload);
 
         } catch (Exception e) {
+            lookupMetrics.recordOutcome(CustomerLookupMetrics.Outcome.ERROR);
             System.err.println("❌ Erreur récupération client: " + e.getMessage());
             e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-
-                    .body(createErrorResponse("Erreur serveur: " + e.getMessage()));
+            return lookupError(HttpStatus.INTERNAL_SERVER_ERROR, "Erreur serveur: " + e.getMessage(), format);
         }
     }
 
+    /**
+     * GET /api/banking/schema/customer.proto - Schéma Protobuf du détail client (généré depuis le modèle REST)
+     */
+    @GetMapping(value = "/schema/customer.proto", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String getCustomerProtobufSchema() {
+        return payloadFormats.getProtobufSchema();
+    }
+
+    /**
+     * PUT /api/banking/customer/{customerCode} - Remplacer adresse, téléphone et situation
+     */
+    @PutMapping("/customer/{customerCode}")
+    public ResponseEntity<?> replaceCustomer(@PathVariable String customerCode,
+                                             @RequestBody Map<String, Object> requestData,
+                                             WebRequest webRequest) {
+        System.out.println("🏦 === PUT /api/banking/customer/" + customerCode + " ===");
+        return updateCustomer(customerCode, requestData, true, webRequest);
+    }
+
+    /**
+     * PATCH /api/banking/customer/{customerCode} - Modifier une partie de l'adresse, du téléphone ou de la situation
+     */
+    @PatchMapping("/customer/{customerCode}")
+    public ResponseEntity<?> patchCustomer(@PathVariable String customerCode,
+                                           @RequestBody Map<String, Object> requestData,
+                                           WebRequest webRequest) {
+        System.out.println("🏦 === PATCH /api/banking/customer/" + customerCode + " ===");
+        return updateCustomer(customerCode, requestData, false, webRequest);
+    }
+
     /**
      * POST /api/banking/customer/search - Recherche avec requête complète
      */
@@ -71,14 +257,14 @@ public class BankingCustomerController {
             }
 
             GetCustomerDetailRequestFlow soapRequest = buildDetailedSoapRequest(customerCode, requestData);
-            GetCustomerDetailResponseFlow soapResponse = bankingService.getCustomerDetail(soapRequest);
+            GetCustomerDetailResponseFlow soapResponse = customerDetailService.getCustomerDetail(soapRequest);
 
             boolean fullResponse = Boolean.TRUE.equals(requestData.get("fullResponse"));
 
             if (fullResponse) {
                 return ResponseEntity.ok(soapResponse);
             } else {
-                Map<String, Object> restResponse = convertToSimpleResponse(soapResponse);
+                CustomerDetailResponse restResponse = convertToSimpleResponse(soapResponse);
                 return ResponseEntity.ok(restResponse);
             }
 
@@ -116,6 +302,234 @@ public class BankingCustomerController {
         }
     }
 
+    /**
+     * GET /api/banking/customers/search?name=...&page=0&size=20 - Recherche par nom
+     */
+    @GetMapping("/customers/search")
+    public ResponseEntity<?> searchCustomersByName(@RequestParam String name,
+                                                   @RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(defaultValue = "20") int size) {
+        System.out.println("🏦 === GET /api/banking/customers/search?name=" + name + " ===");
+
+        if (name.isBlank() || page < 0 || size < 1 || size > SEARCH_MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(createErrorResponse("Paramètres invalides: name obligatoire, page >= 0, size entre 1 et "
+                            + SEARCH_MAX_PAGE_SIZE));
+        }
+
+        try {
+            long start = System.nanoTime();
+            CustomerNameIndex.SearchPage result = bankingService.searchCustomersByName(name, page, size);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("query", name);
+            response.put("page", page);
+            response.put("size", size);
+            response.put("totalResults", result.totalResults());
+            // false : recherche arrêtée après la page demandée, totalResults est un minimum
+            response.put("totalResultsExact", result.totalExact());
+            response.put("totalPages", (result.totalResults() + size - 1) / size);
+            response.put("results", result.results());
+            response.put("searchTimeMicros", (System.nanoTime() - start) / 1_000);
+            response.put("timestamp", System.currentTimeMillis());
+
+            System.out.println("✅ " + result.totalResults() + " clients trouvés pour: " + name);
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            System.err.println("❌ Erreur recherche par nom: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Erreur recherche: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/banking/customers/export?customerType=1&branch=00001&nationality=SENEGALAIS
+     * Export de tous les clients en NDJSON, écrit au fil de l'eau sans liste intermédiaire
+     * Chaque vue est construite pour sa ligne puis abandonnée : rien n'est conservé d'un client à l'autre
+     */
+    @GetMapping("/customers/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(@RequestParam(required = false) String customerType,
+                                                                 @RequestParam(required = false) String branch,
+                                                                 @RequestParam(required = false) String nationality,
+                                                                 WebRequest webRequest) {
+        System.out.println("🏦 === GET /api/banking/customers/export ===");
+
+        // Délai de l'export posé au démarrage de son traitement asynchrone, les autres requêtes gardent le délai par défaut
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor("customerExportTimeout",
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                        if (request instanceof AsyncWebRequest asyncRequest) {
+                            asyncRequest.setTimeout(exportTimeoutMs);
+                        }
+                    }
+                });
+
+        StreamingResponseBody body = outputStream -> {
+            long start = System.nanoTime();
+            AtomicLong exported = new AtomicLong();
+            OutputStream buffered = new BufferedOutputStream(outputStream, EXPORT_BUFFER_SIZE);
+            try (SequenceWriter lines = exportWriter.writeValues(buffered)) {
+                customerSource().forEachCustomer(customer -> {
+                    CustomerView view = buildExportView(customer);
+                    if (matchesExportFilters(view, customerType, branch, nationality)) {
+                        try {
+                            lines.write(view);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        exported.incrementAndGet();
+                    }
+                });
+                if (exported.get() > 0) {
+                    lines.flush();
+                    buffered.write('\n');
+                }
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("❌ Export interrompu après " + exported.get() + " clients: " + e.getMessage());
+                throw e instanceof UncheckedIOException unchecked ? unchecked.getCause() : (IOException) e;
+            }
+            System.out.println("✅ Export: " + exported.get() + " clients en "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        };
+
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header("Content-Disposition", "attachment; filename=\"customers.ndjson\"")
+                .body(body);
+    }
+
+    /**
+     * POST /api/banking/customers/batch - Détails de plusieurs clients en une seule requête
+     */
+    @PostMapping("/customers/batch")
+    public ResponseEntity<?> getCustomerDetailsBatch(@RequestBody Map<String, Object> requestData) {
+        System.out.println("🏦 === POST /api/banking/customers/batch ===");
+
+        try {
+            Object codes = requestData.get("customerCodes");
+            if (!(codes instanceof List<?> codeList) || codeList.isEmpty()) {
+                return ResponseEntity.badRequest()
+                        .body(createErrorResponse("La liste customerCodes est obligatoire"));
+            }
+            if (codeList.size() > BATCH_MAX_SIZE) {
+                return ResponseEntity.badRequest()
+                        .body(createErrorResponse("Maximum " + BATCH_MAX_SIZE + " clients par lot"));
+            }
+
+            // fields : chaîne "identity,phones" comme le paramètre du GET ; tout autre type est refusé
+            Object fields = requestData.get("fields");
+            if (fields != null && !(fields instanceof String)) {
+                return ResponseEntity.badRequest()
+                        .body(createErrorResponse("Le champ fields doit être une chaîne (ex. \"identity,phones\")"));
+            }
+            Set<CustomerSection> sections;
+            try {
+                sections = CustomerSection.parse((String) fields);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+            }
+
+            // Appels lancés en parallèle, résultats rassemblés dans l'ordre de la requête
+            List<CompletableFuture<Map<String, Object>>> lookups = new ArrayList<>(codeList.size());
+            for (Object code : codeList) {
+                String customerCode = code == null ? "" : code.toString().trim();
+                lookups.add(lookupBatchItemAsync(customerCode, sections));
+            }
+
+            List<Map<String, Object>> items = new ArrayList<>(lookups.size());
+            int found = 0;
+            for (CompletableFuture<Map<String, Object>> lookup : lookups) {
+                Map<String, Object> item = lookup.join();
+                if (Boolean.TRUE.equals(item.get("found"))) {
+                    found++;
+                }
+                items.add(item);
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("totalRequested", items.size());
+            response.put("totalFound", found);
+            response.put("totalMissing", items.size() - found);
+            response.put("customers", items);
+            response.put("timestamp", System.currentTimeMillis());
+
+            System.out.println("✅ Lot traité: " + found + "/" + items.size() + " clients trouvés");
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            System.err.println("❌ Erreur lot clients: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Erreur lot: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /api/banking/screening/run - Criblage complet de la base contre la liste de sanctions
+     */
+    @PostMapping("/screening/run")
+    public ResponseEntity<?> runSanctionsScreening() {
+        System.out.println("🏦 === POST /api/banking/screening/run ===");
+
+        if (!screeningService.startFullScreening()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(createErrorResponse("Un criblage est déjà en cours"));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "RUNNING");
+        response.put("report", "/api/banking/screening/report");
+        response.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * GET /api/banking/screening/report - Dernier rapport de criblage
+     */
+    @GetMapping("/screening/report")
+    public ResponseEntity<?> getSanctionsScreeningReport() {
+        System.out.println("🏦 === GET /api/banking/screening/report ===");
+
+        SanctionsScreeningService.Report report = screeningService.getLastReport();
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(createErrorResponse("Aucun criblage lancé"));
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * GET /api/banking/screening/customer/{customerCode} - Criblage immédiat d'un client
+     */
+    @GetMapping("/screening/customer/{customerCode}")
+    public ResponseEntity<?> screenCustomer(@PathVariable String customerCode) {
+        System.out.println("🏦 === GET /api/banking/screening/customer/" + customerCode + " ===");
+
+        if (!partitionRouter.owns(customerCode)) {
+            return partitionRouter.misdirected(customerCode);
+        }
+        try {
+            List<SanctionsScreeningService.Hit> hits = screeningService.screenCustomer(customerCode);
+            if (hits == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(createErrorResponse("Client non trouvé: " + customerCode));
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("customerCode", customerCode);
+            response.put("totalHits", hits.size());
+            response.put("hits", hits);
+            response.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            System.err.println("❌ Erreur criblage client: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Erreur criblage: " + e.getMessage()));
+        }
+    }
+
     /**
      * GET /api/banking/status - Statut du service bancaire
      */
@@ -127,14 +541,23 @@ public class BankingCustomerController {
             GetStatusRequestFlow statusRequest = new GetStatusRequestFlow();
             statusRequest.setGetStatusRequest("status_check");
 
-            GetStatusResponseFlow statusResponse = bankingService.getStatus(statusRequest);
+            GetStatusResponseFlow statusResponse = customerDetailService.getStatus(statusRequest);
 
             Map<String, Object> response = new HashMap<>();
             response.put("serviceName", statusResponse.getGetStatusResponse().getServiceName());
             response.put("timestamp", statusResponse.getGetStatusResponse().getTimeStamp());
-            response.put("mode", "MOCK_DIRECT");
-            response.put("description", "Service bancaire Mock Sopra - Mode sécurisé");
-            response.put("totalMockCustomers", bankingService.getMockCustomersCount());
+            // Backend configuré et ses propres clients (inconnus localement pour le client CXF)
+            response.put("mode", configuredBackend.trim().toUpperCase());
+            response.put("backend", customerDetailService.getClass().getSimpleName());
+            response.put("description", "Service bancaire Sopra - backend " + configuredBackend.trim());
+            if (customerDetailService instanceof CustomerDataSource source) {
+                response.put("totalCustomers", source.customerCount());
+            }
+            response.put("partition", partitionRouter.getPartition().toMetadata());
+            CustomerCodeFilter codeFilter = customerDetailService.getCustomerCodeFilter();
+            if (codeFilter != null) {
+                response.put("customerCodeFilter", codeFilter.getStats());
+            }
             response.put("springBootVersion", "3.2.0");
             response.put("javaVersion", "17");
             response.put("available", true);
@@ -177,24 +600,247 @@ public class BankingCustomerController {
 
         info.put("totalMockCustomers", bankingService.getMockCustomersCount());
         info.put("availableCustomers", bankingService.getAvailableCustomerCodes());
+        info.put("compactRecords", bankingService.getRecordStats());
 
         bankingService.printMockStatus();
 
         return ResponseEntity.ok(info);
     }
 
+    @PostConstruct
+    public void initExportWriter() {
+        exportWriter = objectMapper.writerFor(CustomerView.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @PreDestroy
+    public void shutdownBatchExecutor() {
+        batchExecutor.shutdownNow();
+    }
+
     // ========================================
     // MÉTHODES UTILITAIRES PRIVÉES
     // ========================================
 
-    private GetCustomerDetailRequestFlow buildSoapRequest(String customerCode) throws Exception {
+    private ResponseEntity<?> updateCustomer(String customerCode, Map<String, Object> requestData,
+                                             boolean replaceAll, WebRequest webRequest) {
+        if (!partitionRouter.owns(customerCode)) {
+            return partitionRouter.misdirected(customerCode);
+        }
+        // Backend sans mise à jour (client CXF) : 501 avant tout appel
+        if (!customerDetailService.supportsUpdate()) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED)
+                    .body(createErrorResponse("Mise à jour non supportée par le backend "
+                            + customerDetailService.getClass().getSimpleName()));
+        }
+        try {
+            Map<String, String> changes = new HashMap<>();
+            for (Map.Entry<String, Object> entry : requestData.entrySet()) {
+                if (entry.getValue() != null && !(entry.getValue() instanceof String)) {
+                    return ResponseEntity.badRequest()
+                            .body(createErrorResponse("Le champ " + entry.getKey() + " doit être une chaîne"));
+                }
+                changes.put(entry.getKey(), (String) entry.getValue());
+            }
+
+            // Backend actif : If-Match est comparé au même ETag que celui servi par GET
+            GetCustomerDetailService.UpdateResult updated = customerDetailService.updateCustomer(
+                    customerCode, changes, replaceAll, parseIfMatch(webRequest.getHeader("If-Match")));
+            if (updated == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(createErrorResponse("Client non trouvé: " + customerCode));
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("customerCode", customerCode);
+            response.put("version", updated.version());
+            response.put("updatedFields", new TreeSet<>(changes.keySet()));
+            response.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok().eTag(updated.eTag()).body(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (CustomerVersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .eTag(e.getCurrentETag())
+                    .body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Erreur mise à jour client: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Erreur mise à jour: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Chemin et paramètres de la requête reçue, pour la relayer telle quelle
+     */
+    private static String requestPathAndQuery(WebRequest webRequest) {
+        HttpServletRequest request = ((ServletWebRequest) webRequest).getRequest();
+        return request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+    }
+
+    /**
+     * Version attendue depuis If-Match ("*" ou absent : pas de contrôle)
+     */
+    private static String parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.startsWith("W/")) {
+            etag = etag.substring(2);
+        }
+        if (etag.length() >= 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            etag = etag.substring(1, etag.length() - 1);
+        }
+        return etag;
+    }
+
+    /**
+     * Clients du backend actif s'il détient ses données (Mock, stockage mappé), sinon ceux du Mock
+     */
+    private CustomerDataSource customerSource() {
+        return customerDetailService instanceof CustomerDataSource source ? source : bankingService;
+    }
+
+    /**
+     * Vue REST complète d'un client, non mise en cache : la mémoire de l'export ne dépend pas du nombre de clients
+     */
+    private CustomerView buildExportView(BankingCustomerData customer) {
+        try {
+            return customerRestMapper.toCustomerView(responseBuilder.buildCustomerResponse(customer, CustomerSection.ALL));
+        } catch (Exception e) {
+            throw new IllegalStateException("Erreur conversion client " + customer.customerCode + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean matchesExportFilters(CustomerView view, String customerType,
+                                                String branch, String nationality) {
+        if (customerType != null && !customerType.equals(view.customerType())) {
+            return false;
+        }
+        if (branch != null && (view.generalAttributes() == null || view.generalAttributes().branch() == null
+                || !branch.equals(view.generalAttributes().branch().code()))) {
+            return false;
+        }
+        if (nationality != null) {
+            CustomerView.CodeLabel customerNationality = view.nationality();
+            return customerNationality != null
+                    && (nationality.equalsIgnoreCase(customerNationality.code())
+                    || nationality.equalsIgnoreCase(customerNationality.designation()));
+        }
+        return true;
+    }
+
+    /**
+     * Chemin rapide : un code rejeté par le filtre ne va jamais jusqu'au backend
+     */
+    private boolean isKnownCustomer(String customerCode) {
+        CustomerCodeFilter codeFilter = customerDetailService.getCustomerCodeFilter();
+        if (codeFilter != null && !codeFilter.mightContain(customerCode)) {
+            return false;
+        }
+        if (!customerDetailService.hasCustomer(customerCode)) {
+            if (codeFilter != null) {
+                codeFilter.recordFalsePositive();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Client CXF : appel SOAP asynchrone, aucun thread du pool bloqué pendant l'attente du service distant
+     * Autres backends (locaux) : recherche synchrone exécutée sur le pool du lot
+     */
+    private CompletableFuture<Map<String, Object>> lookupBatchItemAsync(String customerCode, Set<CustomerSection> sections) {
+        if (!(customerDetailService instanceof CxfCustomerDetailClient cxfClient)) {
+            return CompletableFuture.supplyAsync(() -> lookupBatchItem(customerCode, sections), batchExecutor);
+        }
+
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("customerCode", customerCode);
+        try {
+            if (rejectBatchItem(item, customerCode)) {
+                return CompletableFuture.completedFuture(item);
+            }
+            return cxfClient.getCustomerDetailAsync(buildSoapRequest(customerCode))
+                    .thenApplyAsync(soapResponse -> fillBatchItem(item, soapResponse, sections), batchExecutor)
+                    .exceptionally(e -> failBatchItem(item, e instanceof CompletionException && e.getCause() != null
+                            ? e.getCause() : e));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(failBatchItem(item, e));
+        }
+    }
+
+    private Map<String, Object> lookupBatchItem(String customerCode, Set<CustomerSection> sections) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("customerCode", customerCode);
+
+        try {
+            if (rejectBatchItem(item, customerCode)) {
+                return item;
+            }
+
+            GetCustomerDetailResponseFlow soapResponse =
+                    customerDetailService.getCustomerDetail(buildSoapRequest(customerCode), sections);
+            return fillBatchItem(item, soapResponse, sections);
+
+        } catch (Exception e) {
+            return failBatchItem(item, e);
+        }
+    }
+
+    /**
+     * Client hors partition ou inconnu : l'élément est complété et true est retourné, sans appel au service
+     */
+    private boolean rejectBatchItem(Map<String, Object> item, String customerCode) {
+        if (!customerCode.isEmpty() && !partitionRouter.owns(customerCode)) {
+            item.put("found", false);
+            item.put("misdirected", true);
+            item.put("error", "Client hors de la partition " + partitionRouter.getPartition() + ": " + customerCode);
+            return true;
+        }
+        if (customerCode.isEmpty() || !isKnownCustomer(customerCode)) {
+            item.put("found", false);
+            item.put("error", "Client non trouvé: " + customerCode);
+            return true;
+        }
+        return false;
+    }
+
+    private Map<String, Object> fillBatchItem(Map<String, Object> item, GetCustomerDetailResponseFlow soapResponse,
+                                              Set<CustomerSection> sections) {
+        if (!"0".equals(soapResponse.getResponseStatus().getStatusCode())) {
+            item.put("found", false);
+            item.put("error", "Client non trouvé: " + item.get("customerCode"));
+            return item;
+        }
+
+        item.put("found", true);
+        item.put("customer", convertToSimpleResponse(soapResponse, sections));
+        return item;
+    }
+
+    private Map<String, Object> failBatchItem(Map<String, Object> item, Throwable e) {
+        item.remove("customer");
+        item.put("found", false);
+        item.put("error", "Erreur récupération: " + e.getMessage());
+        return item;
+    }
+
+    GetCustomerDetailRequestFlow buildSoapRequest(String customerCode) throws Exception {
         GetCustomerDetailRequestFlow request = new GetCustomerDetailRequestFlow();
 
         // Header de requête
         RequestHeader requestHeader = new RequestHeader();
         requestHeader.setRequestId("REST_" + System.currentTimeMillis());
         requestHeader.setServiceName("getCustomerDetail");
-        requestHeader.setTimestamp(DatatypeFactory.newInstance()
+        requestHeader.setTimestamp(DATATYPE_FACTORY
                 .newXMLGregorianCalendar(GregorianCalendar.from(
                         LocalDateTime.now().atZone(ZoneId.systemDefault()))));
         requestHeader.setUserCode("REPRISE");
@@ -217,7 +863,7 @@ public class BankingCustomerController {
         RequestHeader requestHeader = new RequestHeader();
         requestHeader.setRequestId((String) requestData.getOrDefault("requestId", "REST_" + System.currentTimeMillis()));
         requestHeader.setServiceName("getCustomerDetail");
-        requestHeader.setTimestamp(DatatypeFactory.newInstance()
+        requestHeader.setTimestamp(DATATYPE_FACTORY
                 .newXMLGregorianCalendar(GregorianCalendar.from(
                         LocalDateTime.now().atZone(ZoneId.systemDefault()))));
         requestHeader.setUserCode((String) requestData.getOrDefault("userCode", "REPRISE"));
@@ -238,158 +884,59 @@ public class BankingCustomerController {
         return request;
     }
 
-    private Map<String, Object> convertToSimpleResponse(GetCustomerDetailResponseFlow soapResponse) {
-        Map<String, Object> response = new HashMap<>();
-
-        try {
-            GetCustomerDetailResponse customerDetail = soapResponse.getGetCustomerDetailResponse();
-
-            // Informations de base
-            response.put("customerCode", customerDetail.getCustomerCode());
-            response.put("customerType", customerDetail.getCustomerType());
-            response.put("lastname", customerDetail.getLastname());
-            response.put("nameToReturn", customerDetail.getNameToReturn());
-
-            // Titre
-            if (customerDetail.getTitleCode() != null) {
-                Map<String, String> title = new HashMap<>();
-                title.put("code", customerDetail.getTitleCode().getCode());
-                title.put("designation", customerDetail.getTitleCode().getDesignation());
-                response.put("title", title);
-            }
-
-            // Nationalité
-            if (customerDetail.getSituation() != null && customerDetail.getSituation().getNationalityCode() != null) {
-                Map<String, String> nationality = new HashMap<>();
-                nationality.put("code", customerDetail.getSituation().getNationalityCode().getCode());
-                nationality.put("designation", customerDetail.getSituation().getNationalityCode().getDesignation());
-                response.put("nationality", nationality);
-            }
-
-            // Informations individuelles
-            if (customerDetail.getSpecificInformation() != null &&
-                    customerDetail.getSpecificInformation().getIndividualSpecInfo() != null) {
-
-                CustomerIndividualSpecInfo individualInfo = customerDetail.getSpecificInformation().getIndividualSpecInfo();
-
-                // Prénom
-                if (individualInfo.getIndividualGeneralInfo() != null) {
-                    response.put("firstname", individualInfo.getIndividualGeneralInfo().getFirstname());
-
-                    if (individualInfo.getIndividualGeneralInfo().getFamilyStatusCode() != null) {
-                        Map<String, String> familyStatus = new HashMap<>();
-                        familyStatus.put("code", individualInfo.getIndividualGeneralInfo().getFamilyStatusCode().getCode());
-                        familyStatus.put("designation", individualInfo.getIndividualGeneralInfo().getFamilyStatusCode().getDesignation());
-                        response.put("familyStatus", familyStatus);
-                    }
-                }
-
-                // Naissance
-                if (individualInfo.getBirth() != null) {
-                    Map<String, Object> birth = new HashMap<>();
-                    birth.put("sex", individualInfo.getBirth().getHolderSex());
-                    birth.put("birthDate", individualInfo.getBirth().getBirthDate());
-                    birth.put("birthCity", individualInfo.getBirth().getBirthCity());
-                    response.put("birth", birth);
-                }
-
-                // Papiers d'identité
-                if (individualInfo.getIdPaper() != null) {
-                    Map<String, Object> idPaper = new HashMap<>();
-                    idPaper.put("number", individualInfo.getIdPaper().getIdPaperNumber());
-                    idPaper.put("deliveryDate", individualInfo.getIdPaper().getIdPaperDeliveryDate());
-                    idPaper.put("validityDate", individualInfo.getIdPaper().getIdPaperValidityDate());
-                    if (individualInfo.getIdPaper().getType() != null) {
-                        idPaper.put("type", individualInfo.getIdPaper().getType().getDesignation());
-                    }
-                    response.put("idPaper", idPaper);
-                }
-            }
-
-            // Attributs généraux
-            if (customerDetail.getGeneralAttributes() != null) {
-                Map<String, Object> generalAttributes = new HashMap<>();
-
-                if (customerDetail.getGeneralAttributes().getBranchCode() != null) {
-                    Map<String, String> branch = new HashMap<>();
-                    branch.put("code", customerDetail.getGeneralAttributes().getBranchCode().getCode());
-                    branch.put("designation", customerDetail.getGeneralAttributes().getBranchCode().getDesignation());
-                    generalAttributes.put("branch", branch);
-                }
-
-                if (customerDetail.getGeneralAttributes().getCustomerOfficer() != null) {
-                    Map<String, String> officer = new HashMap<>();
-                    officer.put("code", customerDetail.getGeneralAttributes().getCustomerOfficer().getCode());
-                    officer.put("name", customerDetail.getGeneralAttributes().getCustomerOfficer().getName());
-                    generalAttributes.put("customerOfficer", officer);
-                }
-
-                generalAttributes.put("taxableCustomer", customerDetail.getGeneralAttributes().isTaxableCustomer());
-                response.put("generalAttributes", generalAttributes);
-            }
+    CustomerDetailResponse convertToSimpleResponse(GetCustomerDetailResponseFlow soapResponse) {
+        return convertToSimpleResponse(soapResponse, CustomerSection.ALL);
+    }
 
-            // Téléphones
-            if (customerDetail.getPhoneNumbers() != null &&
-                    !customerDetail.getPhoneNumbers().getCustomerPhoneNumber().isEmpty()) {
+    private CustomerDetailResponse convertToSimpleResponse(GetCustomerDetailResponseFlow soapResponse,
+                                                           Set<CustomerSection> sections) {
+        CustomerView customer = null;
+        String error = null;
 
-                List<Map<String, String>> phones = new ArrayList<>();
-                for (CustomerPhoneNumber phone : customerDetail.getPhoneNumbers().getCustomerPhoneNumber()) {
-                    Map<String, String> phoneMap = new HashMap<>();
-                    phoneMap.put("number", phone.getPhoneNumber());
-                    if (phone.getPhoneType() != null) {
-                        phoneMap.put("type", phone.getPhoneType().getDesignation());
-                    }
-                    phones.add(phoneMap);
-                }
-                response.put("phoneNumbers", phones);
-            }
-
-            // Adresses
-            if (customerDetail.getAddressesDetail() != null &&
-                    !customerDetail.getAddressesDetail().getCustomerAddressDetail().isEmpty()) {
-
-                List<Map<String, Object>> addresses = new ArrayList<>();
-                for (CustomerAddressDetail address : customerDetail.getAddressesDetail().getCustomerAddressDetail()) {
-                    Map<String, Object> addressMap = new HashMap<>();
-                    addressMap.put("line1", address.getAddressLine1());
-                    addressMap.put("line2", address.getAddressLine2());
-                    addressMap.put("city", address.getCity());
-                    addressMap.put("postalCode", address.getPostalCode());
-                    addressMap.put("county", address.getCounty());
-                    addressMap.put("region", address.getRegion());
-                    addresses.add(addressMap);
-                }
-                response.put("addresses", addresses);
-            }
+        try {
+            customer = convertCustomerDetail(soapResponse.getGetCustomerDetailResponse(), sections);
+        } catch (Exception e) {
+            System.err.println("Erreur conversion réponse: " + e.getMessage());
+            error = "Erreur lors de la conversion de la réponse";
+        }
 
-            // Profil actif
-            if (customerDetail.getActiveProfile() != null &&
-                    customerDetail.getActiveProfile().getActiveProfile() != null) {
-                Map<String, String> profile = new HashMap<>();
-                profile.put("code", customerDetail.getActiveProfile().getActiveProfile().getCode());
-                profile.put("designation", customerDetail.getActiveProfile().getActiveProfile().getDesignation());
-                response.put("activeProfile", profile);
-            }
+        // Métadonnées de réponse
+        ResponseHeader header = soapResponse.getResponseHeader();
+        return new CustomerDetailResponse(
+                customer,
+                header != null ? header.getResponseId() : null,
+                header != null ? header.getTimestamp() : null,
+                header != null ? header.getServiceVersion() : null,
+                soapResponse.getResponseStatus() != null ? soapResponse.getResponseStatus().getStatusCode() : null,
+                error
+        );
+    }
 
-            // Métadonnées de réponse
-            response.put("responseId", soapResponse.getResponseHeader().getResponseId());
-            response.put("timestamp", soapResponse.getResponseHeader().getTimestamp());
-            response.put("serviceVersion", soapResponse.getResponseHeader().getServiceVersion());
-            response.put("statusCode", soapResponse.getResponseStatus().getStatusCode());
+    private CustomerView convertCustomerDetail(GetCustomerDetailResponse customerDetail, Set<CustomerSection> sections) {
+        if (customerDetail == null) {
+            return null;
+        }
 
-        } catch (Exception e) {
-            System.err.println("Erreur conversion réponse: " + e.getMessage());
-            response.put("error", "Erreur lors de la conversion de la réponse");
+        // Vue client réutilisée depuis le cache si la réponse complète en provient
+        CustomerView cached = customerDetailService.getCachedView(customerDetail, customerRestMapper::toCustomerView);
+        if (cached != null) {
+            return cached.project(sections);
         }
+        return customerRestMapper.toCustomerView(customerDetail).project(sections);
+    }
 
-        return response;
+    /**
+     * Erreur du GET client : en JSON si Protobuf est demandé (le schéma ne couvre que le détail client)
+     */
+    private ResponseEntity<?> lookupError(HttpStatus status, String errorMessage, CustomerPayloadFormats.Format format) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (format == CustomerPayloadFormats.Format.PROTOBUF) {
+            response.contentType(MediaType.APPLICATION_JSON);
+        }
+        return response.body(createErrorResponse(errorMessage));
     }
 
-    private Map<String, Object> createErrorResponse(String errorMessage) {
-        Map<String, Object> error = new HashMap<>();
-        error.put("error", errorMessage);
-        error.put("timestamp", System.currentTimeMillis());
-        error.put("status", "error");
-        return error;
+    private ErrorResponse createErrorResponse(String errorMessage) {
+        return ErrorResponse.of(errorMessage);
     }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package org.example.customer;
+
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+
+/**
+ * Données d'un client bancaire
+ *
+ * Une instance publiée (instantané, stockage) n'est plus modifiée :
+ * toute mise à jour travaille sur une copie (copy-on-write).
+ */
+final class BankingCustomerData {
+
+    // Nombre de champs de toFields() / fromFields()
+    static final int FIELD_COUNT = 15;
+
+    // Champs modifiables par PUT / PATCH : adresse, téléphone, situation
+    private static final Map<String, BiConsumer<BankingCustomerData, String>> UPDATABLE_FIELDS = Map.of(
+            "addressLine1", (customer, value) -> customer.addressLine1 = value,
+            "addressLine2", (customer, value) -> customer.addressLine2 = value,
+            "city", (customer, value) -> customer.city = value,
+            "postalCode", (customer, value) -> customer.postalCode = value,
+            "phoneNumber", (customer, value) -> customer.phoneNumber = value,
+            "nationality", (customer, value) -> customer.nationality = value,
+            "countryOfResidence", (customer, value) -> customer.countryOfResidence = value
+    );
+
+    String customerCode;
+    String lastname;
+    String firstname;
+    String customerType;
+    String displayName;
+    String sex;
+    String birthDate;
+    String nationality;
+    String phoneNumber;
+    String countryOfResidence;
+    String addressLine1;
+    String addressLine2;
+    String city;
+    String postalCode;
+    String branchCode;
+
+    /**
+     * Champs dans l'ordre de sérialisation
+     */
+    String[] toFields() {
+        return new String[]{
+                customerCode, lastname, firstname, customerType, displayName, sex, birthDate,
+                nationality, phoneNumber, countryOfResidence, addressLine1, addressLine2, city, postalCode,
+                branchCode
+        };
+    }
+
+    static BankingCustomerData fromFields(String[] fields) {
+        BankingCustomerData customer = new BankingCustomerData();
+        customer.customerCode = fields[0];
+        customer.lastname = fields[1];
+        customer.firstname = fields[2];
+        customer.customerType = fields[3];
+        customer.displayName = fields[4];
+        customer.sex = fields[5];
+        customer.birthDate = fields[6];
+        customer.nationality = fields[7];
+        customer.phoneNumber = fields[8];
+        customer.countryOfResidence = fields[9];
+        customer.addressLine1 = fields[10];
+        customer.addressLine2 = fields[11];
+        customer.city = fields[12];
+        customer.postalCode = fields[13];
+        customer.branchCode = fields[14];
+        return customer;
+    }
+
+    /**
+     * Empreinte du contenu (FNV-1a 64 bits sur tous les champs)
+     */
+    long contentHash() {
+        long h = 0xcbf29ce484222325L;
+        for (String field : toFields()) {
+            if (field == null) {
+                h = (h ^ 0xff) * 0x100000001b3L;
+                continue;
+            }
+            for (int i = 0; i < field.length(); i++) {
+                h = (h ^ field.charAt(i)) * 0x100000001b3L;
+            }
+            h = (h ^ 0x1f) * 0x100000001b3L; // séparateur de champ
+        }
+        return h;
+    }
+
+    /**
+     * Vérifie qu'une mise à jour ne touche que des champs modifiables
+     *
+     * @param replaceAll true pour PUT : tous les champs modifiables sont obligatoires
+     */
+    static void checkChanges(Map<String, String> changes, boolean replaceAll) {
+        for (String field : changes.keySet()) {
+            if (!UPDATABLE_FIELDS.containsKey(field)) {
+                throw new IllegalArgumentException("Champ non modifiable: " + field
+                        + " (autorisés: " + new TreeSet<>(UPDATABLE_FIELDS.keySet()) + ")");
+            }
+        }
+        if (replaceAll && !changes.keySet().containsAll(UPDATABLE_FIELDS.keySet())) {
+            throw new IllegalArgumentException("PUT exige tous les champs: " + new TreeSet<>(UPDATABLE_FIELDS.keySet()));
+        }
+    }
+
+    /**
+     * Applique des modifications vérifiées par checkChanges - uniquement sur une copie non publiée
+     */
+    void applyChanges(Map<String, String> changes) {
+        changes.forEach((field, value) -> UPDATABLE_FIELDS.get(field).accept(this, value));
+    }
+}
@@ -12,8 +12,15 @@ public class CustomerApplication {
         System.out.println("🏦 API REST disponible sur: http://localhost:8092/api/banking");
         System.out.println("🏦 Endpoints disponibles:");
         System.out.println("  GET    /api/banking/customer/{code}     - Détails client bancaire");
+        System.out.println("  PUT    /api/banking/customer/{code}     - Remplacer adresse, téléphone, situation");
+        System.out.println("  PATCH  /api/banking/customer/{code}     - Modifier adresse, téléphone, situation");
         System.out.println("  GET    /api/banking/customers           - Codes clients disponibles");
+        System.out.println("  GET    /api/banking/customers/search    - Recherche par nom (?name=)");
         System.out.println("  POST   /api/banking/customer/search     - Recherche avec requête complète");
+        System.out.println("  POST   /api/banking/customers/batch     - Détails de plusieurs clients");
+        System.out.println("  GET    /api/banking/customers/export    - Export NDJSON de tous les clients");
+        System.out.println("  POST   /api/banking/screening/run       - Criblage sanctions de tous les clients");
+        System.out.println("  GET    /api/banking/screening/report    - Dernier rapport de criblage");
         System.out.println("  GET    /api/banking/status              - Statut service");
         System.out.println("  GET    /api/banking/mock/info           - Informations Mock");
     }
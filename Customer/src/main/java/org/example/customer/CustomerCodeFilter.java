@@ -0,0 +1,171 @@
+package org.example.customer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Filtre de Bloom des codes clients connus
+ *
+ * Permet de rejeter un code inconnu sans interroger le backend :
+ * "absent" est toujours exact, "présent" peut être un faux positif.
+ * Les ajouts sont sans verrou ; la suppression n'est pas supportée,
+ * un code supprimé reste simplement un faux positif.
+ *
+ * Le hachage des codes est fourni par le backend : un stockage qui conserve déjà un hash par code
+ * (index de MappedCustomerStore) alimente le filtre par addHash sans relire les codes.
+ */
+public final class CustomerCodeFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitMask;
+    private final int hashFunctions;
+    private final long expectedInsertions;
+    private final ToLongFunction<String> keyHash;
+
+    private final LongAdder insertions = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * Statistiques exposées sur /status
+     */
+    public record Stats(long bitSize, long sizeBytes, int hashFunctions, long expectedInsertions,
+                        long insertions, double estimatedFalsePositiveRate,
+                        long rejectedLookups, long falsePositives, double measuredFalsePositiveRate) {
+    }
+
+    public CustomerCodeFilter(long expectedInsertions, double falsePositiveRate) {
+        this(expectedInsertions, falsePositiveRate, CustomerCodeFilter::hash);
+    }
+
+    /**
+     * @param keyHash hash 64 bits d'un code (voir spread pour un hash 32 bits)
+     */
+    public CustomerCodeFilter(long expectedInsertions, double falsePositiveRate, ToLongFunction<String> keyHash) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Paramètres du filtre invalides: "
+                    + expectedInsertions + " / " + falsePositiveRate);
+        }
+
+        // Taille optimale arrondie à la puissance de 2 supérieure (masque au lieu de modulo)
+        double optimalBits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long bitSize = Long.highestOneBit(Math.max(64L, (long) Math.ceil(optimalBits)) - 1) << 1;
+        if (bitSize / 64 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Filtre trop grand: " + bitSize + " bits");
+        }
+
+        this.bits = new AtomicLongArray((int) (bitSize / 64));
+        this.bitMask = bitSize - 1;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        this.expectedInsertions = expectedInsertions;
+        this.keyHash = keyHash;
+    }
+
+    public void add(String customerCode) {
+        addHash(keyHash.applyAsLong(customerCode));
+    }
+
+    /**
+     * Ajoute un code par son hash, calculé par la fonction de hachage du filtre
+     */
+    public void addHash(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            setBit((h1 + (long) i * h2) & bitMask);
+        }
+        insertions.increment();
+    }
+
+    /**
+     * false : le code n'existe certainement pas - true : le code existe probablement
+     */
+    public boolean mightContain(String customerCode) {
+        long hash = keyHash.applyAsLong(customerCode);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = (h1 + (long) i * h2) & bitMask;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                rejected.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * À appeler quand le backend ne trouve pas un code accepté par le filtre
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public Stats getStats() {
+        long bitSize = bitMask + 1;
+        long setBits = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            setBits += Long.bitCount(bits.get(i));
+        }
+
+        long falsePositiveCount = falsePositives.sum();
+        long negatives = rejected.sum() + falsePositiveCount;
+        return new Stats(
+                bitSize,
+                bitSize / 8,
+                hashFunctions,
+                expectedInsertions,
+                insertions.sum(),
+                round(Math.pow((double) setBits / bitSize, hashFunctions)),
+                rejected.sum(),
+                falsePositiveCount,
+                negatives == 0 ? 0.0 : round((double) falsePositiveCount / negatives)
+        );
+    }
+
+    private void setBit(long bit) {
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    /**
+     * FNV-1a 64 bits suivi d'un mélange final : les deux moitiés servent de h1 et h2
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * Hash 64 bits du filtre à partir d'un hash 32 bits existant (ex. celui de l'index du stockage)
+     * Deux codes de même hash 32 bits sont confondus : faux positifs en plus, de l'ordre de n / 2^32.
+     */
+    public static long spread(int hash) {
+        return mix(hash & 0xffffffffL);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h | 1L << 32; // h2 impair : parcourt toutes les positions du masque
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1_000_000) / 1_000_000.0;
+    }
+}
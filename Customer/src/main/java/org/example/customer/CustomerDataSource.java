@@ -0,0 +1,25 @@
+package org.example.customer;
+
+import java.util.function.Consumer;
+
+/**
+ * Backend qui détient lui-même les données de ses clients (Mock en mémoire, stockage mappé)
+ * Utilisé par l'export et le criblage pour parcourir le backend actif plutôt que le Mock
+ */
+interface CustomerDataSource {
+
+    /**
+     * Copie des données du client, ou null si le code est inconnu
+     */
+    BankingCustomerData findCustomer(String customerCode);
+
+    /**
+     * Parcourt tous les clients, chacun reçu sous forme de copie (itération faiblement cohérente)
+     */
+    void forEachCustomer(Consumer<BankingCustomerData> action);
+
+    /**
+     * Nombre de clients détenus par le backend
+     */
+    int customerCount();
+}
@@ -0,0 +1,106 @@
+package org.example.customer;
+
+import org.example.customer.client.GetCustomerDetailResponse;
+import org.example.customer.rest.CustomerView;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cache borné des réponses SOAP complètes et vues REST des clients les plus demandés
+ *
+ * - LRU de taille fixe : la mémoire occupée ne dépend pas du nombre de clients chargés
+ * - références douces : le GC peut vider le cache sous pression mémoire
+ * - une entrée n'est valable que pour l'instantané qui l'a produite : après une mise à jour elle est ignorée
+ */
+final class CustomerDetailCache {
+
+    /**
+     * Réponse complète d'un instantané, et sa vue REST calculée au premier besoin
+     */
+    static final class Entry {
+
+        private final CustomerSnapshot snapshot;
+        private final GetCustomerDetailResponse detail;
+        private volatile CustomerView view;
+
+        private Entry(CustomerSnapshot snapshot, GetCustomerDetailResponse detail) {
+            this.snapshot = snapshot;
+            this.detail = detail;
+        }
+
+        GetCustomerDetailResponse getDetail() {
+            return detail;
+        }
+
+        boolean hasView() {
+            return view != null;
+        }
+
+        CustomerView getView(Function<GetCustomerDetailResponse, CustomerView> converter) {
+            CustomerView current = view;
+            if (current == null) {
+                current = converter.apply(detail);
+                view = current;
+            }
+            return current;
+        }
+    }
+
+    private final int maxEntries;
+    private final Map<String, SoftReference<Entry>> entries;
+
+    /**
+     * @param maxEntries nombre maximal de clients en cache (0 = pas de cache)
+     */
+    CustomerDetailCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SoftReference<Entry>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Entrée du client pour cet instantané, ou null si absente, libérée par le GC ou périmée
+     */
+    Entry get(String customerCode, CustomerSnapshot snapshot) {
+        SoftReference<Entry> reference;
+        synchronized (entries) {
+            reference = entries.get(customerCode);
+        }
+        Entry entry = reference == null ? null : reference.get();
+        return entry != null && entry.snapshot == snapshot ? entry : null;
+    }
+
+    /**
+     * Entrée du client pour cet instantané, construite et mise en cache si besoin
+     */
+    Entry getOrBuild(String customerCode, CustomerSnapshot snapshot,
+                     Function<CustomerSnapshot, GetCustomerDetailResponse> builder) {
+        Entry entry = get(customerCode, snapshot);
+        if (entry == null) {
+            entry = new Entry(snapshot, builder.apply(snapshot));
+            if (maxEntries > 0) {
+                synchronized (entries) {
+                    entries.put(customerCode, new SoftReference<>(entry));
+                }
+            }
+        }
+        return entry;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    int getMaxEntries() {
+        return maxEntries;
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.customer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métriques Micrometer de GET /api/banking/customer/{customerCode}, exposées sur /actuator/prometheus
+ *
+ * - banking.customer.lookup.phase{phase} : durée de chaque étape du traitement
+ * - banking.customer.lookup{outcome}     : issue de la requête (vue en cache, construite, introuvable...)
+ * - banking.customer.lookup.payload{format} : taille de la réponse retournée (JSON, CBOR...), en octets
+ */
+@Component
+public class CustomerLookupMetrics {
+
+    public enum Phase {
+        REQUEST_BUILD("request_build"),
+        SERVICE_CALL("service_call"),
+        RESPONSE_BUILD("response_build"),
+        REST_CONVERSION("rest_conversion"),
+        SERIALIZATION("serialization");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Outcome {
+        HIT("hit"),                    // vue REST déjà calculée dans l'instantané
+        MISS("miss"),                  // vue REST construite pour la requête (premier accès, projection, autre backend)
+        NOT_FOUND("not_found"),
+        NOT_MODIFIED("not_modified"),  // 304 sur If-None-Match
+        MISDIRECTED("misdirected"),    // code d'une autre partition : relayé ou refusé
+        ERROR("error");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+    private final Map<Outcome, Counter> outcomeCounters = new EnumMap<>(Outcome.class);
+    private final Map<CustomerPayloadFormats.Format, DistributionSummary> payloadSizes =
+            new EnumMap<>(CustomerPayloadFormats.Format.class);
+
+    public CustomerLookupMetrics(MeterRegistry registry) {
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder("banking.customer.lookup.phase")
+                    .description("Durée d'une étape de la récupération d'un client")
+                    .tag("phase", phase.tag)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(1_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(registry));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder("banking.customer.lookup")
+                    .description("Récupérations de client par issue")
+                    .tag("outcome", outcome.tag)
+                    .register(registry));
+        }
+        for (CustomerPayloadFormats.Format format : CustomerPayloadFormats.Format.values()) {
+            payloadSizes.put(format, DistributionSummary.builder("banking.customer.lookup.payload")
+                    .description("Taille de la réponse retournée pour un client")
+                    .tag("format", format.name().toLowerCase())
+                    .baseUnit("bytes")
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(64.0)
+                    .maximumExpectedValue(1_048_576.0)
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Enregistre la durée écoulée depuis startNanos (System.nanoTime())
+     */
+    public void recordPhase(Phase phase, long startNanos) {
+        phaseTimers.get(phase).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOutcome(Outcome outcome) {
+        outcomeCounters.get(outcome).increment();
+    }
+
+    public void recordPayloadSize(CustomerPayloadFormats.Format format, int bytes) {
+        payloadSizes.get(format).record(bytes);
+    }
+}
@@ -0,0 +1,350 @@
+package org.example.customer;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Index en mémoire des noms clients (nom, prénom, raison sociale)
+ *
+ * - index par préfixe : jetons normalisés triés → codes clients
+ * - index approximatif : bigrammes → jetons, pour tolérer les fautes de frappe
+ * Mis à jour de façon incrémentale à chaque ajout ou modification de client.
+ */
+public final class CustomerNameIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^A-Z0-9]+");
+
+    private static final double EXACT_SCORE = 1.0;
+    private static final double PREFIX_SCORE = 0.8;
+    private static final double FUZZY_WEIGHT = 0.6;
+    private static final double FUZZY_THRESHOLD = 0.5;
+    private static final int MIN_FUZZY_LENGTH = 3;
+
+    /**
+     * Client indexé : informations affichées dans les résultats
+     */
+    public record IndexedCustomer(String customerCode, String displayName, String customerType, List<String> tokens) {
+    }
+
+    public record Match(String customerCode, String displayName, String customerType, double score) {
+    }
+
+    /**
+     * @param totalExact false si le parcours s'est arrêté dès la page servie : totalResults est alors un minimum
+     */
+    public record SearchPage(int totalResults, boolean totalExact, List<Match> results) {
+    }
+
+    /**
+     * Jeton de l'index correspondant à un mot de la requête, avec son score (exact, préfixe ou approché)
+     */
+    private record TokenMatch(String token, double score) {
+    }
+
+    private record Candidate(IndexedCustomer customer, double score) {
+    }
+
+    // Meilleurs jetons d'abord, puis ordre alphabétique : ordre de parcours des postings
+    private static final Comparator<TokenMatch> TOKEN_MATCH_ORDER =
+            Comparator.comparingDouble(TokenMatch::score).reversed().thenComparing(TokenMatch::token);
+    // Ordre des résultats : score décroissant, puis code client
+    private static final Comparator<Candidate> RESULT_ORDER =
+            Comparator.comparingDouble(Candidate::score).reversed()
+                    .thenComparing(candidate -> candidate.customer().customerCode());
+
+    private final ConcurrentSkipListMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> bigramTokens = new ConcurrentHashMap<>();
+    private final Map<String, IndexedCustomer> customers = new ConcurrentHashMap<>();
+
+    /**
+     * Ajoute ou remplace un client dans l'index
+     * La normalisation se fait hors verrou : seules les mises à jour des structures sont sérialisées
+     */
+    public void index(String customerCode, String displayName, String customerType, String... names) {
+        List<String> tokens = new ArrayList<>();
+        for (String name : names) {
+            for (String token : tokenize(name)) {
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+            }
+        }
+        indexTokens(customerCode, displayName, customerType, tokens);
+    }
+
+    private synchronized void indexTokens(String customerCode, String displayName, String customerType,
+                                          List<String> tokens) {
+        IndexedCustomer previous = customers.put(customerCode,
+                new IndexedCustomer(customerCode, displayName, customerType, List.copyOf(tokens)));
+
+        if (previous != null) {
+            for (String token : previous.tokens()) {
+                if (!tokens.contains(token)) {
+                    removePosting(token, customerCode);
+                }
+            }
+        }
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> {
+                for (String bigram : bigrams(t)) {
+                    bigramTokens.computeIfAbsent(bigram, g -> ConcurrentHashMap.newKeySet()).add(t);
+                }
+                return ConcurrentHashMap.newKeySet();
+            }).add(customerCode);
+        }
+    }
+
+    public synchronized void remove(String customerCode) {
+        IndexedCustomer previous = customers.remove(customerCode);
+        if (previous != null) {
+            for (String token : previous.tokens()) {
+                removePosting(token, customerCode);
+            }
+        }
+    }
+
+    /**
+     * Recherche paginée : chaque mot de la requête doit correspondre (exact, préfixe ou approché)
+     *
+     * Les postings du mot le plus sélectif sont parcourus du meilleur jeton au moins bon ; chaque candidat
+     * est noté sur tous les mots à partir de ses propres jetons. Seuls les (page + 1) * size meilleurs sont
+     * gardés (tas borné), et le parcours s'arrête dès qu'aucun jeton restant ne peut plus entrer dans la page.
+     */
+    public SearchPage search(String query, int page, int size) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return new SearchPage(0, true, List.of());
+        }
+
+        List<List<TokenMatch>> matchesByToken = new ArrayList<>(queryTokens.size());
+        List<Map<String, Double>> scoresByToken = new ArrayList<>(queryTokens.size());
+        int driver = 0;
+        long driverPostings = Long.MAX_VALUE;
+        for (String queryToken : queryTokens) {
+            List<TokenMatch> matches = matchToken(queryToken);
+            if (matches.isEmpty()) {
+                return new SearchPage(0, true, List.of());
+            }
+            Map<String, Double> scores = new HashMap<>();
+            long postingCount = 0;
+            for (TokenMatch match : matches) {
+                scores.put(match.token(), match.score());
+                Set<String> codes = postings.get(match.token());
+                postingCount += codes == null ? 0 : codes.size();
+            }
+            if (postingCount < driverPostings) {
+                driver = matchesByToken.size();
+                driverPostings = postingCount;
+            }
+            matchesByToken.add(matches);
+            scoresByToken.add(scores);
+        }
+
+        // Meilleur score possible sur les autres mots : borne pour l'arrêt anticipé
+        double otherTokensMax = 0;
+        for (int i = 0; i < matchesByToken.size(); i++) {
+            if (i != driver) {
+                otherTokensMax += matchesByToken.get(i).get(0).score();
+            }
+        }
+
+        int limit = (int) Math.min(Integer.MAX_VALUE, (long) page * size + size);
+        PriorityQueue<Candidate> best = new PriorityQueue<>(Math.min(limit, 1024), RESULT_ORDER.reversed());
+        Map<String, Double> driverScores = scoresByToken.get(driver);
+        int total = 0;
+        boolean totalExact = true;
+
+        for (TokenMatch match : matchesByToken.get(driver)) {
+            if (best.size() == limit && match.score() + otherTokensMax < best.peek().score()) {
+                totalExact = false;
+                break;
+            }
+            Set<String> codes = postings.get(match.token());
+            if (codes == null) {
+                continue;
+            }
+            for (String code : codes) {
+                IndexedCustomer customer = customers.get(code);
+                // Un client est compté une seule fois : dans le premier de ses jetons parcouru
+                if (customer == null || !match.token().equals(bestToken(customer, driverScores))) {
+                    continue;
+                }
+                double score = match.score();
+                for (int i = 0; i < scoresByToken.size() && score > 0; i++) {
+                    if (i != driver) {
+                        double tokenScore = bestScore(customer, scoresByToken.get(i));
+                        score = tokenScore > 0 ? score + tokenScore : 0;
+                    }
+                }
+                if (score > 0) {
+                    total++;
+                    offer(best, new Candidate(customer, score), limit);
+                }
+            }
+        }
+
+        List<Candidate> ranked = new ArrayList<>(best);
+        ranked.sort(RESULT_ORDER);
+        int from = Math.min(page * size, ranked.size());
+        List<Match> results = new ArrayList<>(ranked.size() - from);
+        for (Candidate candidate : ranked.subList(from, ranked.size())) {
+            IndexedCustomer customer = candidate.customer();
+            results.add(new Match(customer.customerCode(), customer.displayName(), customer.customerType(),
+                    Math.round(candidate.score() / queryTokens.size() * 1000) / 1000.0));
+        }
+        return new SearchPage(total, totalExact, results);
+    }
+
+    public int size() {
+        return customers.size();
+    }
+
+    public int tokenCount() {
+        return postings.size();
+    }
+
+    // ========================================
+    // CORRESPONDANCE D'UN MOT
+    // ========================================
+
+    /**
+     * Jetons de l'index correspondant au mot, meilleurs d'abord
+     * Approché seulement si rien ne correspond par préfixe
+     */
+    private List<TokenMatch> matchToken(String queryToken) {
+        List<TokenMatch> matches = new ArrayList<>();
+        for (String token : postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false).keySet()) {
+            matches.add(new TokenMatch(token, token.length() == queryToken.length() ? EXACT_SCORE : PREFIX_SCORE));
+        }
+        if (matches.isEmpty() && queryToken.length() >= MIN_FUZZY_LENGTH) {
+            for (Map.Entry<String, Double> similar : similarTokens(queryToken).entrySet()) {
+                matches.add(new TokenMatch(similar.getKey(), similar.getValue() * FUZZY_WEIGHT));
+            }
+        }
+        matches.sort(TOKEN_MATCH_ORDER);
+        return matches;
+    }
+
+    /**
+     * Meilleur score du client pour un mot (0 si aucun de ses jetons ne correspond)
+     */
+    private static double bestScore(IndexedCustomer customer, Map<String, Double> tokenScores) {
+        double best = 0;
+        for (String token : customer.tokens()) {
+            Double score = tokenScores.get(token);
+            if (score != null && score > best) {
+                best = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Jeton du client parcouru en premier pour ce mot : meilleur score, puis ordre alphabétique
+     */
+    private static String bestToken(IndexedCustomer customer, Map<String, Double> tokenScores) {
+        String best = null;
+        double bestScore = 0;
+        for (String token : customer.tokens()) {
+            Double score = tokenScores.get(token);
+            if (score != null && (score > bestScore || score == bestScore && token.compareTo(best) < 0)) {
+                best = token;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private static void offer(PriorityQueue<Candidate> best, Candidate candidate, int limit) {
+        if (best.size() < limit) {
+            best.add(candidate);
+        } else if (RESULT_ORDER.compare(candidate, best.peek()) < 0) {
+            best.poll();
+            best.add(candidate);
+        }
+    }
+
+    /**
+     * Jetons proches par similarité de bigrammes (coefficient de Dice)
+     */
+    private Map<String, Double> similarTokens(String queryToken) {
+        List<String> queryBigrams = bigrams(queryToken);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String bigram : queryBigrams) {
+            Set<String> tokens = bigramTokens.get(bigram);
+            if (tokens != null) {
+                for (String token : tokens) {
+                    shared.merge(token, 1, Integer::sum);
+                }
+            }
+        }
+
+        Map<String, Double> similar = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            int tokenBigrams = entry.getKey().length() + 1;
+            double dice = 2.0 * entry.getValue() / (queryBigrams.size() + tokenBigrams);
+            if (dice >= FUZZY_THRESHOLD) {
+                similar.put(entry.getKey(), dice);
+            }
+        }
+        return similar;
+    }
+
+    private void removePosting(String token, String customerCode) {
+        Set<String> codes = postings.get(token);
+        if (codes == null) {
+            return;
+        }
+        codes.remove(customerCode);
+        if (codes.isEmpty()) {
+            postings.remove(token);
+            for (String bigram : bigrams(token)) {
+                Set<String> tokens = bigramTokens.get(bigram);
+                if (tokens != null) {
+                    tokens.remove(token);
+                    if (tokens.isEmpty()) {
+                        bigramTokens.remove(bigram);
+                    }
+                }
+            }
+        }
+    }
+
+    // ========================================
+    // NORMALISATION
+    // ========================================
+
+    /**
+     * Majuscules, sans accents, découpé sur tout caractère non alphanumérique
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized.toUpperCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Bigrammes du jeton encadré de marqueurs de début et de fin ("$A", "AB", ..., "Z$")
+     * Plus tolérants que les trigrammes aux inversions de lettres sur des noms courts
+     */
+    private static List<String> bigrams(String token) {
+        String padded = "$" + token + "$";
+        List<String> bigrams = new ArrayList<>(padded.length() - 1);
+        for (int i = 0; i + 2 <= padded.length(); i++) {
+            bigrams.add(padded.substring(i, i + 2));
+        }
+        return bigrams;
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.customer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Tranche de codes clients possédée par une instance Customer
+ *
+ * - hash  : CRC32(code) modulo count == index (répartition uniforme, calculable par tout client)
+ * - range : rangeStart <= code <= rangeEnd, comparaison lexicographique des codes à 8 chiffres
+ * Publiée dans les métadonnées Eureka (partition-*) : la même classe relit celles des autres instances.
+ */
+public final class CustomerPartition {
+
+    public enum Strategy { HASH, RANGE }
+
+    // Instance unique : possède tous les codes
+    public static final CustomerPartition ALL = new CustomerPartition(Strategy.HASH, 1, 0, null, null);
+
+    static final String METADATA_STRATEGY = "partition-strategy";
+    static final String METADATA_COUNT = "partition-count";
+    static final String METADATA_INDEX = "partition-index";
+    static final String METADATA_RANGE_START = "partition-range-start";
+    static final String METADATA_RANGE_END = "partition-range-end";
+
+    private final Strategy strategy;
+    private final int count;
+    private final int index;
+    private final String rangeStart;
+    private final String rangeEnd;
+
+    public CustomerPartition(Strategy strategy, int count, int index, String rangeStart, String rangeEnd) {
+        if (strategy == Strategy.HASH && (count < 1 || index < 0 || index >= count)) {
+            throw new IllegalArgumentException("Partition hash invalide: index " + index + " sur " + count);
+        }
+        if (strategy == Strategy.RANGE && (isBlank(rangeStart) || isBlank(rangeEnd) || rangeStart.compareTo(rangeEnd) > 0)) {
+            throw new IllegalArgumentException("Partition range invalide: [" + rangeStart + ", " + rangeEnd + "]");
+        }
+        this.strategy = strategy;
+        this.count = count;
+        this.index = index;
+        this.rangeStart = strategy == Strategy.RANGE ? rangeStart : null;
+        this.rangeEnd = strategy == Strategy.RANGE ? rangeEnd : null;
+    }
+
+    /**
+     * Partition décrite par les métadonnées Eureka d'une instance - null si elle n'en publie pas
+     */
+    static CustomerPartition fromMetadata(Map<String, String> metadata) {
+        String strategy = metadata.get(METADATA_STRATEGY);
+        if (strategy == null) {
+            return null;
+        }
+        try {
+            return new CustomerPartition(
+                    Strategy.valueOf(strategy.toUpperCase()),
+                    Integer.parseInt(metadata.getOrDefault(METADATA_COUNT, "1")),
+                    Integer.parseInt(metadata.getOrDefault(METADATA_INDEX, "0")),
+                    metadata.get(METADATA_RANGE_START),
+                    metadata.get(METADATA_RANGE_END));
+        } catch (IllegalArgumentException e) {
+            System.err.println("⚠️ Métadonnées de partition ignorées " + metadata + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public boolean owns(String customerCode) {
+        if (customerCode == null) {
+            return false;
+        }
+        if (strategy == Strategy.RANGE) {
+            return customerCode.compareTo(rangeStart) >= 0 && customerCode.compareTo(rangeEnd) <= 0;
+        }
+        return count == 1 || hashIndex(customerCode, count) == index;
+    }
+
+    public boolean isPartial() {
+        return strategy == Strategy.RANGE || count > 1;
+    }
+
+    /**
+     * Partition hash d'un code pour count partitions
+     */
+    public static int hashIndex(String customerCode, int count) {
+        CRC32 crc = new CRC32();
+        crc.update(customerCode.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % count);
+    }
+
+    /**
+     * Métadonnées publiées dans Eureka (et affichées sur /status)
+     */
+    public Map<String, String> toMetadata() {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put(METADATA_STRATEGY, strategy.name().toLowerCase());
+        if (strategy == Strategy.RANGE) {
+            metadata.put(METADATA_RANGE_START, rangeStart);
+            metadata.put(METADATA_RANGE_END, rangeEnd);
+        } else {
+            metadata.put(METADATA_COUNT, Integer.toString(count));
+            metadata.put(METADATA_INDEX, Integer.toString(index));
+        }
+        return metadata;
+    }
+
+    @Override
+    public String toString() {
+        return strategy == Strategy.RANGE
+                ? "range [" + rangeStart + ", " + rangeEnd + "]"
+                : "hash " + index + "/" + count;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.customer;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Partition de codes clients de cette instance (banking.customer.partition.*)
+ *
+ * Par défaut une seule partition : l'instance possède tous les clients.
+ * La partition est ajoutée aux métadonnées Eureka pour que les autres instances et la Gateway sachent à qui s'adresser.
+ */
+@Configuration
+public class CustomerPartitionConfig {
+
+    @Bean
+    public CustomerPartition customerPartition(@Value("${banking.customer.partition.strategy:hash}") String strategy,
+                                               @Value("${banking.customer.partition.count:1}") int count,
+                                               @Value("${banking.customer.partition.index:0}") int index,
+                                               @Value("${banking.customer.partition.range-start:}") String rangeStart,
+                                               @Value("${banking.customer.partition.range-end:}") String rangeEnd,
+                                               ObjectProvider<ApplicationInfoManager> eurekaInfoManager) {
+        CustomerPartition partition = new CustomerPartition(
+                CustomerPartition.Strategy.valueOf(strategy.trim().toUpperCase()), count, index, rangeStart, rangeEnd);
+
+        eurekaInfoManager.ifAvailable(infoManager -> infoManager.registerAppMetadata(partition.toMetadata()));
+
+        System.out.println("🧩 Partition clients: " + partition
+                + (partition.isPartial() ? "" : " (tous les clients)"));
+        return partition;
+    }
+}
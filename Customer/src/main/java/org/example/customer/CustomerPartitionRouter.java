@@ -0,0 +1,141 @@
+package org.example.customer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aiguillage des requêtes portant sur un code client hors de la partition locale
+ *
+ * - GET détail : relayé à l'instance propriétaire trouvée dans Eureka (si banking.customer.partition.forward=true)
+ * - sinon 421 Misdirected Request, avec la partition et l'instance propriétaires quand elles sont connues
+ * Une requête déjà relayée n'est jamais relayée une seconde fois (pas de boucle entre instances mal configurées).
+ */
+@Component
+public class CustomerPartitionRouter {
+
+    static final int MISDIRECTED_REQUEST = 421;
+    static final String FORWARDED_HEADER = "X-Customer-Partition-Forwarded";
+
+    // En-têtes relayés dans chaque sens
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of(HttpHeaders.ACCEPT, HttpHeaders.IF_NONE_MATCH);
+    private static final List<String> FORWARDED_RESPONSE_HEADERS =
+            List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG, HttpHeaders.VARY);
+
+    @Autowired
+    private CustomerPartition partition;
+
+    @Autowired(required = false)
+    private DiscoveryClient discoveryClient;
+
+    @Value("${spring.application.name}")
+    private String serviceId;
+
+    @Value("${banking.customer.partition.forward:true}")
+    private boolean forward;
+
+    @Value("${banking.customer.partition.forward-timeout-ms:5000}")
+    private long forwardTimeoutMs;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+
+    public boolean owns(String customerCode) {
+        return partition.owns(customerCode);
+    }
+
+    public CustomerPartition getPartition() {
+        return partition;
+    }
+
+    /**
+     * GET d'un client hors partition : relais vers l'instance propriétaire, ou 421
+     */
+    public ResponseEntity<?> forwardGet(String customerCode, String pathAndQuery, WebRequest webRequest) {
+        ServiceInstance owner = forward && webRequest.getHeader(FORWARDED_HEADER) == null ? findOwner(customerCode) : null;
+        if (owner == null) {
+            return misdirected(customerCode);
+        }
+
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(owner.getUri().resolve(pathAndQuery))
+                    .timeout(Duration.ofMillis(forwardTimeoutMs))
+                    .header(FORWARDED_HEADER, partition.toString())
+                    .GET();
+            for (String header : FORWARDED_REQUEST_HEADERS) {
+                String value = webRequest.getHeader(header);
+                if (value != null) {
+                    request.header(header, value);
+                }
+            }
+
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            System.out.println("🧩 Client " + customerCode + " relayé vers " + owner.getUri()
+                    + " (" + response.statusCode() + ")");
+
+            ResponseEntity.BodyBuilder relayed = ResponseEntity.status(response.statusCode());
+            for (String header : FORWARDED_RESPONSE_HEADERS) {
+                response.headers().allValues(header).forEach(value -> relayed.header(header, value));
+            }
+            return relayed.body(response.body());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return misdirected(customerCode);
+        } catch (Exception e) {
+            System.err.println("❌ Relais vers " + owner.getUri() + " impossible: " + e.getMessage());
+            return misdirected(customerCode);
+        }
+    }
+
+    /**
+     * 421 : le client appartient à une autre partition
+     */
+    public ResponseEntity<Map<String, Object>> misdirected(String customerCode) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "Client hors de la partition " + partition + ": " + customerCode);
+        body.put("status", "error");
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("customerCode", customerCode);
+        body.put("partition", partition.toMetadata());
+        ServiceInstance owner = findOwner(customerCode);
+        if (owner != null) {
+            body.put("ownerInstance", owner.getUri().toString());
+        }
+        return ResponseEntity.status(MISDIRECTED_REQUEST).body(body);
+    }
+
+    /**
+     * Instance Customer enregistrée dans Eureka dont la partition contient le code - null si aucune
+     */
+    ServiceInstance findOwner(String customerCode) {
+        if (discoveryClient == null) {
+            return null;
+        }
+        try {
+            for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+                CustomerPartition instancePartition = CustomerPartition.fromMetadata(instance.getMetadata());
+                if (instancePartition != null && instancePartition.owns(customerCode)) {
+                    return instance;
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Registre Eureka indisponible: " + e.getMessage());
+        }
+        return null;
+    }
+}
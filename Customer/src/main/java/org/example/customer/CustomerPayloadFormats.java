@@ -0,0 +1,152 @@
+package org.example.customer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitorWrapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schemagen.ProtobufSchemaGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.example.customer.rest.CustomerDetailResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.io.IOException;
+import java.text.DateFormat;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formats de sortie du détail client, choisis selon l'en-tête Accept
+ *
+ * JSON reste le format par défaut ; CBOR, Smile et Protobuf servent aux échanges entre services.
+ * Tous les formats reprennent la configuration de l'ObjectMapper Spring (dates, inclusion des nulls...).
+ * Le schéma Protobuf est généré au démarrage depuis CustomerDetailResponse : il suit le modèle REST sans étape de build.
+ */
+@Component
+public class CustomerPayloadFormats {
+
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        CBOR(MediaType.parseMediaType("application/cbor")),
+        SMILE(MediaType.parseMediaType("application/x-jackson-smile")),
+        PROTOBUF(MediaType.parseMediaType("application/x-protobuf"));
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+    }
+
+    // Autre type souvent envoyé pour Protobuf
+    private static final MediaType PROTOBUF_ALIAS = MediaType.parseMediaType("application/protobuf");
+
+    private final Map<Format, ObjectWriter> writers = new EnumMap<>(Format.class);
+    private final ProtobufSchema protobufSchema;
+
+    public CustomerPayloadFormats(ObjectMapper objectMapper) {
+        // Dates en texte, même format qu'en JSON (le sérialiseur standard fait échouer le générateur de schéma)
+        ObjectMapper protobufMapper = objectMapper.copyWith(new ProtobufFactory())
+                .registerModule(new SimpleModule().addSerializer(XMLGregorianCalendar.class, new CalendarAsTextSerializer()));
+        try {
+            ProtobufSchemaGenerator generator = new ProtobufSchemaGenerator();
+            protobufMapper.acceptJsonFormatVisitor(CustomerDetailResponse.class, generator);
+            protobufSchema = generator.getGeneratedSchema();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Schéma Protobuf du détail client non générable: " + e.getMessage(), e);
+        }
+
+        writers.put(Format.JSON, objectMapper.writerFor(CustomerDetailResponse.class));
+        writers.put(Format.CBOR, objectMapper.copyWith(new CBORFactory()).writerFor(CustomerDetailResponse.class));
+        writers.put(Format.SMILE, objectMapper.copyWith(new SmileFactory()).writerFor(CustomerDetailResponse.class));
+        writers.put(Format.PROTOBUF, protobufMapper.writerFor(CustomerDetailResponse.class).with(protobufSchema));
+    }
+
+    /**
+     * Premier format accepté par ordre de préférence du client ; JSON si aucun ne correspond
+     */
+    public Format negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Format.JSON;
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (IllegalArgumentException e) {
+            return Format.JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(acceptedTypes);
+
+        for (MediaType accepted : acceptedTypes) {
+            if (accepted.isWildcardType() || accepted.getQualityValue() == 0) {
+                continue;
+            }
+            for (Format format : Format.values()) {
+                if (accepted.isCompatibleWith(format.mediaType)) {
+                    return format;
+                }
+            }
+            if (accepted.isCompatibleWith(PROTOBUF_ALIAS)) {
+                return Format.PROTOBUF;
+            }
+        }
+        return Format.JSON;
+    }
+
+    public byte[] write(Format format, CustomerDetailResponse response) throws JsonProcessingException {
+        return writers.get(format).writeValueAsBytes(response);
+    }
+
+    /**
+     * XMLGregorianCalendar écrit avec le format de date de l'ObjectMapper, déclaré "string" dans le schéma
+     */
+    private static final class CalendarAsTextSerializer extends StdSerializer<XMLGregorianCalendar> {
+
+        // DateFormat n'est pas thread-safe : une copie par thread
+        private final ThreadLocal<DateFormat> dateFormats = new ThreadLocal<>();
+
+        CalendarAsTextSerializer() {
+            super(XMLGregorianCalendar.class);
+        }
+
+        @Override
+        public void serialize(XMLGregorianCalendar value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            // Toujours du texte (le schéma déclare "string"), même si l'ObjectMapper écrit les dates en nombre
+            DateFormat dateFormat = dateFormats.get();
+            if (dateFormat == null) {
+                dateFormat = (DateFormat) provider.getConfig().getDateFormat().clone();
+                dateFormats.set(dateFormat);
+            }
+            generator.writeString(dateFormat.format(value.toGregorianCalendar().getTime()));
+        }
+
+        @Override
+        public void acceptJsonFormatVisitor(JsonFormatVisitorWrapper visitor, JavaType typeHint) throws JsonMappingException {
+            visitStringFormat(visitor, typeHint);
+        }
+    }
+
+    /**
+     * Schéma .proto du détail client, pour générer les classes des consommateurs
+     */
+    public String getProtobufSchema() {
+        return protobufSchema.getSource().toString();
+    }
+}
@@ -0,0 +1,253 @@
+package org.example.customer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodage compact d'un client en un seul tableau d'octets
+ *
+ * - valeurs répétitives (noms, nationalité, pays, ville, agence...) : code entier d'un dictionnaire partagé
+ * - date de naissance : nombre de jours depuis 1970 (texte conservé tel quel si ce n'est pas une date ISO)
+ * - nom d'affichage : omis s'il vaut "NOM PRENOM"
+ * - autres champs : UTF-8, préfixés par leur longueur
+ * Entiers en varint : la plupart des champs tiennent sur 1 ou 2 octets.
+ * Le décodage produit un BankingCustomerData neuf, à la demande.
+ */
+final class CustomerRecordCodec {
+
+    private enum Kind { TEXT, DICTIONARY, DATE, DISPLAY_NAME }
+
+    // Encodage de chaque champ, dans l'ordre de BankingCustomerData.toFields()
+    private static final Kind[] FIELD_KINDS = {
+            Kind.TEXT,          // customerCode
+            Kind.DICTIONARY,    // lastname
+            Kind.DICTIONARY,    // firstname
+            Kind.DICTIONARY,    // customerType
+            Kind.DISPLAY_NAME,  // displayName
+            Kind.DICTIONARY,    // sex
+            Kind.DATE,          // birthDate
+            Kind.DICTIONARY,    // nationality
+            Kind.TEXT,          // phoneNumber
+            Kind.DICTIONARY,    // countryOfResidence
+            Kind.DICTIONARY,    // addressLine1
+            Kind.TEXT,          // addressLine2
+            Kind.DICTIONARY,    // city
+            Kind.DICTIONARY,    // postalCode
+            Kind.DICTIONARY     // branchCode
+    };
+
+    private static final int LASTNAME = 1;
+    private static final int FIRSTNAME = 2;
+
+    // Marqueurs : 0 = null, 1 = forme spéciale (nom dérivé, date non ISO), valeur + 2 sinon
+    private static final int NULL = 0;
+    private static final int SPECIAL = 1;
+
+    static {
+        if (FIELD_KINDS.length != BankingCustomerData.FIELD_COUNT) {
+            throw new IllegalStateException("FIELD_KINDS ne correspond pas à BankingCustomerData.FIELD_COUNT");
+        }
+    }
+
+    private final ConcurrentHashMap<String, Integer> dictionaryIds = new ConcurrentHashMap<>();
+    private volatile String[] dictionary = new String[256];
+    private int dictionarySize; // protégé par this
+
+    byte[] encode(BankingCustomerData customer) {
+        String[] fields = customer.toFields();
+        Output out = new Output();
+        for (int i = 0; i < fields.length; i++) {
+            String value = fields[i];
+            switch (FIELD_KINDS[i]) {
+                case TEXT -> out.text(value);
+                case DICTIONARY -> out.varint(value == null ? NULL : intern(value) + 1);
+                case DATE -> {
+                    Long epochDay = toEpochDay(value);
+                    if (epochDay == null) {
+                        out.varint(value == null ? NULL : SPECIAL);
+                        if (value != null) {
+                            out.text(value);
+                        }
+                    } else {
+                        out.varint((epochDay << 1 ^ epochDay >> 63) + 2); // zigzag : dates avant 1970
+                    }
+                }
+                case DISPLAY_NAME -> {
+                    if (value != null && value.equals(displayName(fields[LASTNAME], fields[FIRSTNAME]))) {
+                        out.varint(SPECIAL);
+                    } else {
+                        out.text(value);
+                    }
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    BankingCustomerData decode(byte[] record) {
+        String[] fields = new String[FIELD_KINDS.length];
+        String[] values = dictionary;
+        Input in = new Input(record);
+        for (int i = 0; i < fields.length; i++) {
+            switch (FIELD_KINDS[i]) {
+                case TEXT -> fields[i] = in.text();
+                case DICTIONARY -> {
+                    long id = in.varint();
+                    fields[i] = id == NULL ? null : values[(int) id - 1];
+                }
+                case DATE -> {
+                    long marker = in.varint();
+                    if (marker == SPECIAL) {
+                        fields[i] = in.text();
+                    } else if (marker != NULL) {
+                        long zigzag = marker - 2;
+                        fields[i] = LocalDate.ofEpochDay(zigzag >>> 1 ^ -(zigzag & 1)).toString();
+                    }
+                }
+                case DISPLAY_NAME -> fields[i] = in.peekSpecial()
+                        ? displayName(fields[LASTNAME], fields[FIRSTNAME])
+                        : in.text();
+            }
+        }
+        return BankingCustomerData.fromFields(fields);
+    }
+
+    /**
+     * Nombre de valeurs distinctes du dictionnaire
+     */
+    int dictionarySize() {
+        return dictionaryIds.size();
+    }
+
+    private int intern(String value) {
+        Integer id = dictionaryIds.get(value);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = dictionaryIds.get(value);
+            if (id == null) {
+                // Valeur écrite avant la publication de son code : tout lecteur du code la voit
+                String[] values = dictionary;
+                if (dictionarySize == values.length) {
+                    values = Arrays.copyOf(values, values.length * 2);
+                }
+                values[dictionarySize] = value;
+                dictionary = values;
+                id = dictionarySize++;
+                dictionaryIds.put(value, id);
+            }
+            return id;
+        }
+    }
+
+    private static String displayName(String lastname, String firstname) {
+        if (lastname == null) {
+            return null;
+        }
+        return firstname == null || firstname.isEmpty() ? lastname : lastname + " " + firstname;
+    }
+
+    /**
+     * Date ISO AAAA-MM-JJ restituée à l'identique, null sinon
+     */
+    private static Long toEpochDay(String value) {
+        if (value == null || value.length() != 10) {
+            return null;
+        }
+        try {
+            LocalDate date = LocalDate.parse(value);
+            return date.toString().equals(value) ? date.toEpochDay() : null;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // ========================================
+    // VARINTS ET TEXTES
+    // ========================================
+
+    private static final class Output {
+
+        private byte[] bytes = new byte[64];
+        private int size;
+
+        void varint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void text(String value) {
+            if (value == null) {
+                varint(NULL);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length + 2L);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] bytes;
+        private int position;
+
+        Input(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long varint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        /**
+         * Consomme le marqueur SPECIAL s'il est présent (tient toujours sur un octet)
+         */
+        boolean peekSpecial() {
+            if (bytes[position] == SPECIAL) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        String text() {
+            long marker = varint();
+            if (marker == NULL) {
+                return null;
+            }
+            int length = (int) (marker - 2);
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
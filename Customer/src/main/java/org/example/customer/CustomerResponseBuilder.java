@@ -0,0 +1,450 @@
+package org.example.customer;
+
+import org.example.customer.client.*;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.GregorianCalendar;
+import java.util.Set;
+
+/**
+ * Construction des réponses SOAP client à partir des données bancaires
+ * Partagé par les différentes implémentations de GetCustomerDetailService
+ */
+final class CustomerResponseBuilder {
+
+    private static final DatatypeFactory DATATYPE_FACTORY;
+
+    static {
+        try {
+            DATATYPE_FACTORY = DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException e) {
+            throw new IllegalStateException("DatatypeFactory indisponible", e);
+        }
+    }
+
+    // ========================================
+    // CONSTRUCTION DES RÉPONSES
+    // ========================================
+
+    GetCustomerDetailResponse buildCustomerResponse(BankingCustomerData data,
+                                                            Set<CustomerSection> sections) throws Exception {
+        GetCustomerDetailResponse response = new GetCustomerDetailResponse();
+
+        response.setCustomerCode(data.customerCode);
+        response.setCustomerType(data.customerType);
+
+        if (sections.contains(CustomerSection.IDENTITY)) {
+            response.setLastname(data.lastname);
+            response.setNameToReturn(data.displayName);
+
+            // Langue
+            Language language = new Language();
+            language.setCode("001");
+            language.setDesignation("Francais");
+            response.setLanguage(language);
+
+            // Titre
+            TitleCode titleCode = new TitleCode();
+            switch (data.sex) {
+                case "M":
+                    titleCode.setCode("01");
+                    titleCode.setDesignation("MONSIEUR");
+                    break;
+                case "F":
+                    titleCode.setCode("02");
+                    titleCode.setDesignation("MADAME");
+                    break;
+                default:
+                    titleCode.setCode("03");
+                    titleCode.setDesignation("SOCIETE");
+            }
+            response.setTitleCode(titleCode);
+        }
+
+        // Situation
+        if (sections.contains(CustomerSection.SITUATION)) {
+            CustomerSituation situation = new CustomerSituation();
+            Nationality nationality = new Nationality();
+            nationality.setCode("686");
+            nationality.setDesignation(data.nationality);
+            situation.setNationalityCode(nationality);
+
+            Country country = new Country();
+            country.setCode("686");
+            country.setDesignation(data.countryOfResidence);
+            situation.setCountryOfResidence(country);
+            response.setSituation(situation);
+        }
+
+        // FATCA
+        if (sections.contains(CustomerSection.FATCA)) {
+            CustomerFatca fatca = new CustomerFatca();
+            FatcaStatus fatcaStatus = new FatcaStatus();
+            fatcaStatus.setFatcaStatusCode("");
+            fatca.setFatcaStatus(fatcaStatus);
+            CrsStatus crsStatus = new CrsStatus();
+            crsStatus.setCrsStatusCode("");
+            fatca.setCrsStatus(crsStatus);
+            response.setFatca(fatca);
+        }
+
+        // Informations spécifiques (complètes en KYC, prénom / raison sociale seuls en identité)
+        if (sections.contains(CustomerSection.KYC)) {
+            CustomerSpecInfo specInfo = new CustomerSpecInfo();
+            if ("1".equals(data.customerType)) {
+                specInfo.setIndividualSpecInfo(buildIndividualInfo(data));
+            } else {
+                specInfo.setCorporateSpecInfo(buildCorporateInfo(data));
+            }
+            response.setSpecificInformation(specInfo);
+        } else if (sections.contains(CustomerSection.IDENTITY)) {
+            response.setSpecificInformation(buildIdentitySpecInfo(data));
+        }
+
+        if (sections.contains(CustomerSection.GENERAL)) {
+            response.setGeneralAttributes(buildGeneralAttributes(data));
+        }
+        if (sections.contains(CustomerSection.REPORTING)) {
+            response.setReportingAttributes(buildReportingAttributes());
+            response.setPaymentMethods(buildPaymentMethods());
+            response.setAdditionnalInformation(buildAdditionalInfo());
+        }
+        if (sections.contains(CustomerSection.ADDRESS)) {
+            response.setAddressesDetail(buildAddressDetail(data));
+        }
+        if (sections.contains(CustomerSection.PHONES)) {
+            response.setPhoneNumbers(buildPhoneNumbers(data.customerCode, data.displayName, data.phoneNumber));
+        }
+        if (sections.contains(CustomerSection.PROFILE)) {
+            response.setActiveProfile(buildActiveProfile());
+        }
+
+        return response;
+    }
+
+    private CustomerSpecInfo buildIdentitySpecInfo(BankingCustomerData data) {
+        CustomerSpecInfo specInfo = new CustomerSpecInfo();
+        if ("1".equals(data.customerType)) {
+            specInfo.setIndividualSpecInfo(buildIdentityIndividualInfo(data.firstname));
+        } else {
+            specInfo.setCorporateSpecInfo(buildIdentityCorporateInfo(data.lastname));
+        }
+        return specInfo;
+    }
+
+    private CustomerIndividualSpecInfo buildIdentityIndividualInfo(String firstname) {
+        CustomerIndividualSpecInfo individualInfo = new CustomerIndividualSpecInfo();
+        CustomerIndividualGeneralInfo generalInfo = new CustomerIndividualGeneralInfo();
+        generalInfo.setFirstname(firstname);
+        individualInfo.setIndividualGeneralInfo(generalInfo);
+        return individualInfo;
+    }
+
+    private CustomerCorporateSpecInfo buildIdentityCorporateInfo(String tradeName) {
+        CustomerCorporateSpecInfo corporateInfo = new CustomerCorporateSpecInfo();
+        CustomerCorporateGeneralInfo generalInfo = new CustomerCorporateGeneralInfo();
+        generalInfo.setTradeNameToDeclare(tradeName);
+        corporateInfo.setCorporateGeneralInfo(generalInfo);
+        return corporateInfo;
+    }
+
+    private CustomerIndividualSpecInfo buildIndividualInfo(BankingCustomerData data) throws Exception {
+        CustomerIndividualSpecInfo individualInfo = new CustomerIndividualSpecInfo();
+
+        CustomerIndividualGeneralInfo generalInfo = new CustomerIndividualGeneralInfo();
+        generalInfo.setFirstname(data.firstname);
+
+        FamilyStatus familyStatus = new FamilyStatus();
+        familyStatus.setCode("M");
+        familyStatus.setDesignation("MARIE(E)");
+        generalInfo.setFamilyStatusCode(familyStatus);
+
+        individualInfo.setIndividualGeneralInfo(generalInfo);
+
+        CustomerBirth birth = new CustomerBirth();
+        birth.setHolderSex(data.sex);
+        birth.setBirthDate(parseDate(data.birthDate));
+        birth.setBirthCity("MBADJI NDIOUFENE");
+        birth.setBirthCounty("001");
+
+        Country birthCountry = new Country();
+        birthCountry.setCode("686");
+        birthCountry.setDesignation("SENEGAL");
+        birth.setBirthCountry(birthCountry);
+
+        individualInfo.setBirth(birth);
+
+        CustomerIdPaper idPaper = new CustomerIdPaper();
+        IdPaperType idType = new IdPaperType();
+        idType.setCode("00001");
+        idType.setDesignation("CARTE NATIONALE D'IDENTITE");
+        idPaper.setType(idType);
+        idPaper.setIdPaperNumber("1210200101280");
+        idPaper.setIdPaperDeliveryDate(parseDate("2017-02-25"));
+        idPaper.setOrganisationWhichDeliver("MINT");
+        idPaper.setIdPaperValidityDate(parseDate("2027-02-24"));
+
+        individualInfo.setIdPaper(idPaper);
+
+        CustomerTerritoriality territoriality = new CustomerTerritoriality();
+        TerritorialityCode territorialityCode = new TerritorialityCode();
+        territorialityCode.setCode("0");
+        territorialityCode.setDesignation("SENEGAL");
+        territoriality.setTerritorialityCode(territorialityCode);
+        individualInfo.setTerritoriality(territoriality);
+
+        CustomerFamily family = new CustomerFamily();
+        family.setNumberOfChildren(0);
+        individualInfo.setFamily(family);
+
+        CustomerOtherAttributes otherAttributes = new CustomerOtherAttributes();
+        otherAttributes.setHolderMotherName(".............");
+        individualInfo.setOtherAttributes(otherAttributes);
+
+        return individualInfo;
+    }
+
+    private CustomerCorporateSpecInfo buildCorporateInfo(BankingCustomerData data) throws Exception {
+        CustomerCorporateSpecInfo corporateInfo = new CustomerCorporateSpecInfo();
+
+        CustomerCorporateGeneralInfo generalInfo = new CustomerCorporateGeneralInfo();
+        generalInfo.setTradeNameToDeclare(data.lastname);
+        generalInfo.setCompanyCreationDate(parseDate(data.birthDate));
+
+        LegalForm legalForm = new LegalForm();
+        legalForm.setCode("SA");
+        legalForm.setDesignation("SOCIETE ANONYME");
+        generalInfo.setLegalFormCode(legalForm);
+
+        corporateInfo.setCorporateGeneralInfo(generalInfo);
+        return corporateInfo;
+    }
+
+    private CustomerGeneralAttributes buildGeneralAttributes(BankingCustomerData data) {
+        CustomerGeneralAttributes attributes = new CustomerGeneralAttributes();
+        attributes.setBranchCode(buildBranch(data.branchCode));
+
+        CustomerOfficer officer = new CustomerOfficer();
+        officer.setCode("002");
+        officer.setName("FAYE MARIANE");
+        attributes.setCustomerOfficer(officer);
+
+        attributes.setTaxableCustomer(true);
+        return attributes;
+    }
+
+    private CustomerReportingAttributes buildReportingAttributes() {
+        CustomerReportingAttributes reporting = new CustomerReportingAttributes();
+
+        DeclaredHome home = new DeclaredHome();
+        home.setCode("007");
+        home.setDesignation("RESIDENTS UMOA");
+        reporting.setDeclaredHome(home);
+
+        CustomerActivityField activity = new CustomerActivityField();
+        activity.setCode("60115");
+        activity.setDesignation("Commerce, restaurant, hotel");
+        reporting.setActivityFieldCode(activity);
+
+        reporting.setGradingAgreement("N");
+        reporting.setGradingAgreementAmount(new BigDecimal("0.0000"));
+        reporting.setSecurityIssuer("N");
+        reporting.setInternationalOperationsIndicator("N");
+
+        CustomerCreditInfoCentre creditInfo = new CustomerCreditInfoCentre();
+        reporting.setCreditInfoCentre(creditInfo);
+
+        return reporting;
+    }
+
+    private CustomerPaymentMethods buildPaymentMethods() {
+        CustomerPaymentMethods payment = new CustomerPaymentMethods();
+        payment.setChequeBookFacilitySuspension("N");
+        payment.setWithdrawalOfCreditCard("N");
+        return payment;
+    }
+
+    private CustomerAdditionalInformation buildAdditionalInfo() throws Exception {
+        CustomerAdditionalInformation additional = new CustomerAdditionalInformation();
+        additional.setDeletionCode("N");
+        additional.setUserWhoCreated("REPRISE");
+        additional.setCreationDate(parseDate("2019-02-02"));
+        additional.setModificationSheetNumber(new BigDecimal("0"));
+        additional.setRealTimeTransferCode("N");
+        return additional;
+    }
+
+    private GetCustomerAddressDetailResponse buildAddressDetail(BankingCustomerData data) {
+        GetCustomerAddressDetailResponse addressResponse = new GetCustomerAddressDetailResponse();
+
+        CustomerAddressDetail address = new CustomerAddressDetail();
+
+        CustomerAddressDetailIdentifier identifier = new CustomerAddressDetailIdentifier();
+        identifier.setCustomerCode(data.customerCode);
+
+        AddressType addressType = new AddressType();
+        addressType.setCode("D");
+        addressType.setDesignation("Adresse declarative client");
+        identifier.setAddressType(addressType);
+        address.setIdentifier(identifier);
+
+        Language language = new Language();
+        language.setCode("001");
+        language.setDesignation("Francais");
+        address.setLanguage(language);
+
+        AddressFormat format = new AddressFormat();
+        format.setCode("GE");
+        format.setDesignation("Geographique");
+        address.setAddressFormat(format);
+
+        address.setAddressLine1(data.addressLine1);
+        address.setAddressLine2(data.addressLine2);
+        address.setCity(data.city);
+        address.setPostalCode(data.postalCode);
+        address.setPoBox("0000");
+
+        Country country = new Country();
+        country.setCode("686");
+        country.setDesignation("SENEGAL");
+        address.setCountryCode(country);
+
+        address.setCounterCode(buildBranch(data.branchCode));
+
+        address.setNumberOfReturnMailsForWrongAddress(0);
+        address.setCounty("Grand Dakar");
+        address.setRegion("DAKAR");
+
+        addressResponse.getCustomerAddressDetail().add(address);
+        return addressResponse;
+    }
+
+    private Branch buildBranch(String branchCode) {
+        BankingBranch bankingBranch = BankingBranch.fromCode(branchCode);
+        Branch branch = new Branch();
+        branch.setCode(bankingBranch.getCode());
+        branch.setDesignation(bankingBranch.getDesignation());
+        return branch;
+    }
+
+    private GetCustomerPhoneNumberListResponse buildPhoneNumbers(String customerCode, String displayName, String phoneNumber) {
+        GetCustomerPhoneNumberListResponse phoneResponse = new GetCustomerPhoneNumberListResponse();
+
+        CustomerPhoneNumber phone = new CustomerPhoneNumber();
+
+        RestrictedCustomer customer = new RestrictedCustomer();
+        customer.setCustomerNumber(customerCode);
+        customer.setDisplayedName(displayName);
+        phone.setCustomer(customer);
+
+        PhoneType phoneType = new PhoneType();
+        phoneType.setCode("001");
+        phoneType.setDesignation("TELEPHONE MOBILE 1");
+        phone.setPhoneType(phoneType);
+
+        phone.setPhoneNumber(phoneNumber);
+
+        phoneResponse.getCustomerPhoneNumber().add(phone);
+        return phoneResponse;
+    }
+
+    private GetCustomerActiveProfileResponse buildActiveProfile() {
+        GetCustomerActiveProfileResponse profileResponse = new GetCustomerActiveProfileResponse();
+
+        CustomerProfile profile = new CustomerProfile();
+        profile.setCode("101");
+        profile.setDesignation("PART A REV INDETERMINE");
+
+        profileResponse.setActiveProfile(profile);
+        return profileResponse;
+    }
+
+    GetCustomerDetailResponse buildDefaultCustomer(String customerCode) throws Exception {
+        GetCustomerDetailResponse defaultCustomer = new GetCustomerDetailResponse();
+
+        defaultCustomer.setCustomerCode(customerCode);
+        defaultCustomer.setCustomerType("1");
+        defaultCustomer.setLastname("CLIENT_INCONNU");
+        defaultCustomer.setNameToReturn("CLIENT INCONNU " + customerCode);
+
+        Language language = new Language();
+        language.setCode("001");
+        language.setDesignation("Francais");
+        defaultCustomer.setLanguage(language);
+
+        return defaultCustomer;
+    }
+
+    // ========================================
+    // MÉTHODES UTILITAIRES
+    // ========================================
+
+    ResponseHeader createResponseHeader(String requestId, String responseId) throws Exception {
+        ResponseHeader header = new ResponseHeader();
+        header.setRequestId(requestId);
+        header.setResponseId(responseId);
+        header.setTimestamp(createXMLTimestamp(LocalDateTime.now()));
+        header.setServiceVersion("V1.0");
+
+        Language language = new Language();
+        language.setCode("001");
+        language.setDesignation("Francais");
+        header.setLanguage(language);
+
+        return header;
+    }
+
+    ResponseStatus createSuccessStatus() {
+        ResponseStatus status = new ResponseStatus();
+        status.setStatusCode("0");
+        return status;
+    }
+
+    GetCustomerDetailResponseFlow buildErrorResponse(String requestId, String responseId, String errorMessage) {
+        try {
+            GetCustomerDetailResponseFlow errorResponse = new GetCustomerDetailResponseFlow();
+
+            ResponseHeader header = createResponseHeader(requestId, responseId);
+            errorResponse.setResponseHeader(header);
+
+            ResponseStatus status = new ResponseStatus();
+            status.setStatusCode("-1");
+
+            ResponseStatusMessages messages = new ResponseStatusMessages();
+            ResponseStatusMessage message = new ResponseStatusMessage();
+            message.setNature(ResponseMessageNature.ERROR);
+            message.setCode("ERR001");
+            message.getLine().add(errorMessage);
+            messages.getMessage().add(message);
+            status.setMessages(messages);
+
+            errorResponse.setResponseStatus(status);
+
+            return errorResponse;
+
+        } catch (Exception e) {
+            System.err.println("Erreur création réponse d'erreur: " + e.getMessage());
+            return new GetCustomerDetailResponseFlow();
+        }
+    }
+
+    XMLGregorianCalendar createXMLTimestamp(LocalDateTime dateTime) throws Exception {
+        GregorianCalendar gcal = GregorianCalendar.from(dateTime.atZone(ZoneId.systemDefault()));
+        return DATATYPE_FACTORY.newXMLGregorianCalendar(gcal);
+    }
+
+    private XMLGregorianCalendar parseDate(String dateStr) throws Exception {
+        String[] parts = dateStr.split("-");
+        int year = Integer.parseInt(parts[0]);
+        int month = Integer.parseInt(parts[1]);
+        int day = Integer.parseInt(parts[2]);
+
+        LocalDateTime dateTime = LocalDateTime.of(year, month, day, 0, 0);
+        return createXMLTimestamp(dateTime);
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.customer;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Sections du détail client sélectionnables via ?fields=identity,address,phones,...
+ * Le code et le type client sont toujours retournés.
+ */
+public enum CustomerSection {
+    IDENTITY("identity"),     // noms, titre, langue, prénom
+    SITUATION("situation"),   // nationalité, pays de résidence
+    KYC("kyc"),               // naissance, pièce d'identité, situation familiale / forme juridique
+    FATCA("fatca"),
+    GENERAL("general"),       // agence, chargé de clientèle
+    REPORTING("reporting"),   // attributs déclaratifs, moyens de paiement, informations complémentaires
+    ADDRESS("address"),
+    PHONES("phones"),
+    PROFILE("profile");
+
+    public static final Set<CustomerSection> ALL = Collections.unmodifiableSet(EnumSet.allOf(CustomerSection.class));
+
+    private final String fieldName;
+
+    CustomerSection(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Analyse le paramètre fields - toutes les sections si absent
+     */
+    public static Set<CustomerSection> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        EnumSet<CustomerSection> sections = EnumSet.noneOf(CustomerSection.class);
+        for (String field : fields.split(",")) {
+            String name = field.trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+            sections.add(fromFieldName(name));
+        }
+        return sections.size() == ALL.size() ? ALL : sections;
+    }
+
+    /**
+     * Masque de bits des sections (une position par section)
+     */
+    public static int bitmask(Set<CustomerSection> sections) {
+        int mask = 0;
+        for (CustomerSection section : sections) {
+            mask |= 1 << section.ordinal();
+        }
+        return mask;
+    }
+
+    private static CustomerSection fromFieldName(String name) {
+        for (CustomerSection section : values()) {
+            if (section.fieldName.equals(name)) {
+                return section;
+            }
+        }
+        throw new IllegalArgumentException("Section inconnue: " + name);
+    }
+}
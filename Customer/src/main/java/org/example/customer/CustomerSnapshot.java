@@ -0,0 +1,55 @@
+package org.example.customer;
+
+/**
+ * Instantané versionné d'un client bancaire : données encodées (CustomerRecordCodec), version, empreinte.
+ * Remplacé par un nouvel instantané à chaque modification - les objets partagés sont en lecture seule.
+ * Aucune réponse SOAP ni vue REST n'y est conservée : elles sont construites à la demande,
+ * celles des clients les plus demandés gardées dans un cache borné (CustomerDetailCache).
+ */
+public final class CustomerSnapshot {
+
+    private final byte[] record;
+    private final CustomerRecordCodec codec;
+    private final long version;
+    private final long contentHash;
+
+    CustomerSnapshot(BankingCustomerData data, CustomerRecordCodec codec, long version, long contentHash) {
+        this.record = codec.encode(data);
+        this.codec = codec;
+        this.version = version;
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Données décodées à chaque appel : l'appelant reçoit sa propre copie
+     */
+    BankingCustomerData getData() {
+        return codec.decode(record);
+    }
+
+    /**
+     * Taille des données encodées, en octets
+     */
+    int getRecordSize() {
+        return record.length;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    long getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * ETag du client complet : version + empreinte du contenu
+     */
+    public String getETag() {
+        return formatETag(version, contentHash);
+    }
+
+    static String formatETag(long version, long contentHash) {
+        return Long.toHexString(version) + "-" + Long.toHexString(contentHash);
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.customer;
+
+import jakarta.jws.WebService;
+import org.example.customer.client.*;
+import org.example.customer.soap.GetCustomerDetailPortType;
+
+/**
+ * Service SOAP getCustomerDetail publié sur /services/customer pour les canaux historiques
+ *
+ * Contrat identique au WSDL Amplitude ; les réponses viennent du backend local actif (Mock ou stockage mappé),
+ * jamais du client CXF (banking.customer.backend=cxf), pour ne pas se rappeler soi-même.
+ * L'interface implémentée est générée sans variantes asynchrones (réservées au client SOAP).
+ */
+@WebService(
+        serviceName = "getCustomerDetail",
+        portName = "getCustomerDetailPortType",
+        targetNamespace = "http://soprabanking.com/amplitude",
+        endpointInterface = "org.example.customer.soap.GetCustomerDetailPortType",
+        wsdlLocation = "classpath:wsdl/customer-service.wsdl"
+)
+public class CustomerSoapEndpoint implements GetCustomerDetailPortType {
+
+    private final GetCustomerDetailService bankingService;
+
+    public CustomerSoapEndpoint(GetCustomerDetailService bankingService) {
+        this.bankingService = bankingService;
+    }
+
+    @Override
+    public GetCustomerDetailResponseFlow getCustomerDetail(GetCustomerDetailRequestFlow parameters) {
+        return bankingService.getCustomerDetail(parameters);
+    }
+
+    @Override
+    public GetStatusResponseFlow getStatus(GetStatusRequestFlow parameters) {
+        return bankingService.getStatus(parameters);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.customer;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.annotations.SchemaValidation.SchemaValidationType;
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.apache.cxf.transport.common.gzip.GZIPFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.xml.ws.Endpoint;
+import java.util.List;
+
+/**
+ * Publication du service SOAP getCustomerDetail (servlet CXF, cxf.path=/services)
+ *
+ * - lecture / écriture en flux StAX (Woodstox) liées directement à JAXB, sans arbre DOM
+ * - contexte JAXB créé une fois par jeu de classes (cache CXF partagé avec le client SOAP)
+ * - réponses compressées en GZIP si le client envoie Accept-Encoding: gzip, au-delà du seuil
+ * - validation XSD des requêtes entrantes, désactivable pour les tests de charge
+ */
+@Configuration
+public class CustomerSoapEndpointConfig {
+
+    @Bean
+    public Endpoint customerSoapEndpoint(Bus bus,
+                                         MockBankingCustomerService bankingService,
+                                         GetCustomerDetailService customerDetailService,
+                                         @Value("${banking.customer.soap.path:/customer}") String path,
+                                         @Value("${banking.customer.soap.schema-validation:true}") boolean schemaValidation,
+                                         @Value("${banking.customer.soap.gzip-threshold:1024}") int gzipThreshold) {
+        GZIPFeature gzip = new GZIPFeature();
+        gzip.setThreshold(gzipThreshold);
+
+        // Backend actif s'il détient ses données, sinon le Mock (le client CXF ne se rappelle pas lui-même)
+        GetCustomerDetailService localService = customerDetailService instanceof CustomerDataSource
+                ? customerDetailService
+                : bankingService;
+        EndpointImpl endpoint = new EndpointImpl(bus, new CustomerSoapEndpoint(localService));
+        endpoint.setFeatures(List.of(gzip));
+        endpoint.getProperties().put(Message.SCHEMA_VALIDATION_ENABLED,
+                schemaValidation ? SchemaValidationType.IN : SchemaValidationType.NONE);
+        endpoint.publish(path);
+
+        System.out.println("🧼 Service SOAP publié: /services" + path
+                + " (validation XSD: " + (schemaValidation ? "activée" : "désactivée")
+                + ", GZIP > " + gzipThreshold + " octets, StAX: "
+                + StaxUtils.createXMLInputFactory(true).getClass().getSimpleName() + ")");
+        return endpoint;
+    }
+}
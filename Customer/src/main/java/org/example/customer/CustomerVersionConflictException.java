@@ -0,0 +1,18 @@
+package org.example.customer;
+
+/**
+ * Mise à jour refusée : le client a été modifié depuis la version attendue (If-Match)
+ */
+public class CustomerVersionConflictException extends RuntimeException {
+
+    private final String currentETag;
+
+    public CustomerVersionConflictException(String customerCode, String currentETag) {
+        super("Le client " + customerCode + " a été modifié (version actuelle: " + currentETag + ")");
+        this.currentETag = currentETag;
+    }
+
+    public String getCurrentETag() {
+        return currentETag;
+    }
+}
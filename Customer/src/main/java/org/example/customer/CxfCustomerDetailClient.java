@@ -0,0 +1,122 @@
+package org.example.customer;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Client;
+import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transport.http.asyncclient.hc5.AsyncHTTPConduitFactory;
+import org.apache.cxf.transports.http.configuration.ConnectionType;
+import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+import org.example.customer.client.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client CXF JAX-WS vers le service SOAP Amplitude réel
+ * Activé par banking.customer.backend=cxf
+ *
+ * - un proxy par opération, chacun avec ses propres délais
+ * - transport asynchrone Apache HttpClient 5 : connexions persistantes en pool
+ * - contexte JAXB construit une seule fois au démarrage (cache CXF partagé par les proxies)
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "banking.customer.backend", havingValue = "cxf")
+public class CxfCustomerDetailClient implements GetCustomerDetailService {
+
+    private final GetCustomerDetailPortType detailPort;
+    private final GetCustomerDetailPortType statusPort;
+    private final AtomicLong requestCounter = new AtomicLong(1);
+    private final CustomerResponseBuilder responseBuilder = new CustomerResponseBuilder();
+
+    public CxfCustomerDetailClient(Bus bus,
+                                   @Value("${banking.customer.cxf.address}") String address,
+                                   @Value("${banking.customer.cxf.connect-timeout-ms:2000}") long connectTimeoutMs,
+                                   @Value("${banking.customer.cxf.detail-timeout-ms:5000}") long detailTimeoutMs,
+                                   @Value("${banking.customer.cxf.status-timeout-ms:2000}") long statusTimeoutMs,
+                                   @Value("${banking.customer.cxf.max-connections:200}") int maxConnections,
+                                   @Value("${banking.customer.cxf.max-connections-per-host:100}") int maxPerHost) {
+        System.out.println("🏦 ==========================================");
+        System.out.println("🏦 CLIENT SOAP CXF ACTIVÉ");
+        System.out.println("🏦 Endpoint: " + address);
+        System.out.println("🏦 ==========================================");
+
+        // Pool de connexions du transport asynchrone, utilisé aussi pour les appels synchrones
+        bus.setProperty(AsyncHTTPConduitFactory.USE_POLICY, "ALWAYS");
+        bus.setProperty(AsyncHTTPConduitFactory.MAX_CONNECTIONS, maxConnections);
+        bus.setProperty(AsyncHTTPConduitFactory.MAX_PER_HOST_CONNECTIONS, maxPerHost);
+
+        this.detailPort = createPort(bus, address, connectTimeoutMs, detailTimeoutMs);
+        this.statusPort = createPort(bus, address, connectTimeoutMs, statusTimeoutMs);
+    }
+
+    @Override
+    public GetCustomerDetailResponseFlow getCustomerDetail(GetCustomerDetailRequestFlow request) {
+        try {
+            return getCustomerDetailAsync(request).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            System.err.println("❌ Erreur appel SOAP getCustomerDetail: " + cause.getMessage());
+            return responseBuilder.buildErrorResponse(
+                    request.getRequestHeader().getRequestId(),
+                    "CXF_" + requestCounter.getAndIncrement(),
+                    cause.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Appel asynchrone non bloquant de getCustomerDetail
+     */
+    public CompletableFuture<GetCustomerDetailResponseFlow> getCustomerDetailAsync(GetCustomerDetailRequestFlow request) {
+        CompletableFuture<GetCustomerDetailResponseFlow> future = new CompletableFuture<>();
+        detailPort.getCustomerDetailAsync(request, response -> {
+            try {
+                future.complete(response.get());
+            } catch (ExecutionException e) {
+                future.completeExceptionally(e.getCause() != null ? e.getCause() : e);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public GetStatusResponseFlow getStatus(GetStatusRequestFlow request) {
+        try {
+            return statusPort.getStatus(request);
+        } catch (Exception e) {
+            System.err.println("❌ Erreur appel SOAP getStatus: " + e.getMessage());
+            return new GetStatusResponseFlow();
+        }
+    }
+
+    private static GetCustomerDetailPortType createPort(Bus bus, String address,
+                                                        long connectTimeoutMs, long receiveTimeoutMs) {
+        JaxWsProxyFactoryBean factory = new JaxWsProxyFactoryBean();
+        factory.setBus(bus);
+        factory.setServiceClass(GetCustomerDetailPortType.class);
+        factory.setAddress(address);
+        GetCustomerDetailPortType port = (GetCustomerDetailPortType) factory.create();
+
+        Client client = ClientProxy.getClient(port);
+        HTTPConduit conduit = (HTTPConduit) client.getConduit();
+        HTTPClientPolicy policy = new HTTPClientPolicy();
+        policy.setConnectionTimeout(connectTimeoutMs);
+        policy.setReceiveTimeout(receiveTimeoutMs);
+        policy.setConnection(ConnectionType.KEEP_ALIVE);
+        policy.setAllowChunking(false);
+        conduit.setClient(policy);
+
+        return port;
+    }
+}
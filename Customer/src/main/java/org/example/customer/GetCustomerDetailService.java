@@ -1,10 +1,15 @@
 package org.example.customer;
 
 import org.example.customer.client.*;
+import org.example.customer.rest.CustomerView;
 import jakarta.jws.WebMethod;
 import jakarta.jws.WebParam;
 import jakarta.jws.WebService;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
 /**
  * Interface pour le service bancaire Sopra Amplitude
  * Seulement les 2 méthodes du WSDL
@@ -12,6 +17,16 @@ import jakarta.jws.WebService;
 @WebService(targetNamespace = "http://soprabanking.com/amplitude")
 public interface GetCustomerDetailService {
 
+    /**
+     * Résultat d'une mise à jour : version et empreinte, au même format d'ETag que getCustomerETag
+     */
+    record UpdateResult(long version, long contentHash) {
+
+        public String eTag() {
+            return CustomerSnapshot.formatETag(version, contentHash);
+        }
+    }
+
     /**
      * Récupérer les détails d'un client par son code
      */
@@ -27,4 +42,78 @@ public interface GetCustomerDetailService {
     GetStatusResponseFlow getStatus(
             @WebParam(name = "parameters") GetStatusRequestFlow request
     );
-}
\ No newline at end of file
+
+    /**
+     * Détail client limité aux sections demandées (hors WSDL)
+     * Par défaut la réponse complète est retournée
+     */
+    @WebMethod(exclude = true)
+    default GetCustomerDetailResponseFlow getCustomerDetail(GetCustomerDetailRequestFlow request,
+                                                            Set<CustomerSection> sections) {
+        return getCustomerDetail(request);
+    }
+
+    /**
+     * Indique si le client existe (hors WSDL) - true si l'implémentation ne peut pas le savoir localement
+     */
+    @WebMethod(exclude = true)
+    default boolean hasCustomer(String customerCode) {
+        return true;
+    }
+
+    /**
+     * ETag du client complet (hors WSDL) - null si l'implémentation ne sait pas le calculer sans appel
+     */
+    @WebMethod(exclude = true)
+    default String getCustomerETag(String customerCode) {
+        return null;
+    }
+
+    /**
+     * Vue REST de cette réponse si l'implémentation l'a en cache, calculée au plus une fois (hors WSDL) - sinon null
+     */
+    @WebMethod(exclude = true)
+    default CustomerView getCachedView(GetCustomerDetailResponse detail,
+                                       Function<GetCustomerDetailResponse, CustomerView> converter) {
+        return null;
+    }
+
+    /**
+     * Indique, sans rien construire, si la vue REST de cette réponse est en cache dans l'implémentation (hors WSDL)
+     */
+    @WebMethod(exclude = true)
+    default boolean hasCachedView(GetCustomerDetailResponse detail) {
+        return false;
+    }
+
+    /**
+     * Filtre des codes clients connus (hors WSDL) - null si l'implémentation ne connaît pas ses codes
+     */
+    @WebMethod(exclude = true)
+    default CustomerCodeFilter getCustomerCodeFilter() {
+        return null;
+    }
+
+    /**
+     * Indique si l'implémentation met à jour ses clients (hors WSDL) - à vérifier avant updateCustomer
+     */
+    @WebMethod(exclude = true)
+    default boolean supportsUpdate() {
+        return false;
+    }
+
+    /**
+     * Met à jour l'adresse, le téléphone ou la situation d'un client (hors WSDL)
+     * expectedETag (If-Match) est comparé à getCustomerETag : la mise à jour est refusée si le client a changé
+     * Seulement si supportsUpdate() : les autres implémentations n'ont pas de mise à jour
+     *
+     * @param replaceAll true pour PUT : tous les champs modifiables sont obligatoires
+     * @return la nouvelle version, ou null si le client est inconnu
+     * @throws IllegalStateException appel alors que supportsUpdate() est false
+     */
+    @WebMethod(exclude = true)
+    default UpdateResult updateCustomer(String customerCode, Map<String, String> changes,
+                                        boolean replaceAll, String expectedETag) {
+        throw new IllegalStateException("Mise à jour non supportée par " + getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,211 @@
+package org.example.customer;
+
+import org.example.customer.client.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Service client adossé au stockage persistant mappé en mémoire
+ * Activé par banking.customer.backend=mapped
+ *
+ * Indépendant du Mock : le stockage vide est alimenté directement (clients de démonstration et
+ * synthétiques de la partition), lectures et mises à jour ne passent que par le fichier.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "banking.customer.backend", havingValue = "mapped")
+public class MappedCustomerDetailService implements GetCustomerDetailService, CustomerDataSource {
+
+    private final MappedCustomerStore store;
+    private final CustomerCodeFilter codeFilter;
+    private final AtomicLong requestCounter = new AtomicLong(1);
+    // Sérialise les lectures-modifications-écritures du stockage (les lectures simples ne sont pas bloquées)
+    private final Object updateLock = new Object();
+    private final CustomerResponseBuilder responseBuilder = new CustomerResponseBuilder();
+
+    public MappedCustomerDetailService(@Value("${banking.customer.store.path:data/customers.store}") String storePath,
+                                       @Value("${banking.customer.store.index-slots:4194304}") int indexSlots,
+                                       @Value("${banking.customer.store.data-capacity-mb:1024}") int dataCapacityMb,
+                                       @Value("${banking.customer.mock.generated-count:0}") int generatedCount,
+                                       @Value("${banking.customer.mock.seed:42}") long seed,
+                                       CustomerPartition partition)
+            throws IOException {
+        System.out.println("🏦 ==========================================");
+        System.out.println("🏦 STOCKAGE CLIENT MAPPÉ ACTIVÉ");
+        System.out.println("🏦 Fichier: " + storePath);
+        System.out.println("🏦 ==========================================");
+
+        long start = System.nanoTime();
+        this.store = MappedCustomerStore.open(Path.of(storePath), indexSlots, dataCapacityMb * 1024L * 1024L);
+
+        if (store.size() == 0) {
+            MockBankingCustomerService.demoCustomers().stream()
+                    .filter(customer -> partition.owns(customer.customerCode))
+                    .forEach(store::put);
+            if (generatedCount > 0) {
+                new SyntheticCustomerGenerator(seed).generate(generatedCount, partition::owns).forEach(store::put);
+            }
+            store.flush();
+            System.out.println("📋 Stockage vide initialisé: " + store.size() + " clients (partition " + partition + ")");
+        }
+
+        // Filtre alimenté par les hash de l'index : aucun enregistrement relu au démarrage
+        this.codeFilter = new CustomerCodeFilter(
+                Math.max(MockBankingCustomerService.CODE_FILTER_EXPECTED_CUSTOMERS, store.size() * 2L),
+                MockBankingCustomerService.CODE_FILTER_FALSE_POSITIVE_RATE,
+                code -> CustomerCodeFilter.spread(MappedCustomerStore.codeHash(code)));
+        store.forEachCodeHash(hash -> codeFilter.addHash(CustomerCodeFilter.spread(hash)));
+
+        System.out.println("✅ " + store.size() + " clients ouverts en "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    @Override
+    public GetCustomerDetailResponseFlow getCustomerDetail(GetCustomerDetailRequestFlow request) {
+        return getCustomerDetail(request, CustomerSection.ALL);
+    }
+
+    @Override
+    public GetCustomerDetailResponseFlow getCustomerDetail(GetCustomerDetailRequestFlow request,
+                                                           Set<CustomerSection> sections) {
+        try {
+            String customerCode = request.getGetCustomerDetailRequest()
+                    .getCustomerIdentifier()
+                    .getCustomerCode();
+
+            GetCustomerDetailResponseFlow responseFlow = new GetCustomerDetailResponseFlow();
+            responseFlow.setResponseHeader(responseBuilder.createResponseHeader(
+                    request.getRequestHeader().getRequestId(),
+                    "MAPPED_" + requestCounter.getAndIncrement()
+            ));
+            responseFlow.setResponseStatus(responseBuilder.createSuccessStatus());
+
+            BankingCustomerData customerData = store.get(customerCode);
+            if (customerData != null) {
+                responseFlow.setGetCustomerDetailResponse(
+                        responseBuilder.buildCustomerResponse(customerData, sections)
+                );
+            } else {
+                responseFlow.setGetCustomerDetailResponse(
+                        responseBuilder.buildDefaultCustomer(customerCode)
+                );
+            }
+
+            return responseFlow;
+
+        } catch (Exception e) {
+            System.err.println("❌ Erreur stockage client: " + e.getMessage());
+            return responseBuilder.buildErrorResponse(
+                    request.getRequestHeader().getRequestId(),
+                    "MAPPED_" + requestCounter.getAndIncrement(),
+                    e.getMessage()
+            );
+        }
+    }
+
+    @Override
+    public GetStatusResponseFlow getStatus(GetStatusRequestFlow request) {
+        GetStatusResponseFlow responseFlow = new GetStatusResponseFlow();
+        GetStatusResponse statusResponse = new GetStatusResponse();
+
+        try {
+            statusResponse.setTimeStamp(responseBuilder.createXMLTimestamp(LocalDateTime.now()));
+            statusResponse.setServiceName("Mapped Amplitude Banking Service");
+            responseFlow.setGetStatusResponse(statusResponse);
+
+        } catch (Exception e) {
+            System.err.println("❌ Erreur Status: " + e.getMessage());
+        }
+
+        return responseFlow;
+    }
+
+    @Override
+    public boolean hasCustomer(String customerCode) {
+        return store.contains(customerCode);
+    }
+
+    /**
+     * Le format du fichier ne conserve pas de numéro de version : l'empreinte du contenu suffit
+     */
+    @Override
+    public String getCustomerETag(String customerCode) {
+        BankingCustomerData customerData = store.get(customerCode);
+        return customerData == null ? null : CustomerSnapshot.formatETag(0, customerData.contentHash());
+    }
+
+    @Override
+    public BankingCustomerData findCustomer(String customerCode) {
+        return store.get(customerCode);
+    }
+
+    @Override
+    public void forEachCustomer(Consumer<BankingCustomerData> action) {
+        store.forEach(action);
+    }
+
+    @Override
+    public CustomerCodeFilter getCustomerCodeFilter() {
+        return codeFilter;
+    }
+
+    @Override
+    public boolean supportsUpdate() {
+        return true;
+    }
+
+    /**
+     * Met à jour le client directement dans le stockage : lecture, contrôle If-Match, réécriture
+     * L'ETag comparé est celui retourné par GET (version 0, empreinte du contenu stocké)
+     */
+    @Override
+    public UpdateResult updateCustomer(String customerCode, Map<String, String> changes,
+                                       boolean replaceAll, String expectedETag) {
+        BankingCustomerData.checkChanges(changes, replaceAll);
+
+        synchronized (updateLock) {
+            BankingCustomerData customer = store.get(customerCode);
+            if (customer == null) {
+                return null;
+            }
+            long currentHash = customer.contentHash();
+            if (expectedETag != null && !expectedETag.equals(CustomerSnapshot.formatETag(0, currentHash))) {
+                throw new CustomerVersionConflictException(customerCode, CustomerSnapshot.formatETag(0, currentHash));
+            }
+
+            customer.applyChanges(changes);
+            long updatedHash = customer.contentHash();
+            if (updatedHash != currentHash) {
+                store.put(customer);
+                System.out.println("✅ Client mis à jour dans le stockage: " + customerCode);
+            }
+            return new UpdateResult(0, updatedHash);
+        }
+    }
+
+    public int getStoredCustomersCount() {
+        return store.size();
+    }
+
+    @Override
+    public int customerCount() {
+        return getStoredCustomersCount();
+    }
+
+    @PreDestroy
+    public void closeStore() throws IOException {
+        store.close();
+        System.out.println("🏦 Stockage client mappé fermé");
+    }
+}
@@ -0,0 +1,364 @@
+package org.example.customer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Stockage persistant des clients dans un fichier mappé en mémoire (hors heap)
+ *
+ * Format du fichier :
+ *   [en-tête 32 octets][index : slots (hash int, offset int)][données : enregistrements]
+ * Enregistrement : capacité (int), longueur (int), puis les champs en UTF-8
+ * préfixés par leur taille (short, -1 = null). La capacité réserve de la marge
+ * pour permettre les mises à jour sur place.
+ */
+final class MappedCustomerStore implements Closeable {
+
+    private static final int MAGIC = 0x43555354; // "CUST"
+    private static final int FORMAT_VERSION = 3; // 2 : adresse et pays de résidence, 3 : agence
+    private static final int HEADER_SIZE = 32;
+    private static final int SLOT_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int FIRST_RECORD_OFFSET = 8; // offset 0 = slot vide
+    private static final double MAX_LOAD_FACTOR = 0.75;
+    private static final int FOR_EACH_BATCH_SLOTS = 1024;
+
+    // Positions dans l'en-tête
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_SLOT_COUNT = 8;
+    private static final int H_RECORD_COUNT = 12;
+    private static final int H_DATA_CAPACITY = 16;
+    private static final int H_DATA_END = 20;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer index;
+    private final MappedByteBuffer data;
+    private final int slotCount;
+    private final int dataCapacity;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int recordCount;
+    private int dataEnd;
+
+    private MappedCustomerStore(FileChannel channel, int slotCount, int dataCapacity, boolean created) throws IOException {
+        this.channel = channel;
+        this.slotCount = slotCount;
+        this.dataCapacity = dataCapacity;
+
+        long indexSize = HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+        this.index = channel.map(FileChannel.MapMode.READ_WRITE, 0, indexSize);
+        this.data = channel.map(FileChannel.MapMode.READ_WRITE, indexSize, dataCapacity);
+
+        if (created) {
+            index.putInt(H_MAGIC, MAGIC);
+            index.putInt(H_VERSION, FORMAT_VERSION);
+            index.putInt(H_SLOT_COUNT, slotCount);
+            index.putInt(H_DATA_CAPACITY, dataCapacity);
+            recordCount = 0;
+            dataEnd = FIRST_RECORD_OFFSET;
+            writeCounters();
+        } else {
+            recordCount = index.getInt(H_RECORD_COUNT);
+            dataEnd = index.getInt(H_DATA_END);
+        }
+    }
+
+    /**
+     * Ouvre le fichier existant ou le crée avec la capacité demandée.
+     * Pour un fichier existant, la capacité enregistrée dans l'en-tête fait foi.
+     */
+    public static MappedCustomerStore open(Path path, int slotCount, long dataCapacity) throws IOException {
+        if (Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Le nombre de slots doit être une puissance de 2: " + slotCount);
+        }
+        if (dataCapacity <= FIRST_RECORD_OFFSET || dataCapacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacité de données invalide: " + dataCapacity);
+        }
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        boolean created = !Files.exists(path) || Files.size(path) == 0;
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            if (created) {
+                return new MappedCustomerStore(channel, slotCount, (int) dataCapacity, true);
+            }
+
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != FORMAT_VERSION) {
+                throw new IOException("Fichier de stockage client invalide ou d'une ancienne version"
+                        + " (supprimer le fichier pour le recréer): " + path);
+            }
+            return new MappedCustomerStore(channel, header.getInt(H_SLOT_COUNT), header.getInt(H_DATA_CAPACITY), false);
+
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public BankingCustomerData get(String customerCode) {
+        byte[] key = customerCode.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(key, hash(key));
+            int offset = slotOffset(slot);
+            return offset == 0 ? null : decode(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String customerCode) {
+        byte[] key = customerCode.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            return slotOffset(findSlot(key, hash(key))) != 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ajoute ou met à jour un client - sur place si l'enregistrement existant a la capacité suffisante
+     */
+    public void put(BankingCustomerData customer) {
+        byte[] key = customer.customerCode.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = encode(customer);
+
+        lock.writeLock().lock();
+        try {
+            int hash = hash(key);
+            int slot = findSlot(key, hash);
+            int offset = slotOffset(slot);
+
+            if (offset != 0 && data.getInt(offset) >= payload.length) {
+                writeRecord(offset, payload);
+                return;
+            }
+
+            if (offset == 0 && recordCount + 1 > slotCount * MAX_LOAD_FACTOR) {
+                throw new IllegalStateException("Index du stockage client plein (" + slotCount + " slots)");
+            }
+
+            int newOffset = allocate(payload.length);
+            writeRecord(newOffset, payload);
+            index.putInt(slotPosition(slot), hash);
+            index.putInt(slotPosition(slot) + 4, newOffset);
+            if (offset == 0) {
+                recordCount++;
+            }
+            writeCounters();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Parcourt les hash (codeHash) des codes présents, lus dans l'index seul : aucune page de données n'est touchée
+     */
+    public void forEachCodeHash(IntConsumer action) {
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (slotOffset(slot) != 0) {
+                    action.accept(index.getInt(slotPosition(slot)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Hash d'un code tel qu'enregistré dans l'index
+     */
+    public static int codeHash(String customerCode) {
+        return hash(customerCode.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parcourt les clients enregistrés : verrou pris par tranche de slots, jamais pendant l'action
+     * (une mise à jour concurrente peut être vue ou non)
+     */
+    public void forEach(Consumer<BankingCustomerData> action) {
+        List<BankingCustomerData> batch = new ArrayList<>();
+        for (int from = 0; from < slotCount; from += FOR_EACH_BATCH_SLOTS) {
+            int to = Math.min(slotCount, from + FOR_EACH_BATCH_SLOTS);
+            lock.readLock().lock();
+            try {
+                for (int slot = from; slot < to; slot++) {
+                    int offset = slotOffset(slot);
+                    if (offset != 0) {
+                        batch.add(decode(offset));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            batch.forEach(action);
+            batch.clear();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return recordCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Force l'écriture des pages modifiées sur disque
+     */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            index.force();
+            data.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    // ========================================
+    // INDEX
+    // ========================================
+
+    private int findSlot(byte[] key, int hash) {
+        int mask = slotCount - 1;
+        int slot = hash & mask;
+        while (true) {
+            int offset = slotOffset(slot);
+            if (offset == 0) {
+                return slot;
+            }
+            if (index.getInt(slotPosition(slot)) == hash && keyEquals(offset, key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int slotOffset(int slot) {
+        return index.getInt(slotPosition(slot) + 4);
+    }
+
+    private static int slotPosition(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private boolean keyEquals(int offset, byte[] key) {
+        int position = offset + RECORD_HEADER_SIZE;
+        if (data.getShort(position) != key.length) {
+            return false;
+        }
+        position += 2;
+        for (int i = 0; i < key.length; i++) {
+            if (data.get(position + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(byte[] key) {
+        int h = Arrays.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    // ========================================
+    // DONNÉES
+    // ========================================
+
+    private int allocate(int payloadLength) {
+        // 25% de marge pour les mises à jour sur place, aligné sur 8 octets
+        int capacity = ((payloadLength + payloadLength / 4) + 7) & ~7;
+        long end = (long) dataEnd + RECORD_HEADER_SIZE + capacity;
+        if (end > dataCapacity) {
+            throw new IllegalStateException("Espace de données du stockage client épuisé (" + dataCapacity + " octets)");
+        }
+        int offset = dataEnd;
+        data.putInt(offset, capacity);
+        dataEnd = (int) end;
+        return offset;
+    }
+
+    private void writeRecord(int offset, byte[] payload) {
+        data.putInt(offset + 4, payload.length);
+        data.put(offset + RECORD_HEADER_SIZE, payload);
+    }
+
+    private void writeCounters() {
+        index.putInt(H_RECORD_COUNT, recordCount);
+        index.putInt(H_DATA_END, dataEnd);
+    }
+
+    private static byte[] encode(BankingCustomerData customer) {
+        String[] fields = customer.toFields();
+
+        byte[][] encoded = new byte[fields.length][];
+        int size = 0;
+        for (int i = 0; i < fields.length; i++) {
+            encoded[i] = fields[i] == null ? null : fields[i].getBytes(StandardCharsets.UTF_8);
+            size += 2 + (encoded[i] == null ? 0 : encoded[i].length);
+        }
+
+        byte[] payload = new byte[size];
+        int position = 0;
+        for (byte[] field : encoded) {
+            int length = field == null ? -1 : field.length;
+            if (length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Champ client trop long: " + length + " octets");
+            }
+            payload[position++] = (byte) (length >> 8);
+            payload[position++] = (byte) length;
+            if (field != null) {
+                System.arraycopy(field, 0, payload, position, field.length);
+                position += field.length;
+            }
+        }
+        return payload;
+    }
+
+    private BankingCustomerData decode(int offset) {
+        int position = offset + RECORD_HEADER_SIZE;
+        String[] fields = new String[BankingCustomerData.FIELD_COUNT];
+        for (int i = 0; i < fields.length; i++) {
+            short length = data.getShort(position);
+            position += 2;
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                data.get(position, bytes);
+                fields[i] = new String(bytes, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+
+        return BankingCustomerData.fromFields(fields);
+    }
+}
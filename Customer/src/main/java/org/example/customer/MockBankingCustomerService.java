@@ -2,14 +2,16 @@ package org.example.customer;
 
 import org.example.customer.client.*;
 import org.example.customer.GetCustomerDetailService;
+import org.example.customer.rest.CustomerView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.xml.datatype.DatatypeFactory;
-import javax.xml.datatype.XMLGregorianCalendar;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -17,22 +19,76 @@ import java.util.concurrent.atomic.AtomicLong;
  * Mode DIRECT - Serveur sécurisé
  */
 @Service
-public class MockBankingCustomerService implements GetCustomerDetailService {
+public class MockBankingCustomerService implements GetCustomerDetailService, CustomerDataSource {
 
-    private final Map<String, BankingCustomerData> mockCustomers = new HashMap<>();
+    // Dimensionnement du filtre des codes connus
+    static final long CODE_FILTER_EXPECTED_CUSTOMERS = 1_000_000;
+    static final double CODE_FILTER_FALSE_POSITIVE_RATE = 0.01;
+    private static final int STATUS_PRINT_LIMIT = 20;
+    static final int DEFAULT_DETAIL_CACHE_SIZE = 10_000;
+
+    // Instantanés versionnés et immuables par client : lecture sans verrou, remplacement atomique
+    private final ConcurrentHashMap<String, CustomerSnapshot> customerSnapshots = new ConcurrentHashMap<>();
     private final AtomicLong requestCounter = new AtomicLong(1);
+    private final CustomerResponseBuilder responseBuilder = new CustomerResponseBuilder();
+    private final CustomerNameIndex nameIndex = new CustomerNameIndex();
+    private final CustomerCodeFilter codeFilter;
+    private final CustomerPartition partition;
+    private final CustomerRecordCodec recordCodec = new CustomerRecordCodec();
+    // Réponses complètes des clients les plus demandés, hors instantanés
+    private final CustomerDetailCache detailCache;
+
+    // Absent hors contexte Spring (benchmarks, tests)
+    @Autowired(required = false)
+    private CustomerLookupMetrics lookupMetrics;
 
     public MockBankingCustomerService() {
+        this(0, 0, DEFAULT_DETAIL_CACHE_SIZE, "mock", CustomerPartition.ALL);
+    }
+
+    /**
+     * @param generatedCount clients synthétiques ajoutés aux clients Mock (0 = aucun)
+     * @param seed           graine du générateur : même graine, mêmes clients
+     * @param detailCacheSize nombre maximal de réponses complètes gardées en cache (0 = aucune)
+     * @param backend        backend actif : avec le stockage mappé, les clients synthétiques n'y sont chargés qu'une fois
+     * @param partition      seuls les clients de cette partition sont chargés
+     */
+    @Autowired
+    public MockBankingCustomerService(@Value("${banking.customer.mock.generated-count:0}") int generatedCount,
+                                      @Value("${banking.customer.mock.seed:42}") long seed,
+                                      @Value("${banking.customer.mock.detail-cache-size:10000}") int detailCacheSize,
+                                      @Value("${banking.customer.backend:mock}") String backend,
+                                      CustomerPartition partition) {
         System.out.println("🏦 ==========================================");
         System.out.println("🏦 MOCK BANKING SERVICE ACTIVÉ DIRECTEMENT");
         System.out.println("🏦 Méthodes: getCustomerDetail + getStatus");
         System.out.println("🏦 Mode: DIRECT (serveur sécurisé)");
         System.out.println("🏦 ==========================================");
+        this.partition = partition;
+        this.detailCache = new CustomerDetailCache(detailCacheSize);
+        boolean generate = generatedCount > 0 && !"mapped".equals(backend);
+        this.codeFilter = new CustomerCodeFilter(
+                Math.max(CODE_FILTER_EXPECTED_CUSTOMERS, generate ? generatedCount + generatedCount / 4L : 0),
+                CODE_FILTER_FALSE_POSITIVE_RATE);
         initializeMockData();
+        if (generate) {
+            generateCustomers(generatedCount, seed);
+        } else if (generatedCount > 0) {
+            System.out.println("📋 Clients synthétiques servis par le stockage mappé, non chargés dans le Mock");
+        }
     }
 
     @Override
     public GetCustomerDetailResponseFlow getCustomerDetail(GetCustomerDetailRequestFlow request) {
+        return getCustomerDetail(request, CustomerSection.ALL);
+    }
+
+    /**
+     * Détail client limité aux sections demandées - les autres ne sont ni construites ni retournées
+     */
+    @Override
+    public GetCustomerDetailResponseFlow getCustomerDetail(GetCustomerDetailRequestFlow request,
+                                                           Set<CustomerSection> sections) {
         System.out.println("🏦 MOCK: getCustomerDetail() appelé");
 
         try {
@@ -43,31 +99,39 @@ public class MockBankingCustomerService implements GetCustomerDetailService {
             System.out.println("🏦 Code client demandé: " + customerCode);
             simulateDelay(400);
 
+            long buildStart = System.nanoTime();
             GetCustomerDetailResponseFlow responseFlow = new GetCustomerDetailResponseFlow();
-            responseFlow.setResponseHeader(createResponseHeader(
-                    request.getRequestHeader().getRequestId()
+            responseFlow.setResponseHeader(responseBuilder.createResponseHeader(
+                    request.getRequestHeader().getRequestId(),
+                    "MOCK_" + requestCounter.getAndIncrement()
             ));
-            responseFlow.setResponseStatus(createSuccessStatus());
-
-            BankingCustomerData customerData = mockCustomers.get(customerCode);
-            if (customerData != null) {
-                responseFlow.setGetCustomerDetailResponse(
-                        buildCustomerResponse(customerData)
-                );
-                System.out.println("✅ Client Mock trouvé: " + customerData.displayName);
+            responseFlow.setResponseStatus(responseBuilder.createSuccessStatus());
+
+            CustomerSnapshot snapshot = customerSnapshots.get(customerCode);
+            if (snapshot != null) {
+                // Sections partielles : seules celles demandées sont construites, depuis les données du client
+                GetCustomerDetailResponse detail = sections.containsAll(CustomerSection.ALL)
+                        ? detailCache.getOrBuild(customerCode, snapshot, this::buildFullResponse).getDetail()
+                        : responseBuilder.buildCustomerResponse(snapshot.getData(), sections);
+                responseFlow.setGetCustomerDetailResponse(detail);
+                System.out.println("✅ Client Mock trouvé: " + detail.getNameToReturn());
             } else {
                 responseFlow.setGetCustomerDetailResponse(
-                        buildDefaultCustomer(customerCode)
+                        responseBuilder.buildDefaultCustomer(customerCode)
                 );
                 System.out.println("⚠️ Client Mock par défaut créé pour: " + customerCode);
             }
 
+            if (lookupMetrics != null) {
+                lookupMetrics.recordPhase(CustomerLookupMetrics.Phase.RESPONSE_BUILD, buildStart);
+            }
             return responseFlow;
 
         } catch (Exception e) {
             System.err.println("❌ Erreur Mock Banking: " + e.getMessage());
-            return buildErrorResponse(
+            return responseBuilder.buildErrorResponse(
                     request.getRequestHeader().getRequestId(),
+                    "MOCK_" + requestCounter.getAndIncrement(),
                     e.getMessage()
             );
         }
@@ -83,7 +147,7 @@ public class MockBankingCustomerService implements GetCustomerDetailService {
         GetStatusResponse statusResponse = new GetStatusResponse();
 
         try {
-            statusResponse.setTimeStamp(createXMLTimestamp(LocalDateTime.now()));
+            statusResponse.setTimeStamp(responseBuilder.createXMLTimestamp(LocalDateTime.now()));
             statusResponse.setServiceName("Mock Amplitude Banking Service");
             responseFlow.setGetStatusResponse(statusResponse);
 
@@ -104,15 +168,15 @@ public class MockBankingCustomerService implements GetCustomerDetailService {
         System.out.println("📋 Initialisation des données bancaires...");
 
         try {
-            addCustomer("00100002", "DIOUF", "ABLAYE", "1", "M", "1983-06-20", "SENEGALAIS", "+221778665273");
-            addCustomer("00100003", "TECHCORP SARL", "DAHMAN", "2", "C", "2015-03-15", "SENEGALAIS", "+221773334455");
-            addCustomer("00100004", "FALL", "MAMADOU", "1", "M", "1990-12-10", "SENEGALAIS", "+221776667788");
-            addCustomer("00100005", "DIALLO", "AISSATOU", "1", "F", "1985-08-25", "MALIEN", "+221779990011");
-            addCustomer("00100006", "GLOBAL SOLUTIONS", "DA3DO3", "2", "C", "2010-01-01", "FRANCAIS", "+221772223344");
-
-            System.out.println("✅ " + mockCustomers.size() + " clients bancaires initialisés");
-            mockCustomers.forEach((code, data) ->
-                    System.out.println("  📝 " + code + ": " + data.displayName)
+            for (BankingCustomerData customer : demoCustomers()) {
+                if (partition.owns(customer.customerCode)) {
+                    registerCustomer(customer);
+                }
+            }
+
+            System.out.println("✅ " + customerSnapshots.size() + " clients bancaires initialisés");
+            customerSnapshots.forEach((code, snapshot) ->
+                    System.out.println("  📝 " + code + ": " + snapshot.getData().displayName)
             );
 
         } catch (Exception e) {
@@ -120,9 +184,22 @@ public class MockBankingCustomerService implements GetCustomerDetailService {
         }
     }
 
-    private void addCustomer(String code, String lastname, String firstname,
-                             String customerType, String sex, String birthDate,
-                             String nationality, String phone) {
+    /**
+     * Clients de démonstration, chargés par le Mock et par le stockage mappé à sa création
+     */
+    static List<BankingCustomerData> demoCustomers() {
+        return List.of(
+                demoCustomer("00100002", "DIOUF", "ABLAYE", "1", "M", "1983-06-20", "SENEGALAIS", "+221778665273"),
+                demoCustomer("00100003", "TECHCORP SARL", "DAHMAN", "2", "C", "2015-03-15", "SENEGALAIS", "+221773334455"),
+                demoCustomer("00100004", "FALL", "MAMADOU", "1", "M", "1990-12-10", "SENEGALAIS", "+221776667788"),
+                demoCustomer("00100005", "DIALLO", "AISSATOU", "1", "F", "1985-08-25", "MALIEN", "+221779990011"),
+                demoCustomer("00100006", "GLOBAL SOLUTIONS", "DA3DO3", "2", "C", "2010-01-01", "FRANCAIS", "+221772223344")
+        );
+    }
+
+    private static BankingCustomerData demoCustomer(String code, String lastname, String firstname,
+                                                    String customerType, String sex, String birthDate,
+                                                    String nationality, String phone) {
         BankingCustomerData customer = new BankingCustomerData();
         customer.customerCode = code;
         customer.lastname = lastname;
@@ -133,416 +210,214 @@ public class MockBankingCustomerService implements GetCustomerDetailService {
         customer.birthDate = birthDate;
         customer.nationality = nationality;
         customer.phoneNumber = phone;
-
-        mockCustomers.put(code, customer);
+        customer.countryOfResidence = "SENEGAL";
+        customer.addressLine1 = "Grand Dakar, Dakar";
+        customer.addressLine2 = "GRAND DAKAR 2 PARCELLE N 200";
+        customer.city = "DAKAR";
+        customer.postalCode = "0000";
+        customer.branchCode = BankingBranch.AGENCE_TEST.getCode();
+        return customer;
     }
 
-    // ========================================
-    // CONSTRUCTION DES RÉPONSES
-    // ========================================
-
-    private GetCustomerDetailResponse buildCustomerResponse(BankingCustomerData data) throws Exception {
-        GetCustomerDetailResponse response = new GetCustomerDetailResponse();
-
-        response.setCustomerCode(data.customerCode);
-        response.setCustomerType(data.customerType);
-        response.setLastname(data.lastname);
-        response.setNameToReturn(data.displayName);
-
-        // Langue
-        Language language = new Language();
-        language.setCode("001");
-        language.setDesignation("Francais");
-        response.setLanguage(language);
-
-        // Titre
-        TitleCode titleCode = new TitleCode();
-        switch (data.sex) {
-            case "M":
-                titleCode.setCode("01");
-                titleCode.setDesignation("MONSIEUR");
-                break;
-            case "F":
-                titleCode.setCode("02");
-                titleCode.setDesignation("MADAME");
-                break;
-            default:
-                titleCode.setCode("03");
-                titleCode.setDesignation("SOCIETE");
-        }
-        response.setTitleCode(titleCode);
-
-        // Situation
-        CustomerSituation situation = new CustomerSituation();
-        Nationality nationality = new Nationality();
-        nationality.setCode("686");
-        nationality.setDesignation(data.nationality);
-        situation.setNationalityCode(nationality);
-
-        Country country = new Country();
-        country.setCode("686");
-        country.setDesignation("SENEGAL");
-        situation.setCountryOfResidence(country);
-        response.setSituation(situation);
-
-        // FATCA
-        CustomerFatca fatca = new CustomerFatca();
-        FatcaStatus fatcaStatus = new FatcaStatus();
-        fatcaStatus.setFatcaStatusCode("");
-        fatca.setFatcaStatus(fatcaStatus);
-        CrsStatus crsStatus = new CrsStatus();
-        crsStatus.setCrsStatusCode("");
-        fatca.setCrsStatus(crsStatus);
-        response.setFatca(fatca);
-
-        // Informations spécifiques
-        CustomerSpecInfo specInfo = new CustomerSpecInfo();
-        if ("1".equals(data.customerType)) {
-            specInfo.setIndividualSpecInfo(buildIndividualInfo(data));
-        } else {
-            specInfo.setCorporateSpecInfo(buildCorporateInfo(data));
-        }
-        response.setSpecificInformation(specInfo);
+    /**
+     * Jeu de données synthétique déterministe, généré et chargé sur tous les cœurs
+     * Avec une partition, seule sa tranche est construite et chargée
+     */
+    private void generateCustomers(int count, long seed) {
+        System.out.println("📋 Génération de " + count + " clients synthétiques (graine " + seed
+                + ", partition " + partition + ")...");
+        long start = System.nanoTime();
+        int before = customerSnapshots.size();
 
-        response.setGeneralAttributes(buildGeneralAttributes());
-        response.setReportingAttributes(buildReportingAttributes());
-        response.setPaymentMethods(buildPaymentMethods());
-        response.setAdditionnalInformation(buildAdditionalInfo());
-        response.setAddressesDetail(buildAddressDetail(data.customerCode));
-        response.setPhoneNumbers(buildPhoneNumbers(data.customerCode, data.displayName, data.phoneNumber));
-        response.setActiveProfile(buildActiveProfile());
+        new SyntheticCustomerGenerator(seed).generate(count, partition::owns).forEach(this::registerCustomer);
 
-        return response;
+        System.out.println("✅ " + (customerSnapshots.size() - before) + " clients synthétiques chargés en "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
     }
 
-    private CustomerIndividualSpecInfo buildIndividualInfo(BankingCustomerData data) throws Exception {
-        CustomerIndividualSpecInfo individualInfo = new CustomerIndividualSpecInfo();
-
-        CustomerIndividualGeneralInfo generalInfo = new CustomerIndividualGeneralInfo();
-        generalInfo.setFirstname(data.firstname);
-
-        FamilyStatus familyStatus = new FamilyStatus();
-        familyStatus.setCode("M");
-        familyStatus.setDesignation("MARIE(E)");
-        generalInfo.setFamilyStatusCode(familyStatus);
-
-        individualInfo.setIndividualGeneralInfo(generalInfo);
-
-        CustomerBirth birth = new CustomerBirth();
-        birth.setHolderSex(data.sex);
-        birth.setBirthDate(parseDate(data.birthDate));
-        birth.setBirthCity("MBADJI NDIOUFENE");
-        birth.setBirthCounty("001");
-
-        Country birthCountry = new Country();
-        birthCountry.setCode("686");
-        birthCountry.setDesignation("SENEGAL");
-        birth.setBirthCountry(birthCountry);
-
-        individualInfo.setBirth(birth);
-
-        CustomerIdPaper idPaper = new CustomerIdPaper();
-        IdPaperType idType = new IdPaperType();
-        idType.setCode("00001");
-        idType.setDesignation("CARTE NATIONALE D'IDENTITE");
-        idPaper.setType(idType);
-        idPaper.setIdPaperNumber("1210200101280");
-        idPaper.setIdPaperDeliveryDate(parseDate("2017-02-25"));
-        idPaper.setOrganisationWhichDeliver("MINT");
-        idPaper.setIdPaperValidityDate(parseDate("2027-02-24"));
-
-        individualInfo.setIdPaper(idPaper);
-
-        CustomerTerritoriality territoriality = new CustomerTerritoriality();
-        TerritorialityCode territorialityCode = new TerritorialityCode();
-        territorialityCode.setCode("0");
-        territorialityCode.setDesignation("SENEGAL");
-        territoriality.setTerritorialityCode(territorialityCode);
-        individualInfo.setTerritoriality(territoriality);
-
-        CustomerFamily family = new CustomerFamily();
-        family.setNumberOfChildren(0);
-        individualInfo.setFamily(family);
-
-        CustomerOtherAttributes otherAttributes = new CustomerOtherAttributes();
-        otherAttributes.setHolderMotherName(".............");
-        individualInfo.setOtherAttributes(otherAttributes);
-
-        return individualInfo;
+    /**
+     * Publie un nouveau client : instantané, filtre des codes, index des noms
+     */
+    private void registerCustomer(BankingCustomerData customer) {
+        customerSnapshots.put(customer.customerCode, buildSnapshot(customer, 1));
+        codeFilter.add(customer.customerCode);
+        nameIndex.index(customer.customerCode, customer.displayName, customer.customerType,
+                customer.lastname, customer.firstname);
     }
 
-    private CustomerCorporateSpecInfo buildCorporateInfo(BankingCustomerData data) throws Exception {
-        CustomerCorporateSpecInfo corporateInfo = new CustomerCorporateSpecInfo();
-
-        CustomerCorporateGeneralInfo generalInfo = new CustomerCorporateGeneralInfo();
-        generalInfo.setTradeNameToDeclare(data.lastname);
-        generalInfo.setCompanyCreationDate(parseDate(data.birthDate));
-
-        LegalForm legalForm = new LegalForm();
-        legalForm.setCode("SA");
-        legalForm.setDesignation("SOCIETE ANONYME");
-        generalInfo.setLegalFormCode(legalForm);
+    // ========================================
+    // MISES À JOUR
+    // ========================================
 
-        corporateInfo.setCorporateGeneralInfo(generalInfo);
-        return corporateInfo;
+    @Override
+    public boolean supportsUpdate() {
+        return true;
     }
 
-    private CustomerGeneralAttributes buildGeneralAttributes() {
-        CustomerGeneralAttributes attributes = new CustomerGeneralAttributes();
+    /**
+     * Met à jour l'adresse, le téléphone ou la situation d'un client (copy-on-write)
+     *
+     * Les lecteurs ne sont jamais bloqués : ils voient l'ancien ou le nouvel instantané.
+     * Les écrivains d'un même client sont sérialisés par computeIfPresent ; avec expectedETag
+     * (If-Match) la mise à jour est refusée si le client a changé entre-temps.
+     */
+    @Override
+    public UpdateResult updateCustomer(String customerCode, Map<String, String> changes,
+                                       boolean replaceAll, String expectedETag) {
+        BankingCustomerData.checkChanges(changes, replaceAll);
 
-        Branch branch = new Branch();
-        branch.setCode("00001");
-        branch.setDesignation("AGENCE TEST");
-        attributes.setBranchCode(branch);
+        CustomerSnapshot snapshot = customerSnapshots.computeIfPresent(customerCode, (code, current) -> {
+            if (expectedETag != null && !expectedETag.equals(current.getETag())) {
+                throw new CustomerVersionConflictException(code, current.getETag());
+            }
 
-        CustomerOfficer officer = new CustomerOfficer();
-        officer.setCode("002");
-        officer.setName("FAYE MARIANE");
-        attributes.setCustomerOfficer(officer);
+            BankingCustomerData updated = current.getData(); // copie décodée, modifiable
+            updated.applyChanges(changes);
+            if (updated.contentHash() == current.getContentHash()) {
+                return current;
+            }
+            return buildSnapshot(updated, current.getVersion() + 1);
+        });
+        if (snapshot == null) {
+            return null;
+        }
 
-        attributes.setTaxableCustomer(true);
-        return attributes;
+        System.out.println("✅ Client mis à jour: " + customerCode + " (version " + snapshot.getVersion() + ")");
+        return new UpdateResult(snapshot.getVersion(), snapshot.getContentHash());
     }
 
-    private CustomerReportingAttributes buildReportingAttributes() {
-        CustomerReportingAttributes reporting = new CustomerReportingAttributes();
-
-        DeclaredHome home = new DeclaredHome();
-        home.setCode("007");
-        home.setDesignation("RESIDENTS UMOA");
-        reporting.setDeclaredHome(home);
-
-        CustomerActivityField activity = new CustomerActivityField();
-        activity.setCode("60115");
-        activity.setDesignation("Commerce, restaurant, hotel");
-        reporting.setActivityFieldCode(activity);
-
-        reporting.setGradingAgreement("N");
-        reporting.setGradingAgreementAmount(new BigDecimal("0.0000"));
-        reporting.setSecurityIssuer("N");
-        reporting.setInternationalOperationsIndicator("N");
-
-        CustomerCreditInfoCentre creditInfo = new CustomerCreditInfoCentre();
-        reporting.setCreditInfoCentre(creditInfo);
-
-        return reporting;
+    private CustomerSnapshot buildSnapshot(BankingCustomerData customer, long version) {
+        return new CustomerSnapshot(customer, recordCodec, version, customer.contentHash());
     }
 
-    private CustomerPaymentMethods buildPaymentMethods() {
-        CustomerPaymentMethods payment = new CustomerPaymentMethods();
-        payment.setChequeBookFacilitySuspension("N");
-        payment.setWithdrawalOfCreditCard("N");
-        return payment;
+    private GetCustomerDetailResponse buildFullResponse(CustomerSnapshot snapshot) {
+        BankingCustomerData customer = snapshot.getData();
+        try {
+            return responseBuilder.buildCustomerResponse(customer, CustomerSection.ALL);
+        } catch (Exception e) {
+            throw new IllegalStateException("Erreur construction instantané " + customer.customerCode
+                    + ": " + e.getMessage(), e);
+        }
     }
 
-    private CustomerAdditionalInformation buildAdditionalInfo() throws Exception {
-        CustomerAdditionalInformation additional = new CustomerAdditionalInformation();
-        additional.setDeletionCode("N");
-        additional.setUserWhoCreated("REPRISE");
-        additional.setCreationDate(parseDate("2019-02-02"));
-        additional.setModificationSheetNumber(new BigDecimal("0"));
-        additional.setRealTimeTransferCode("N");
-        return additional;
+    private void simulateDelay(int milliseconds) {
+        try {
+            Thread.sleep(milliseconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
-    private GetCustomerAddressDetailResponse buildAddressDetail(String customerCode) {
-        GetCustomerAddressDetailResponse addressResponse = new GetCustomerAddressDetailResponse();
-
-        CustomerAddressDetail address = new CustomerAddressDetail();
-
-        CustomerAddressDetailIdentifier identifier = new CustomerAddressDetailIdentifier();
-        identifier.setCustomerCode(customerCode);
-
-        AddressType addressType = new AddressType();
-        addressType.setCode("D");
-        addressType.setDesignation("Adresse declarative client");
-        identifier.setAddressType(addressType);
-        address.setIdentifier(identifier);
-
-        Language language = new Language();
-        language.setCode("001");
-        language.setDesignation("Francais");
-        address.setLanguage(language);
-
-        AddressFormat format = new AddressFormat();
-        format.setCode("GE");
-        format.setDesignation("Geographique");
-        address.setAddressFormat(format);
-
-        address.setAddressLine1("Grand Dakar, Dakar");
-        address.setAddressLine2("GRAND DAKAR 2 PARCELLE N 200");
-        address.setCity("DAKAR");
-        address.setPostalCode("0000");
-        address.setPoBox("0000");
-
-        Country country = new Country();
-        country.setCode("686");
-        country.setDesignation("SENEGAL");
-        address.setCountryCode(country);
-
-        Branch branch = new Branch();
-        branch.setCode("00001");
-        branch.setDesignation("AGENCE TEST");
-        address.setCounterCode(branch);
-
-        address.setNumberOfReturnMailsForWrongAddress(0);
-        address.setCounty("Grand Dakar");
-        address.setRegion("DAKAR");
-
-        addressResponse.getCustomerAddressDetail().add(address);
-        return addressResponse;
+    // MÉTHODES PUBLIQUES POUR MONITORING
+    public int getMockCustomersCount() {
+        return customerSnapshots.size();
     }
 
-    private GetCustomerPhoneNumberListResponse buildPhoneNumbers(String customerCode, String displayName, String phoneNumber) {
-        GetCustomerPhoneNumberListResponse phoneResponse = new GetCustomerPhoneNumberListResponse();
-
-        CustomerPhoneNumber phone = new CustomerPhoneNumber();
-
-        RestrictedCustomer customer = new RestrictedCustomer();
-        customer.setCustomerNumber(customerCode);
-        customer.setDisplayedName(displayName);
-        phone.setCustomer(customer);
-
-        PhoneType phoneType = new PhoneType();
-        phoneType.setCode("001");
-        phoneType.setDesignation("TELEPHONE MOBILE 1");
-        phone.setPhoneType(phoneType);
-
-        phone.setPhoneNumber(phoneNumber);
-
-        phoneResponse.getCustomerPhoneNumber().add(phone);
-        return phoneResponse;
+    @Override
+    public int customerCount() {
+        return getMockCustomersCount();
     }
 
-    private GetCustomerActiveProfileResponse buildActiveProfile() {
-        GetCustomerActiveProfileResponse profileResponse = new GetCustomerActiveProfileResponse();
-
-        CustomerProfile profile = new CustomerProfile();
-        profile.setCode("101");
-        profile.setDesignation("PART A REV INDETERMINE");
-
-        profileResponse.setActiveProfile(profile);
-        return profileResponse;
+    /**
+     * Instantané en lecture seule d'un client, ou null si le code est inconnu
+     */
+    public CustomerSnapshot getCustomerSnapshot(String customerCode) {
+        return customerSnapshots.get(customerCode);
     }
 
-    private GetCustomerDetailResponse buildDefaultCustomer(String customerCode) throws Exception {
-        GetCustomerDetailResponse defaultCustomer = new GetCustomerDetailResponse();
-
-        defaultCustomer.setCustomerCode(customerCode);
-        defaultCustomer.setCustomerType("1");
-        defaultCustomer.setLastname("CLIENT_INCONNU");
-        defaultCustomer.setNameToReturn("CLIENT INCONNU " + customerCode);
-
-        Language language = new Language();
-        language.setCode("001");
-        language.setDesignation("Francais");
-        defaultCustomer.setLanguage(language);
-
-        return defaultCustomer;
+    /**
+     * Vue REST de la réponse complète si elle provient du cache (calculée une fois par entrée), sinon null
+     */
+    @Override
+    public CustomerView getCachedView(GetCustomerDetailResponse detail,
+                                      Function<GetCustomerDetailResponse, CustomerView> converter) {
+        CustomerDetailCache.Entry entry = cachedEntry(detail);
+        return entry == null ? null : entry.getView(converter);
     }
 
-    // ========================================
-    // MÉTHODES UTILITAIRES
-    // ========================================
-
-    private ResponseHeader createResponseHeader(String requestId) throws Exception {
-        ResponseHeader header = new ResponseHeader();
-        header.setRequestId(requestId);
-        header.setResponseId("MOCK_" + requestCounter.getAndIncrement());
-        header.setTimestamp(createXMLTimestamp(LocalDateTime.now()));
-        header.setServiceVersion("V1.0");
-
-        Language language = new Language();
-        language.setCode("001");
-        language.setDesignation("Francais");
-        header.setLanguage(language);
-
-        return header;
+    /**
+     * Indique, sans rien construire, si la vue REST de cette réponse est déjà en cache
+     */
+    @Override
+    public boolean hasCachedView(GetCustomerDetailResponse detail) {
+        CustomerDetailCache.Entry entry = cachedEntry(detail);
+        return entry != null && entry.hasView();
     }
 
-    private ResponseStatus createSuccessStatus() {
-        ResponseStatus status = new ResponseStatus();
-        status.setStatusCode("0");
-        return status;
+    private CustomerDetailCache.Entry cachedEntry(GetCustomerDetailResponse detail) {
+        String customerCode = detail.getCustomerCode();
+        CustomerSnapshot snapshot = customerCode == null ? null : customerSnapshots.get(customerCode);
+        CustomerDetailCache.Entry entry = snapshot == null ? null : detailCache.get(customerCode, snapshot);
+        return entry != null && entry.getDetail() == detail ? entry : null;
     }
 
-    private GetCustomerDetailResponseFlow buildErrorResponse(String requestId, String errorMessage) {
-        try {
-            GetCustomerDetailResponseFlow errorResponse = new GetCustomerDetailResponseFlow();
-
-            ResponseHeader header = createResponseHeader(requestId);
-            errorResponse.setResponseHeader(header);
-
-            ResponseStatus status = new ResponseStatus();
-            status.setStatusCode("-1");
-
-            ResponseStatusMessages messages = new ResponseStatusMessages();
-            ResponseStatusMessage message = new ResponseStatusMessage();
-            message.setNature(ResponseMessageNature.ERROR);
-            message.setCode("ERR001");
-            message.getLine().add(errorMessage);
-            messages.getMessage().add(message);
-            status.setMessages(messages);
-
-            errorResponse.setResponseStatus(status);
+    @Override
+    public boolean hasCustomer(String customerCode) {
+        return customerSnapshots.containsKey(customerCode);
+    }
 
-            return errorResponse;
+    @Override
+    public String getCustomerETag(String customerCode) {
+        CustomerSnapshot snapshot = customerSnapshots.get(customerCode);
+        return snapshot == null ? null : snapshot.getETag();
+    }
 
-        } catch (Exception e) {
-            System.err.println("Erreur création réponse d'erreur: " + e.getMessage());
-            return new GetCustomerDetailResponseFlow();
-        }
+    @Override
+    public CustomerCodeFilter getCustomerCodeFilter() {
+        return codeFilter;
     }
 
-    private XMLGregorianCalendar createXMLTimestamp(LocalDateTime dateTime) throws Exception {
-        GregorianCalendar gcal = GregorianCalendar.from(dateTime.atZone(ZoneId.systemDefault()));
-        return DatatypeFactory.newInstance().newXMLGregorianCalendar(gcal);
+    /**
+     * Recherche paginée par nom, prénom ou raison sociale (préfixe ou approchée)
+     */
+    public CustomerNameIndex.SearchPage searchCustomersByName(String name, int page, int size) {
+        return nameIndex.search(name, page, size);
     }
 
-    private XMLGregorianCalendar parseDate(String dateStr) throws Exception {
-        String[] parts = dateStr.split("-");
-        int year = Integer.parseInt(parts[0]);
-        int month = Integer.parseInt(parts[1]);
-        int day = Integer.parseInt(parts[2]);
+    /**
+     * Empreinte des données encodées : taille du dictionnaire, octets par client
+     */
+    public Map<String, Object> getRecordStats() {
+        long totalBytes = 0;
+        for (CustomerSnapshot snapshot : customerSnapshots.values()) {
+            totalBytes += snapshot.getRecordSize();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("customers", customerSnapshots.size());
+        stats.put("dictionaryValues", recordCodec.dictionarySize());
+        stats.put("recordBytes", totalBytes);
+        stats.put("averageRecordBytes", customerSnapshots.isEmpty() ? 0 : totalBytes / customerSnapshots.size());
+        stats.put("cachedDetails", detailCache.size());
+        stats.put("detailCacheSize", detailCache.getMaxEntries());
+        return stats;
+    }
 
-        LocalDateTime dateTime = LocalDateTime.of(year, month, day, 0, 0);
-        return createXMLTimestamp(dateTime);
+    public Set<String> getAvailableCustomerCodes() {
+        return customerSnapshots.keySet();
     }
 
-    private void simulateDelay(int milliseconds) {
-        try {
-            Thread.sleep(milliseconds);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    @Override
+    public BankingCustomerData findCustomer(String customerCode) {
+        CustomerSnapshot snapshot = customerSnapshots.get(customerCode);
+        return snapshot == null ? null : snapshot.getData();
     }
 
-    // MÉTHODES PUBLIQUES POUR MONITORING
-    public int getMockCustomersCount() {
-        return mockCustomers.size();
+    @Override
+    public void forEachCustomer(Consumer<BankingCustomerData> action) {
+        customerSnapshots.values().forEach(snapshot -> action.accept(snapshot.getData()));
     }
 
-    public Set<String> getAvailableCustomerCodes() {
-        return mockCustomers.keySet();
+    /**
+     * Vue en lecture seule des instantanés, sans copie (itération faiblement cohérente pendant les mises à jour)
+     */
+    public Collection<CustomerSnapshot> getCustomerSnapshots() {
+        return Collections.unmodifiableCollection(customerSnapshots.values());
     }
 
     public void printMockStatus() {
-        System.out.println("🏦 BANKING MOCK STATUS: " + mockCustomers.size() + " clients");
-        mockCustomers.forEach((code, data) ->
-                System.out.println("  - " + code + ": " + data.displayName)
+        System.out.println("🏦 BANKING MOCK STATUS: " + customerSnapshots.size() + " clients");
+        customerSnapshots.values().stream().limit(STATUS_PRINT_LIMIT).forEach(snapshot ->
+                System.out.println("  - " + snapshot.getData().customerCode + ": " + snapshot.getData().displayName)
         );
     }
-
-    // CLASSE INTERNE POUR DONNÉES
-    private static class BankingCustomerData {
-        String customerCode;
-        String lastname;
-        String firstname;
-        String customerType;
-        String displayName;
-        String sex;
-        String birthDate;
-        String nationality;
-        String phoneNumber;
-    }
-}
+}
\ No newline at end of file
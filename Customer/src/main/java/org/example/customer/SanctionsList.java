@@ -0,0 +1,169 @@
+package org.example.customer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Liste de sanctions chargée depuis un fichier local, prête pour le criblage
+ *
+ * Format : une entrée par ligne "identifiant;nom complet;date de naissance;nationalité"
+ * (date AAAA-MM-JJ ou AAAA, champs optionnels vides). Les lignes vides et "#..." sont ignorées.
+ * Un alias se déclare sur une ligne séparée avec le même identifiant.
+ */
+final class SanctionsList {
+
+    // Pondération du score : nom, date de naissance, nationalité
+    private static final double NAME_WEIGHT = 0.7;
+    private static final double BIRTH_DATE_WEIGHT = 0.2;
+    private static final double NATIONALITY_WEIGHT = 0.1;
+
+    record Entry(String id, String name, String birthDate, String nationality, int tokenCount) {
+    }
+
+    /**
+     * Correspondance entre un client et une entrée de la liste
+     */
+    record Match(Entry entry, double score, double nameScore, boolean birthDateMatch, boolean nationalityMatch) {
+    }
+
+    private final List<Entry> entries;
+    private final int[][] tokenEntries; // identifiant de jeton → indices des entrées qui le contiennent
+    private final SanctionsTokenMatcher matcher;
+    private final long lastModified;
+
+    private SanctionsList(List<Entry> entries, int[][] tokenEntries, SanctionsTokenMatcher matcher, long lastModified) {
+        this.entries = entries;
+        this.tokenEntries = tokenEntries;
+        this.matcher = matcher;
+        this.lastModified = lastModified;
+    }
+
+    static SanctionsList load(Path path) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        Map<String, Integer> tokenIds = new HashMap<>();
+        List<List<Integer>> postings = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(";", -1);
+                if (columns.length < 2 || columns[1].isBlank()) {
+                    throw new IOException("Liste de sanctions invalide, ligne " + lineNumber + ": " + line);
+                }
+
+                List<String> tokens = new ArrayList<>(new LinkedHashSet<>(CustomerNameIndex.tokenize(columns[1])));
+                if (tokens.isEmpty()) {
+                    continue;
+                }
+                int entryIndex = entries.size();
+                entries.add(new Entry(
+                        columns[0].trim(),
+                        columns[1].trim(),
+                        columns.length > 2 ? columns[2].trim() : "",
+                        columns.length > 3 ? normalize(columns[3]) : "",
+                        tokens.size()
+                ));
+                for (String token : tokens) {
+                    int tokenId = tokenIds.computeIfAbsent(token, t -> {
+                        postings.add(new ArrayList<>());
+                        return postings.size() - 1;
+                    });
+                    postings.get(tokenId).add(entryIndex);
+                }
+            }
+        }
+
+        String[] tokens = new String[tokenIds.size()];
+        tokenIds.forEach((token, id) -> tokens[id] = token);
+        int[][] tokenEntries = new int[postings.size()][];
+        for (int i = 0; i < tokenEntries.length; i++) {
+            tokenEntries[i] = postings.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        return new SanctionsList(List.copyOf(entries), tokenEntries,
+                new SanctionsTokenMatcher(Arrays.asList(tokens)), Files.getLastModifiedTime(path).toMillis());
+    }
+
+    /**
+     * Entrées correspondant au client avec un score au moins égal à minScore
+     */
+    List<Match> screen(BankingCustomerData customer, double minScore) {
+        StringBuilder text = new StringBuilder(" ");
+        for (String name : new String[]{customer.lastname, customer.firstname, customer.displayName}) {
+            for (String token : CustomerNameIndex.tokenize(name)) {
+                text.append(token).append(' ');
+            }
+        }
+
+        BitSet matchedTokens = matcher.matchTokens(text.toString());
+        if (matchedTokens.isEmpty()) {
+            return List.of();
+        }
+
+        // Nombre de jetons retrouvés par entrée
+        Map<Integer, Integer> matchedCounts = new HashMap<>();
+        for (int tokenId = matchedTokens.nextSetBit(0); tokenId >= 0; tokenId = matchedTokens.nextSetBit(tokenId + 1)) {
+            for (int entryIndex : tokenEntries[tokenId]) {
+                matchedCounts.merge(entryIndex, 1, Integer::sum);
+            }
+        }
+
+        String customerNationality = normalize(customer.nationality);
+        List<Match> matches = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> counted : matchedCounts.entrySet()) {
+            Entry entry = entries.get(counted.getKey());
+            double nameScore = (double) counted.getValue() / entry.tokenCount();
+            boolean birthDateMatch = matchesBirthDate(entry.birthDate(), customer.birthDate);
+            boolean nationalityMatch = !entry.nationality().isEmpty() && entry.nationality().equals(customerNationality);
+
+            double score = NAME_WEIGHT * nameScore
+                    + (birthDateMatch ? BIRTH_DATE_WEIGHT : 0)
+                    + (nationalityMatch ? NATIONALITY_WEIGHT : 0);
+            if (score >= minScore) {
+                matches.add(new Match(entry, Math.round(score * 1000) / 1000.0,
+                        Math.round(nameScore * 1000) / 1000.0, birthDateMatch, nationalityMatch));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::score).reversed());
+        return matches;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    int tokenCount() {
+        return tokenEntries.length;
+    }
+
+    int automatonStates() {
+        return matcher.stateCount();
+    }
+
+    long lastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Date complète identique, ou seulement l'année si la liste ne donne que l'année
+     */
+    private static boolean matchesBirthDate(String listed, String customerBirthDate) {
+        if (listed.isEmpty() || customerBirthDate == null) {
+            return false;
+        }
+        return listed.length() == 4 ? customerBirthDate.startsWith(listed) : listed.equals(customerBirthDate);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : String.join(" ", CustomerNameIndex.tokenize(value));
+    }
+}
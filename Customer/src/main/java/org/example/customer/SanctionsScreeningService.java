@@ -0,0 +1,261 @@
+package org.example.customer;
+
+import org.example.customer.rest.CustomerRestMapper;
+import org.example.customer.rest.CustomerView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Criblage de la base clients contre une liste de sanctions locale
+ *
+ * - la liste est rechargée automatiquement si le fichier a changé depuis le dernier criblage
+ * - le criblage complet tourne en tâche de fond, réparti par fork-join sur tous les cœurs
+ * - les clients du backend actif sont lus par tranches : seules les tranches en cours sont en mémoire
+ * - un seul criblage complet à la fois ; le dernier rapport reste consultable
+ */
+@Service
+public class SanctionsScreeningService {
+
+    // Taille des lots traités sans nouvelle division
+    private static final int FORK_THRESHOLD = 512;
+    // Clients lus avant de lancer une tranche, et tranches en cours au plus
+    private static final int CHUNK_SIZE = 8 * FORK_THRESHOLD;
+    private static final int MAX_PENDING_CHUNKS = 2 * ForkJoinPool.getCommonPoolParallelism() + 1;
+
+    /**
+     * Client signalé : scores, contexte FATCA / CRS du client
+     */
+    public record Hit(String customerCode, String customerName, String customerType,
+                      String listEntryId, String listEntryName, double score, double nameScore,
+                      boolean birthDateMatch, boolean nationalityMatch,
+                      String fatcaStatus, String crsStatus) {
+    }
+
+    public record Report(String status, int listEntries, int customersScreened, int totalHits,
+                         List<Hit> hits, long startedAt, long durationMs, String error) {
+    }
+
+    @Autowired
+    private MockBankingCustomerService bankingService;
+
+    // Backend actif : ses clients sont criblés s'il détient ses données, sinon ceux du Mock
+    @Autowired
+    private GetCustomerDetailService customerDetailService;
+
+    @Autowired
+    private CustomerRestMapper customerRestMapper;
+
+    @Value("${banking.sanctions.list.path:sanctions/sanctions-list.csv}")
+    private String listPath;
+
+    @Value("${banking.sanctions.min-score:0.7}")
+    private double minScore;
+
+    private final CustomerResponseBuilder responseBuilder = new CustomerResponseBuilder();
+    private final AtomicReference<SanctionsList> sanctionsList = new AtomicReference<>();
+    private final AtomicReference<Report> lastReport = new AtomicReference<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sanctions-screening");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Lance un criblage complet en tâche de fond - false si un criblage est déjà en cours
+     */
+    public boolean startFullScreening() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        long startedAt = System.currentTimeMillis();
+        lastReport.set(new Report("RUNNING", 0, 0, 0, List.of(), startedAt, 0, null));
+
+        jobExecutor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                SanctionsList list = currentList();
+                AtomicInteger screened = new AtomicInteger();
+                List<Hit> hits = new ArrayList<>();
+                Deque<ForkJoinTask<List<Hit>>> pending = new ArrayDeque<>();
+                List<BankingCustomerData> chunk = new ArrayList<>(CHUNK_SIZE);
+
+                customerSource().forEachCustomer(customer -> {
+                    chunk.add(customer);
+                    if (chunk.size() == CHUNK_SIZE) {
+                        submitChunk(list, new ArrayList<>(chunk), pending, hits);
+                        screened.addAndGet(chunk.size());
+                        chunk.clear();
+                    }
+                });
+                if (!chunk.isEmpty()) {
+                    submitChunk(list, chunk, pending, hits);
+                    screened.addAndGet(chunk.size());
+                }
+                while (!pending.isEmpty()) {
+                    hits.addAll(pending.removeFirst().join());
+                }
+
+                lastReport.set(new Report("COMPLETED", list.size(), screened.get(), hits.size(), hits,
+                        startedAt, (System.nanoTime() - start) / 1_000_000, null));
+                System.out.println("✅ Criblage sanctions: " + screened.get() + " clients, "
+                        + hits.size() + " alertes en " + (System.nanoTime() - start) / 1_000_000 + " ms");
+
+            } catch (Exception e) {
+                System.err.println("❌ Erreur criblage sanctions: " + e.getMessage());
+                lastReport.set(new Report("FAILED", 0, 0, 0, List.of(), startedAt,
+                        (System.nanoTime() - start) / 1_000_000, e.getMessage()));
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Criblage immédiat d'un seul client - null si le client est inconnu
+     */
+    public List<Hit> screenCustomer(String customerCode) throws IOException {
+        BankingCustomerData customer = customerSource().findCustomer(customerCode);
+        return customer == null ? null : screen(currentList(), customer);
+    }
+
+    public Report getLastReport() {
+        return lastReport.get();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @PreDestroy
+    public void shutdownJobExecutor() {
+        jobExecutor.shutdownNow();
+    }
+
+    // ========================================
+    // LISTE ET CRIBLAGE
+    // ========================================
+
+    /**
+     * Liste en cache, rechargée si le fichier a été modifié
+     */
+    private SanctionsList currentList() throws IOException {
+        Path path = Path.of(listPath);
+        if (!Files.exists(path)) {
+            throw new IOException("Liste de sanctions introuvable: " + path.toAbsolutePath());
+        }
+
+        SanctionsList list = sanctionsList.get();
+        if (list == null || list.lastModified() != Files.getLastModifiedTime(path).toMillis()) {
+            long start = System.nanoTime();
+            list = SanctionsList.load(path);
+            sanctionsList.set(list);
+            System.out.println("📋 Liste de sanctions chargée: " + list.size() + " entrées, "
+                    + list.tokenCount() + " jetons, " + list.automatonStates() + " états en "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+        return list;
+    }
+
+    private CustomerDataSource customerSource() {
+        return customerDetailService instanceof CustomerDataSource source ? source : bankingService;
+    }
+
+    /**
+     * Lance le criblage d'une tranche ; au-delà de MAX_PENDING_CHUNKS, attend la plus ancienne
+     */
+    private void submitChunk(SanctionsList list, List<BankingCustomerData> chunk,
+                             Deque<ForkJoinTask<List<Hit>>> pending, List<Hit> hits) {
+        pending.addLast(ForkJoinPool.commonPool().submit(new ScreeningTask(list, chunk, 0, chunk.size())));
+        if (pending.size() > MAX_PENDING_CHUNKS) {
+            hits.addAll(pending.removeFirst().join());
+        }
+    }
+
+    private List<Hit> screen(SanctionsList list, BankingCustomerData customer) {
+        List<SanctionsList.Match> matches = list.screen(customer, minScore);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        CustomerView.Fatca fatca = buildFatca(customer);
+        List<Hit> hits = new ArrayList<>(matches.size());
+        for (SanctionsList.Match match : matches) {
+            hits.add(new Hit(customer.customerCode, customer.displayName, customer.customerType,
+                    match.entry().id(), match.entry().name(), match.score(), match.nameScore(),
+                    match.birthDateMatch(), match.nationalityMatch(),
+                    fatca != null ? fatca.fatcaStatus() : null,
+                    fatca != null ? fatca.crsStatus() : null));
+        }
+        return hits;
+    }
+
+    /**
+     * Contexte FATCA / CRS d'un client signalé : seule la section FATCA est construite, rien n'est gardé en cache
+     */
+    private CustomerView.Fatca buildFatca(BankingCustomerData customer) {
+        try {
+            return customerRestMapper.toFatca(
+                    responseBuilder.buildCustomerResponse(customer, Set.of(CustomerSection.FATCA)).getFatca());
+        } catch (Exception e) {
+            throw new IllegalStateException("Erreur FATCA client " + customer.customerCode + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Découpe récursive de la liste des clients
+     */
+    private final class ScreeningTask extends RecursiveTask<List<Hit>> {
+
+        private final SanctionsList list;
+        private final List<BankingCustomerData> customers;
+        private final int from;
+        private final int to;
+
+        ScreeningTask(SanctionsList list, List<BankingCustomerData> customers, int from, int to) {
+            this.list = list;
+            this.customers = customers;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Hit> compute() {
+            if (to - from <= FORK_THRESHOLD) {
+                List<Hit> hits = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    hits.addAll(screen(list, customers.get(i)));
+                }
+                return hits;
+            }
+
+            int middle = (from + to) >>> 1;
+            ScreeningTask left = new ScreeningTask(list, customers, from, middle);
+            left.fork();
+            List<Hit> hits = new ScreeningTask(list, customers, middle, to).compute();
+            List<Hit> leftHits = left.join();
+            leftHits.addAll(hits);
+            return leftHits;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.customer;
+
+import java.util.*;
+
+/**
+ * Automate Aho-Corasick sur les jetons normalisés de la liste de sanctions
+ *
+ * Chaque jeton est recherché comme mot entier (" JETON ") dans le texte " NOM PRENOM ... ",
+ * en un seul passage quel que soit le nombre de jetons de la liste.
+ * Transitions stockées en tableaux compacts triés (CSR) : pas de table dense de 37 colonnes par état.
+ */
+final class SanctionsTokenMatcher {
+
+    private static final int ROOT = 0;
+
+    // Transitions de l'état s : childKeys / childTargets[childStart[s] .. childStart[s + 1])
+    private final int[] childStart;
+    private final char[] childKeys;
+    private final int[] childTargets;
+    private final int[] fail;
+    private final int[] output;      // identifiant du jeton reconnu dans cet état, -1 sinon
+    private final int[] outputLink;  // prochain état de sortie en suivant les liens d'échec, -1 sinon
+
+    /**
+     * @param tokens jetons distincts, l'indice dans la liste sert d'identifiant
+     */
+    SanctionsTokenMatcher(List<String> tokens) {
+        // 1. Trie temporaire
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        outputs.add(-1);
+
+        for (int tokenId = 0; tokenId < tokens.size(); tokenId++) {
+            String pattern = " " + tokens.get(tokenId) + " ";
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = trie.get(state).get(pattern.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    outputs.add(-1);
+                    trie.get(state).put(pattern.charAt(i), next);
+                }
+                state = next;
+            }
+            outputs.set(state, tokenId);
+        }
+
+        // 2. Gel en tableaux compacts
+        int stateCount = trie.size();
+        int edgeCount = 0;
+        for (TreeMap<Character, Integer> children : trie) {
+            edgeCount += children.size();
+        }
+        childStart = new int[stateCount + 1];
+        childKeys = new char[edgeCount];
+        childTargets = new int[edgeCount];
+        output = new int[stateCount];
+        int edge = 0;
+        for (int state = 0; state < stateCount; state++) {
+            childStart[state] = edge;
+            for (Map.Entry<Character, Integer> child : trie.get(state).entrySet()) {
+                childKeys[edge] = child.getKey();
+                childTargets[edge] = child.getValue();
+                edge++;
+            }
+            output[state] = outputs.get(state);
+        }
+        childStart[stateCount] = edge;
+
+        // 3. Liens d'échec en largeur
+        fail = new int[stateCount];
+        outputLink = new int[stateCount];
+        Arrays.fill(outputLink, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int e = childStart[ROOT]; e < childStart[ROOT + 1]; e++) {
+            fail[childTargets[e]] = ROOT;
+            queue.add(childTargets[e]);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int e = childStart[state]; e < childStart[state + 1]; e++) {
+                int child = childTargets[e];
+                int fallback = fail[state];
+                int target;
+                while ((target = transition(fallback, childKeys[e])) < 0 && fallback != ROOT) {
+                    fallback = fail[fallback];
+                }
+                fail[child] = target >= 0 && target != child ? target : ROOT;
+                outputLink[child] = output[fail[child]] >= 0 ? fail[child] : outputLink[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Identifiants distincts des jetons de la liste présents comme mots entiers dans le texte
+     *
+     * @param text jetons normalisés séparés par un espace, encadrés d'espaces
+     */
+    BitSet matchTokens(String text) {
+        BitSet matched = new BitSet();
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = transition(state, c)) < 0 && state != ROOT) {
+                state = fail[state];
+            }
+            state = next < 0 ? ROOT : next;
+
+            for (int s = output[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                matched.set(output[s]);
+            }
+        }
+        return matched;
+    }
+
+    int stateCount() {
+        return output.length;
+    }
+
+    private int transition(int state, char c) {
+        int low = childStart[state];
+        int high = childStart[state + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char key = childKeys[middle];
+            if (key < c) {
+                low = middle + 1;
+            } else if (key > c) {
+                high = middle - 1;
+            } else {
+                return childTargets[middle];
+            }
+        }
+        return -1;
+    }
+}
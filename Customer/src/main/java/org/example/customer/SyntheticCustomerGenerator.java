@@ -0,0 +1,183 @@
+package org.example.customer;
+
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Générateur déterministe de clients synthétiques pour les tests de volumétrie
+ *
+ * Chaque client dépend uniquement de (graine, indice) : le jeu de données est identique
+ * quel que soit le nombre de cœurs utilisés pour le produire.
+ * Codes clients sur 8 chiffres à partir de 20000000 (pas de collision avec les clients Mock 001xxxxx).
+ */
+final class SyntheticCustomerGenerator {
+
+    static final int MAX_CUSTOMERS = 10_000_000;
+    private static final int FIRST_CODE = 20_000_000;
+    private static final double CORPORATE_SHARE = 0.12;
+
+    private static final String[] LASTNAMES = {
+            "DIOP", "NDIAYE", "FALL", "SOW", "DIALLO", "BA", "GUEYE", "FAYE", "MBAYE", "SARR",
+            "CISSE", "DIOUF", "NIANG", "SECK", "THIAM", "KANE", "TOURE", "CAMARA", "SY", "WADE",
+            "NDOYE", "MBENGUE", "SALL", "DIENG", "LO", "KA", "DIAGNE", "SENE", "NDOUR", "TALL",
+            "SAMB", "BADJI", "DIATTA", "SANE", "MANE", "COLY", "MENDY", "GOMIS", "KEITA", "TRAORE",
+            "COULIBALY", "KONATE", "BALDE", "BARRY", "SOUMARE", "DIAKHATE", "NDIONE", "DIONE", "DIEME", "CISSOKHO"
+    };
+    private static final String[] MALE_FIRSTNAMES = {
+            "MAMADOU", "MOUSSA", "IBRAHIMA", "OUSMANE", "CHEIKH", "ABDOULAYE", "MODOU", "AMADOU", "ALIOU", "BABACAR",
+            "PAPA", "SERIGNE", "ABLAYE", "MOUHAMED", "ELHADJI", "ALASSANE", "LAMINE", "IDRISSA", "MALICK", "OMAR"
+    };
+    private static final String[] FEMALE_FIRSTNAMES = {
+            "FATOU", "AMINATA", "AISSATOU", "MARIAMA", "KHADY", "AWA", "NDEYE", "COUMBA", "ADAMA", "BINETA",
+            "ASTOU", "RAMATOULAYE", "SOKHNA", "MAIMOUNA", "DIARRA", "YACINE", "ROKHAYA", "SALIMATA", "ANTA", "MARIE"
+    };
+    private static final String[] COMPANY_ACTIVITIES = {
+            "TRANSPORT", "IMPORT EXPORT", "BTP", "AGRO", "TELECOM", "SERVICES", "COMMERCE", "PECHE",
+            "IMMOBILIER", "DISTRIBUTION", "INFORMATIQUE", "TEXTILE", "LOGISTIQUE", "ENERGIE", "SANTE"
+    };
+    private static final String[] COMPANY_PREFIXES = {
+            "SENEGAL", "DAKAR", "AFRIQUE", "SAHEL", "TERANGA", "ATLANTIQUE", "GLOBAL", "CAP VERT", "NOUVELLE", "WEST AFRICA"
+    };
+    private static final String[] LEGAL_FORMS = {"SARL", "SA", "SUARL", "SAS", "GIE"};
+    private static final String[] QUARTERS = {
+            "MEDINA", "HLM", "PARCELLES ASSAINIES", "SICAP LIBERTE", "OUAKAM", "YOFF", "GRAND DAKAR",
+            "MERMOZ", "FANN", "POINT E", "SACRE COEUR", "KEUR MASSAR", "CENTRE VILLE", "ESCALE"
+    };
+    private static final String[] MOBILE_PREFIXES = {"77", "78", "76", "70", "75"};
+
+    // Distributions pondérées : nationalité, agence
+    private static final String[] NATIONALITIES = {
+            "SENEGALAIS", "MALIEN", "GUINEEN", "FRANCAIS", "MAURITANIEN", "IVOIRIEN", "GAMBIEN", "LIBANAIS"
+    };
+    private static final double[] NATIONALITY_WEIGHTS = {82, 4, 4, 3, 2, 2, 2, 1};
+    private static final BankingBranch[] BRANCHES = BankingBranch.values();
+    private static final double[] BRANCH_WEIGHTS = {1, 16, 12, 10, 8, 7, 9, 7, 8, 6, 9, 7};
+
+    private static final double[] LASTNAME_CUMULATIVE = zipfCumulative(LASTNAMES.length);
+    private static final double[] NATIONALITY_CUMULATIVE = cumulative(NATIONALITY_WEIGHTS);
+    private static final double[] BRANCH_CUMULATIVE = cumulative(BRANCH_WEIGHTS);
+
+    private final long seed;
+
+    SyntheticCustomerGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Flux parallèle de count clients (toujours les mêmes pour une même graine)
+     */
+    Stream<BankingCustomerData> generate(int count) {
+        return generate(count, code -> true);
+    }
+
+    /**
+     * Seulement les clients dont le code est retenu (partition) - les autres ne sont pas construits
+     */
+    Stream<BankingCustomerData> generate(int count, Predicate<String> codeFilter) {
+        if (count < 0 || count > MAX_CUSTOMERS) {
+            throw new IllegalArgumentException("Nombre de clients synthétiques invalide: " + count
+                    + " (maximum " + MAX_CUSTOMERS + ")");
+        }
+        return IntStream.range(0, count).parallel()
+                .filter(index -> codeFilter.test(customerCode(index)))
+                .mapToObj(this::customer);
+    }
+
+    static String customerCode(int index) {
+        return Integer.toString(FIRST_CODE + index);
+    }
+
+    BankingCustomerData customer(int index) {
+        SplittableRandom random = new SplittableRandom(mix(seed + index * 0x9E3779B97F4A7C15L));
+        BankingCustomerData customer = new BankingCustomerData();
+        customer.customerCode = customerCode(index);
+
+        if (random.nextDouble() < CORPORATE_SHARE) {
+            String tradeName = pick(random, COMPANY_PREFIXES) + " " + pick(random, COMPANY_ACTIVITIES);
+            customer.customerType = "2";
+            customer.lastname = tradeName + " " + pick(random, LEGAL_FORMS);
+            customer.firstname = pick(random, LASTNAMES);
+            customer.sex = "C";
+            customer.birthDate = randomDate(random, 1960, 2024);
+        } else {
+            boolean male = random.nextBoolean();
+            customer.customerType = "1";
+            customer.lastname = LASTNAMES[weighted(random, LASTNAME_CUMULATIVE)];
+            customer.firstname = pick(random, male ? MALE_FIRSTNAMES : FEMALE_FIRSTNAMES);
+            customer.sex = male ? "M" : "F";
+            customer.birthDate = randomDate(random, 1940, 2006);
+        }
+        customer.displayName = customer.lastname + " " + customer.firstname;
+        customer.nationality = NATIONALITIES[weighted(random, NATIONALITY_CUMULATIVE)];
+
+        BankingBranch branch = BRANCHES[weighted(random, BRANCH_CUMULATIVE)];
+        customer.branchCode = branch.getCode();
+        customer.countryOfResidence = random.nextDouble() < 0.95 ? "SENEGAL" : "FRANCE";
+        String quarter = pick(random, QUARTERS);
+        customer.addressLine1 = quarter + ", " + branch.getCity();
+        customer.addressLine2 = quarter + " PARCELLE N " + (1 + random.nextInt(999));
+        customer.city = branch.getCity();
+        customer.postalCode = Integer.toString(10_000 + random.nextInt(20_000));
+        customer.phoneNumber = "+221" + pick(random, MOBILE_PREFIXES) + (1_000_000 + random.nextInt(9_000_000));
+        return customer;
+    }
+
+    // ========================================
+    // TIRAGES
+    // ========================================
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static int weighted(SplittableRandom random, double[] cumulative) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] <= target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String randomDate(SplittableRandom random, int fromYear, int toYear) {
+        int year = fromYear + random.nextInt(toYear - fromYear + 1);
+        int month = 1 + random.nextInt(12);
+        int day = 1 + random.nextInt(28);
+        return year + (month < 10 ? "-0" : "-") + month + (day < 10 ? "-0" : "-") + day;
+    }
+
+    /**
+     * Noms de famille : loi de Zipf, les premiers de la liste sont les plus fréquents
+     */
+    private static double[] zipfCumulative(int size) {
+        double[] weights = new double[size];
+        for (int i = 0; i < size; i++) {
+            weights[i] = 1.0 / (i + 1);
+        }
+        return cumulative(weights);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.customer.rest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+/**
+ * Réponse REST du détail client : vue client (partagée) + métadonnées propres à la requête
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CustomerDetailResponse(
+        @JsonUnwrapped CustomerView customer,
+        String responseId,
+        XMLGregorianCalendar timestamp,
+        String serviceVersion,
+        String statusCode,
+        String error
+) {
+}
@@ -0,0 +1,79 @@
+package org.example.customer.rest;
+
+import org.example.customer.client.*;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Mapper SOAP -> REST du détail client, implémentation générée à la compilation par MapStruct
+ */
+@Mapper(componentModel = "spring")
+public interface CustomerRestMapper {
+
+    @Mapping(target = "title", source = "titleCode")
+    @Mapping(target = "nationality", source = "situation.nationalityCode")
+    @Mapping(target = "firstname", source = "specificInformation.individualSpecInfo.individualGeneralInfo.firstname")
+    @Mapping(target = "familyStatus", source = "specificInformation.individualSpecInfo.individualGeneralInfo.familyStatusCode")
+    @Mapping(target = "birth", source = "specificInformation.individualSpecInfo.birth")
+    @Mapping(target = "idPaper", source = "specificInformation.individualSpecInfo.idPaper")
+    @Mapping(target = "addresses", source = "addressesDetail")
+    @Mapping(target = "activeProfile", source = "activeProfile.activeProfile")
+    // project(sections) est une projection, pas une propriété (MapStruct la prend pour un setter fluide)
+    @Mapping(target = "project", ignore = true)
+    CustomerView toCustomerView(GetCustomerDetailResponse detail);
+
+    CustomerView.CodeLabel toCodeLabel(TitleCode titleCode);
+
+    CustomerView.CodeLabel toCodeLabel(Nationality nationality);
+
+    CustomerView.CodeLabel toCodeLabel(FamilyStatus familyStatus);
+
+    CustomerView.CodeLabel toCodeLabel(Branch branch);
+
+    CustomerView.CodeLabel toCodeLabel(CustomerProfile profile);
+
+    CustomerView.Officer toOfficer(CustomerOfficer officer);
+
+    @Mapping(target = "fatcaStatus", source = "fatcaStatus.fatcaStatusCode")
+    @Mapping(target = "crsStatus", source = "crsStatus.crsStatusCode")
+    CustomerView.Fatca toFatca(CustomerFatca fatca);
+
+    @Mapping(target = "sex", source = "holderSex")
+    CustomerView.Birth toBirth(CustomerBirth birth);
+
+    @Mapping(target = "number", source = "idPaperNumber")
+    @Mapping(target = "deliveryDate", source = "idPaperDeliveryDate")
+    @Mapping(target = "validityDate", source = "idPaperValidityDate")
+    @Mapping(target = "type", source = "type.designation")
+    CustomerView.IdPaper toIdPaper(CustomerIdPaper idPaper);
+
+    @Mapping(target = "branch", source = "branchCode")
+    CustomerView.GeneralAttributes toGeneralAttributes(CustomerGeneralAttributes attributes);
+
+    @Mapping(target = "number", source = "phoneNumber")
+    @Mapping(target = "type", source = "phoneType.designation")
+    CustomerView.Phone toPhone(CustomerPhoneNumber phone);
+
+    @Mapping(target = "line1", source = "addressLine1")
+    @Mapping(target = "line2", source = "addressLine2")
+    CustomerView.Address toAddress(CustomerAddressDetail address);
+
+    List<CustomerView.Phone> toPhones(List<CustomerPhoneNumber> phones);
+
+    List<CustomerView.Address> toAddresses(List<CustomerAddressDetail> addresses);
+
+    // Listes vides omises comme les sections absentes
+    default List<CustomerView.Phone> toPhones(GetCustomerPhoneNumberListResponse phoneNumbers) {
+        return phoneNumbers == null || phoneNumbers.getCustomerPhoneNumber().isEmpty()
+                ? null
+                : toPhones(phoneNumbers.getCustomerPhoneNumber());
+    }
+
+    default List<CustomerView.Address> toAddresses(GetCustomerAddressDetailResponse addressesDetail) {
+        return addressesDetail == null || addressesDetail.getCustomerAddressDetail().isEmpty()
+                ? null
+                : toAddresses(addressesDetail.getCustomerAddressDetail());
+    }
+}
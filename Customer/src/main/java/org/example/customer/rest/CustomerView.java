@@ -0,0 +1,94 @@
+package org.example.customer.rest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.example.customer.CustomerSection;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Vue REST d'un client bancaire - schéma stable de GET /api/banking/customer/{code}
+ * Les sections absentes (non demandées ou non renseignées) ne sont pas sérialisées.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CustomerView(
+        String customerCode,
+        String customerType,
+        String lastname,
+        String nameToReturn,
+        CodeLabel title,
+        CodeLabel nationality,
+        Fatca fatca,
+        String firstname,
+        CodeLabel familyStatus,
+        Birth birth,
+        IdPaper idPaper,
+        GeneralAttributes generalAttributes,
+        List<Phone> phoneNumbers,
+        List<Address> addresses,
+        CodeLabel activeProfile
+) {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record CodeLabel(String code, String designation) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Officer(String code, String name) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Fatca(String fatcaStatus, String crsStatus) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Birth(String sex, XMLGregorianCalendar birthDate, String birthCity) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record IdPaper(String number, XMLGregorianCalendar deliveryDate, XMLGregorianCalendar validityDate,
+                          String type) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record GeneralAttributes(CodeLabel branch, Officer customerOfficer, Boolean taxableCustomer) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Phone(String number, String type) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Address(String line1, String line2, String city, String postalCode, String county,
+                          String region) {
+    }
+
+    /**
+     * Restreint la vue aux sections demandées (le code et le type client sont conservés)
+     */
+    public CustomerView project(Set<CustomerSection> sections) {
+        if (sections.containsAll(CustomerSection.ALL)) {
+            return this;
+        }
+        boolean identity = sections.contains(CustomerSection.IDENTITY);
+        boolean kyc = sections.contains(CustomerSection.KYC);
+        return new CustomerView(
+                customerCode,
+                customerType,
+                identity ? lastname : null,
+                identity ? nameToReturn : null,
+                identity ? title : null,
+                sections.contains(CustomerSection.SITUATION) ? nationality : null,
+                sections.contains(CustomerSection.FATCA) ? fatca : null,
+                identity ? firstname : null,
+                kyc ? familyStatus : null,
+                kyc ? birth : null,
+                kyc ? idPaper : null,
+                sections.contains(CustomerSection.GENERAL) ? generalAttributes : null,
+                sections.contains(CustomerSection.PHONES) ? phoneNumbers : null,
+                sections.contains(CustomerSection.ADDRESS) ? addresses : null,
+                sections.contains(CustomerSection.PROFILE) ? activeProfile : null
+        );
+    }
+}
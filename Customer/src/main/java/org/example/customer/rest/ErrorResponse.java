@@ -0,0 +1,11 @@
+package org.example.customer.rest;
+
+/**
+ * Réponse REST d'erreur
+ */
+public record ErrorResponse(String error, long timestamp, String status) {
+
+    public static ErrorResponse of(String error) {
+        return new ErrorResponse(error, System.currentTimeMillis(), "error");
+    }
+}
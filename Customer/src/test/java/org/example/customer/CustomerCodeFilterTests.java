@@ -0,0 +1,72 @@
+package org.example.customer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Filtre de Bloom des codes clients : aucun faux négatif, taux de faux positifs proche de l'estimation
+ */
+class CustomerCodeFilterTests {
+
+    private static final int INSERTED = 100_000;
+    private static final int PROBES = 200_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void defaultHashHasNoFalseNegativeAndExpectedFalsePositiveRate() {
+        checkFilter(new CustomerCodeFilter(INSERTED, FALSE_POSITIVE_RATE), null);
+    }
+
+    @Test
+    void storeIndexHashesGiveTheSameGuarantees() {
+        // Comme le service mappé : filtre alimenté par les hash de l'index, interrogé par code
+        ToLongFunction<String> storeHash = code -> CustomerCodeFilter.spread(MappedCustomerStore.codeHash(code));
+        checkFilter(new CustomerCodeFilter(INSERTED, FALSE_POSITIVE_RATE, storeHash), storeHash);
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new CustomerCodeFilter(0, FALSE_POSITIVE_RATE));
+        assertThrows(IllegalArgumentException.class, () -> new CustomerCodeFilter(INSERTED, 0));
+        assertThrows(IllegalArgumentException.class, () -> new CustomerCodeFilter(INSERTED, 1));
+    }
+
+    /**
+     * storeHash non null : codes ajoutés par addHash (chargement depuis l'index), sinon par add
+     */
+    private static void checkFilter(CustomerCodeFilter filter, ToLongFunction<String> storeHash) {
+        for (int i = 0; i < INSERTED; i++) {
+            String code = String.format("%08d", i);
+            if (storeHash != null) {
+                filter.addHash(storeHash.applyAsLong(code));
+            } else {
+                filter.add(code);
+            }
+        }
+
+        for (int i = 0; i < INSERTED; i++) {
+            assertTrue(filter.mightContain(String.format("%08d", i)), "faux négatif: " + i);
+        }
+
+        int positives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain(String.format("%08d", 10_000_000 + i))) {
+                positives++;
+            }
+        }
+
+        CustomerCodeFilter.Stats stats = filter.getStats();
+        double measured = (double) positives / PROBES;
+        double estimated = stats.estimatedFalsePositiveRate();
+        assertEquals(INSERTED, stats.insertions());
+        assertEquals(PROBES - positives, stats.rejectedLookups());
+        assertTrue(estimated <= FALSE_POSITIVE_RATE, "estimation au-delà du taux demandé: " + estimated);
+        assertTrue(Math.abs(measured - estimated) <= estimated * 0.25,
+                "taux mesuré " + measured + " loin de l'estimation " + estimated);
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.customer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recherche par nom : classement exact / préfixe / approché, pagination et total après arrêt anticipé
+ */
+class CustomerNameIndexTests {
+
+    @Test
+    void exactMatchesRankBeforePrefixMatches() {
+        CustomerNameIndex index = new CustomerNameIndex();
+        index.index("00000003", "DIOPSANE MODOU", "1", "DIOPSANE", "MODOU");
+        index.index("00000002", "DIOP AWA", "1", "DIOP", "AWA");
+        index.index("00000001", "DIOUF AWA", "1", "DIOUF", "AWA");
+
+        CustomerNameIndex.SearchPage page = index.search("diop", 0, 10);
+
+        assertEquals(List.of("00000002", "00000003"), codes(page));
+        assertEquals(1.0, page.results().get(0).score());
+        assertEquals(0.8, page.results().get(1).score());
+        assertEquals(2, page.totalResults());
+        assertTrue(page.totalExact());
+    }
+
+    @Test
+    void accentsAndCaseAreIgnored() {
+        CustomerNameIndex index = new CustomerNameIndex();
+        index.index("00000001", "NDÈYE FATOU", "1", "Ndèye", "Fatou");
+
+        assertEquals(List.of("00000001"), codes(index.search("NDEYE", 0, 10)));
+        assertEquals(List.of("00000001"), codes(index.search("ndéye fatou", 0, 10)));
+    }
+
+    @Test
+    void typoFallsBackToFuzzyMatchBelowPrefixScore() {
+        CustomerNameIndex index = new CustomerNameIndex();
+        index.index("00000001", "NDIAYE AWA", "1", "NDIAYE", "AWA");
+        index.index("00000002", "SOW BINTA", "1", "SOW", "BINTA");
+
+        // Inversion de deux lettres : aucun préfixe, correspondance par bigrammes
+        CustomerNameIndex.SearchPage page = index.search("NDIAEY", 0, 10);
+
+        assertEquals(List.of("00000001"), codes(page));
+        double score = page.results().get(0).score();
+        assertTrue(score > 0 && score < 0.8, "score approché: " + score);
+        assertEquals(0, index.search("XYZW", 0, 10).totalResults());
+    }
+
+    @Test
+    void everyQueryWordMustMatch() {
+        CustomerNameIndex index = new CustomerNameIndex();
+        index.index("00000001", "DIOP AWA", "1", "DIOP", "AWA");
+        index.index("00000002", "DIOP MODOU", "1", "DIOP", "MODOU");
+        index.index("00000003", "FALL AWA", "1", "FALL", "AWA");
+
+        CustomerNameIndex.SearchPage page = index.search("awa diop", 0, 10);
+
+        assertEquals(List.of("00000001"), codes(page));
+        assertEquals(1.0, page.results().get(0).score());
+    }
+
+    @Test
+    void earlyStopReportsAMinimumTotal() {
+        CustomerNameIndex index = new CustomerNameIndex();
+        for (int i = 0; i < 10; i++) {
+            index.index(String.format("1%07d", i), "FALL " + i, "1", "FALL");
+        }
+        for (int i = 0; i < 20; i++) {
+            index.index(String.format("2%07d", i), "FALLOU " + i, "1", "FALLOU");
+        }
+
+        // Page pleine de correspondances exactes : les préfixes (0.8) ne peuvent plus y entrer
+        CustomerNameIndex.SearchPage first = index.search("FALL", 0, 5);
+        assertEquals(5, first.results().size());
+        assertFalse(first.totalExact());
+        assertTrue(first.totalResults() >= 10 && first.totalResults() < 30, "total: " + first.totalResults());
+
+        CustomerNameIndex.SearchPage all = index.search("FALL", 0, 50);
+        assertTrue(all.totalExact());
+        assertEquals(30, all.totalResults());
+
+        // Pages successives = tranches du classement complet
+        List<String> paged = new ArrayList<>();
+        for (int page = 0; page < 6; page++) {
+            paged.addAll(codes(index.search("FALL", page, 5)));
+        }
+        assertEquals(codes(all), paged);
+    }
+
+    @Test
+    void reindexingAndRemovalUpdateThePostings() {
+        CustomerNameIndex index = new CustomerNameIndex();
+        index.index("00000001", "DIOP AWA", "1", "DIOP", "AWA");
+        index.index("00000001", "SARR AWA", "1", "SARR", "AWA");
+
+        assertEquals(0, index.search("DIOP", 0, 10).totalResults());
+        assertEquals(List.of("00000001"), codes(index.search("SARR", 0, 10)));
+
+        index.remove("00000001");
+        assertEquals(0, index.search("AWA", 0, 10).totalResults());
+        assertEquals(0, index.size());
+        assertEquals(0, index.tokenCount());
+    }
+
+    private static List<String> codes(CustomerNameIndex.SearchPage page) {
+        List<String> codes = new ArrayList<>();
+        for (CustomerNameIndex.Match match : page.results()) {
+            codes.add(match.customerCode());
+        }
+        return codes;
+    }
+}
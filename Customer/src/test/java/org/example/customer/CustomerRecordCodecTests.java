@@ -0,0 +1,113 @@
+package org.example.customer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Encodage compact des clients : aller-retour champ par champ, formes spéciales et croissance du dictionnaire
+ */
+class CustomerRecordCodecTests {
+
+    @Test
+    void nullFieldsSurviveTheRoundTrip() {
+        CustomerRecordCodec codec = new CustomerRecordCodec();
+
+        assertRoundTrip(codec, new BankingCustomerData());
+
+        BankingCustomerData customer = MappedCustomerStoreTests.customer(1);
+        customer.firstname = null;
+        customer.displayName = null;
+        customer.birthDate = null;
+        customer.city = null;
+        assertRoundTrip(codec, customer);
+    }
+
+    @Test
+    void datesBefore1970AndNonIsoDatesAreKeptAsIs() {
+        CustomerRecordCodec codec = new CustomerRecordCodec();
+        String[] dates = {
+                "1970-01-01", "1969-12-31", "1932-07-14", "0001-01-01", "2099-12-31",
+                "14/07/1932", "1932-7-14", "2023-02-30", "", "inconnue"
+        };
+        for (String date : dates) {
+            BankingCustomerData customer = MappedCustomerStoreTests.customer(2);
+            customer.birthDate = date;
+            assertRoundTrip(codec, customer);
+        }
+    }
+
+    @Test
+    void derivedAndCustomDisplayNamesAreRestored() {
+        CustomerRecordCodec codec = new CustomerRecordCodec();
+
+        BankingCustomerData derived = MappedCustomerStoreTests.customer(3);
+        derived.displayName = derived.lastname + " " + derived.firstname;
+        BankingCustomerData custom = MappedCustomerStoreTests.customer(3);
+        custom.displayName = derived.firstname + " " + derived.lastname;
+
+        assertRoundTrip(codec, derived);
+        assertRoundTrip(codec, custom);
+        // Nom dérivé réduit au marqueur SPECIAL
+        assertTrue(codec.encode(derived).length < codec.encode(custom).length);
+
+        BankingCustomerData lastnameOnly = MappedCustomerStoreTests.customer(4);
+        lastnameOnly.firstname = "";
+        lastnameOnly.displayName = lastnameOnly.lastname;
+        assertRoundTrip(codec, lastnameOnly);
+
+        BankingCustomerData withoutLastname = MappedCustomerStoreTests.customer(5);
+        withoutLastname.lastname = null;
+        assertRoundTrip(codec, withoutLastname);
+
+        BankingCustomerData emptyDisplayName = MappedCustomerStoreTests.customer(6);
+        emptyDisplayName.displayName = "";
+        assertRoundTrip(codec, emptyDisplayName);
+    }
+
+    @Test
+    void nonAsciiTextIsPreserved() {
+        CustomerRecordCodec codec = new CustomerRecordCodec();
+        BankingCustomerData customer = MappedCustomerStoreTests.customer(7);
+        customer.lastname = "N'DÈYE-GUÈYE";
+        customer.firstname = "Ñañá Zoë";
+        customer.displayName = customer.lastname + " " + customer.firstname;
+        customer.addressLine1 = "Rue de l'Église, Thiès";
+        customer.addressLine2 = "Bâtiment « Ä » 🏦";
+        customer.city = "ŁÓDŹ";
+
+        assertRoundTrip(codec, customer);
+    }
+
+    @Test
+    void dictionaryGrowsPastItsInitialCapacity() {
+        CustomerRecordCodec codec = new CustomerRecordCodec();
+        List<BankingCustomerData> customers = new ArrayList<>();
+        List<byte[]> records = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            BankingCustomerData customer = MappedCustomerStoreTests.customer(i);
+            customer.lastname = "NOM" + i;
+            customer.displayName = customer.lastname + " " + customer.firstname;
+            customers.add(customer);
+            records.add(codec.encode(customer));
+        }
+
+        assertTrue(codec.dictionarySize() > 256, "taille du dictionnaire: " + codec.dictionarySize());
+        // Enregistrements encodés avant comme après l'agrandissement du dictionnaire
+        for (int i = 0; i < customers.size(); i++) {
+            assertArrayEquals(customers.get(i).toFields(), codec.decode(records.get(i)).toFields(), "client " + i);
+        }
+    }
+
+    private static void assertRoundTrip(CustomerRecordCodec codec, BankingCustomerData customer) {
+        String[] expected = customer.toFields();
+        String[] decoded = codec.decode(codec.encode(customer)).toFields();
+        assertEquals(BankingCustomerData.FIELD_COUNT, decoded.length);
+        assertArrayEquals(expected, decoded);
+    }
+}
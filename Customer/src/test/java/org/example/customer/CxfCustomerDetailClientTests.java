@@ -0,0 +1,102 @@
+package org.example.customer;
+
+import org.apache.cxf.Bus;
+import org.example.customer.client.GetCustomerDetailResponseFlow;
+import org.example.customer.client.GetStatusRequestFlow;
+import org.example.customer.client.GetStatusResponseFlow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Client CXF appelé contre le service SOAP publié par l'application elle-même (port aléatoire)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CxfCustomerDetailClientTests {
+
+    private static final String KNOWN_CUSTOMER = "00100002";
+    private static final String OTHER_CUSTOMER = "00100003";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Bus bus;
+
+    @Autowired
+    private BankingCustomerController controller;
+
+    private CxfCustomerDetailClient client;
+
+    @BeforeEach
+    void createClient() {
+        client = new CxfCustomerDetailClient(bus, "http://localhost:" + port + "/services/customer",
+                2000, 5000, 2000, 20, 10);
+    }
+
+    @Test
+    void getCustomerDetailReturnsPublishedCustomer() throws Exception {
+        GetCustomerDetailResponseFlow response = client.getCustomerDetail(controller.buildSoapRequest(KNOWN_CUSTOMER));
+
+        assertEquals("0", response.getResponseStatus().getStatusCode());
+        assertEquals(KNOWN_CUSTOMER, response.getGetCustomerDetailResponse().getCustomerCode());
+    }
+
+    @Test
+    void getCustomerDetailAsyncCompletesWithoutBlockingCaller() throws Exception {
+        GetCustomerDetailResponseFlow response = client.getCustomerDetailAsync(controller.buildSoapRequest(KNOWN_CUSTOMER))
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals("0", response.getResponseStatus().getStatusCode());
+        assertEquals(KNOWN_CUSTOMER, response.getGetCustomerDetailResponse().getCustomerCode());
+    }
+
+    @Test
+    void getStatusReturnsServiceName() {
+        GetStatusRequestFlow request = new GetStatusRequestFlow();
+        request.setGetStatusRequest("status_check");
+
+        GetStatusResponseFlow response = client.getStatus(request);
+
+        assertNotNull(response.getGetStatusResponse());
+        assertNotNull(response.getGetStatusResponse().getServiceName());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchUsesAsyncClientCalls() {
+        Object localService = ReflectionTestUtils.getField(controller, "customerDetailService");
+        ReflectionTestUtils.setField(controller, "customerDetailService", client);
+        try {
+            ResponseEntity<?> response = controller.getCustomerDetailsBatch(
+                    Map.of("customerCodes", List.of(KNOWN_CUSTOMER, "", OTHER_CUSTOMER)));
+
+            assertEquals(200, response.getStatusCode().value());
+            Map<String, Object> body = (Map<String, Object>) response.getBody();
+            assertEquals(2, body.get("totalFound"));
+
+            List<Map<String, Object>> customers = (List<Map<String, Object>>) body.get("customers");
+            assertEquals(KNOWN_CUSTOMER, customers.get(0).get("customerCode"));
+            assertTrue((Boolean) customers.get(0).get("found"));
+            assertEquals("", customers.get(1).get("customerCode"));
+            assertFalse((Boolean) customers.get(1).get("found"));
+            assertEquals(OTHER_CUSTOMER, customers.get(2).get("customerCode"));
+            assertTrue((Boolean) customers.get(2).get("found"));
+        } finally {
+            ReflectionTestUtils.setField(controller, "customerDetailService", localService);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.customer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stockage mappé : lecture après écriture et après réouverture, croissance d'un enregistrement, version du format
+ */
+class MappedCustomerStoreTests {
+
+    private static final int SLOTS = 4096;
+    private static final long DATA_CAPACITY = 4L * 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void putThenGetBeforeAndAfterReopening() throws IOException {
+        Path path = directory.resolve("customers.store");
+        BankingCustomerData customer = customer(1);
+
+        try (MappedCustomerStore store = MappedCustomerStore.open(path, SLOTS, DATA_CAPACITY)) {
+            store.put(customer);
+
+            assertArrayEquals(customer.toFields(), store.get(customer.customerCode).toFields());
+            assertTrue(store.contains(customer.customerCode));
+            assertNull(store.get("99999999"));
+            assertEquals(1, store.size());
+        }
+
+        try (MappedCustomerStore store = MappedCustomerStore.open(path, SLOTS, DATA_CAPACITY)) {
+            assertArrayEquals(customer.toFields(), store.get(customer.customerCode).toFields());
+            assertFalse(store.contains("99999999"));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    void updateGrowingPastItsSlackIsRelocated() throws IOException {
+        Path path = directory.resolve("customers.store");
+        BankingCustomerData neighbour = customer(2);
+        BankingCustomerData customer = customer(1);
+
+        try (MappedCustomerStore store = MappedCustomerStore.open(path, SLOTS, DATA_CAPACITY)) {
+            store.put(customer);
+            store.put(neighbour);
+
+            // Bien au-delà des 25 % de marge : l'enregistrement est réécrit plus loin, le voisin reste intact
+            BankingCustomerData grown = customer(1);
+            grown.addressLine1 = "RESIDENCE ".repeat(40);
+            grown.addressLine2 = "IMMEUBLE ".repeat(40);
+            store.put(grown);
+
+            assertArrayEquals(grown.toFields(), store.get(customer.customerCode).toFields());
+            assertArrayEquals(neighbour.toFields(), store.get(neighbour.customerCode).toFields());
+            assertEquals(2, store.size());
+
+            // Retour à une adresse courte : réécriture sur place, dans la capacité agrandie
+            store.put(customer);
+            assertArrayEquals(customer.toFields(), store.get(customer.customerCode).toFields());
+        }
+
+        try (MappedCustomerStore store = MappedCustomerStore.open(path, SLOTS, DATA_CAPACITY)) {
+            assertArrayEquals(customer.toFields(), store.get(customer.customerCode).toFields());
+            assertArrayEquals(neighbour.toFields(), store.get(neighbour.customerCode).toFields());
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    void fileOfAnotherFormatVersionIsRejected() throws IOException {
+        Path path = directory.resolve("customers.store");
+        try (MappedCustomerStore store = MappedCustomerStore.open(path, SLOTS, DATA_CAPACITY)) {
+            store.put(customer(1));
+        }
+
+        // Version du format (octets 4 à 7 de l'en-tête) d'un fichier plus ancien
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 2), 4);
+        }
+
+        IOException error = assertThrows(IOException.class, () -> MappedCustomerStore.open(path, SLOTS, DATA_CAPACITY));
+        assertTrue(error.getMessage().contains("ancienne version"), error.getMessage());
+    }
+
+    @Test
+    void forEachVisitsEveryCustomerAcrossSlotBatches() throws IOException {
+        int customers = 2500;   // réparti sur les 4 tranches de 1024 slots
+        try (MappedCustomerStore store = MappedCustomerStore.open(directory.resolve("customers.store"), SLOTS, DATA_CAPACITY)) {
+            for (int i = 0; i < customers; i++) {
+                store.put(customer(i));
+            }
+
+            Set<String> seen = new HashSet<>();
+            store.forEach(customer -> {
+                assertTrue(seen.add(customer.customerCode), "client parcouru deux fois: " + customer.customerCode);
+                assertArrayEquals(customer(Integer.parseInt(customer.customerCode)).toFields(), customer.toFields());
+            });
+
+            assertEquals(customers, seen.size());
+            assertEquals(customers, store.size());
+        }
+    }
+
+    static BankingCustomerData customer(int number) {
+        BankingCustomerData customer = new BankingCustomerData();
+        customer.customerCode = String.format("%08d", number);
+        customer.lastname = "NDIAYE";
+        customer.firstname = "AWA " + number;
+        customer.customerType = "1";
+        customer.displayName = "NDIAYE AWA " + number;
+        customer.sex = "F";
+        customer.birthDate = "1985-03-" + String.format("%02d", 1 + number % 28);
+        customer.nationality = "SN";
+        customer.phoneNumber = "+22177" + String.format("%07d", number);
+        customer.countryOfResidence = "SN";
+        customer.addressLine1 = "RUE " + number;
+        customer.addressLine2 = null;
+        customer.city = "DAKAR";
+        customer.postalCode = "10000";
+        customer.branchCode = "00001";
+        return customer;
+    }
+}
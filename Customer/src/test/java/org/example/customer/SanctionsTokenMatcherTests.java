@@ -0,0 +1,92 @@
+package org.example.customer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Automate des jetons de sanctions : mots entiers seulement, jetons adjacents, équivalence avec une recherche naïve
+ */
+class SanctionsTokenMatcherTests {
+
+    @Test
+    void matchesWholeWordsOnly() {
+        SanctionsTokenMatcher matcher = new SanctionsTokenMatcher(List.of("DIOP", "BA", "SANE"));
+
+        assertEquals(bits(0), matcher.matchTokens(" DIOP AWA "));
+        assertEquals(new BitSet(), matcher.matchTokens(" DIOPSANE ABAB "));
+        assertEquals(bits(1, 2), matcher.matchTokens(" SANE BA "));
+    }
+
+    @Test
+    void adjacentAndOverlappingTokensAreAllReported() {
+        // "AWA" et "DIOP" partagent l'espace qui les sépare ; "A" est contenu dans "AWA" et "BA"
+        SanctionsTokenMatcher matcher = new SanctionsTokenMatcher(List.of("AWA", "DIOP", "A", "BA", "AWA DIOP"));
+
+        assertEquals(bits(0, 1, 4), matcher.matchTokens(" AWA DIOP "));
+        assertEquals(bits(2, 3), matcher.matchTokens(" A BA A "));
+    }
+
+    @Test
+    void emptyListMatchesNothing() {
+        SanctionsTokenMatcher matcher = new SanctionsTokenMatcher(List.of());
+
+        assertEquals(1, matcher.stateCount());
+        assertTrue(matcher.matchTokens(" DIOP AWA ").isEmpty());
+    }
+
+    @Test
+    void agreesWithNaiveSearchOnRandomTexts() {
+        Random random = new Random(42);
+        Set<String> distinct = new LinkedHashSet<>();
+        while (distinct.size() < 300) {
+            distinct.add(word(random));
+        }
+        List<String> tokens = new ArrayList<>(distinct);
+        SanctionsTokenMatcher matcher = new SanctionsTokenMatcher(tokens);
+
+        for (int run = 0; run < 2000; run++) {
+            StringBuilder text = new StringBuilder(" ");
+            int words = 1 + random.nextInt(6);
+            for (int w = 0; w < words; w++) {
+                // Un mot sur deux tiré de la liste pour garantir des correspondances
+                text.append(random.nextBoolean() ? tokens.get(random.nextInt(tokens.size())) : word(random)).append(' ');
+            }
+
+            BitSet expected = new BitSet();
+            for (int id = 0; id < tokens.size(); id++) {
+                if (text.indexOf(" " + tokens.get(id) + " ") >= 0) {
+                    expected.set(id);
+                }
+            }
+            assertEquals(expected, matcher.matchTokens(text.toString()), text.toString());
+        }
+    }
+
+    /**
+     * Petit alphabet pour multiplier préfixes et suffixes communs
+     */
+    private static String word(Random random) {
+        char[] letters = new char[1 + random.nextInt(4)];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = "ABDIO".charAt(random.nextInt(5));
+        }
+        return new String(letters);
+    }
+
+    private static BitSet bits(int... ids) {
+        BitSet bits = new BitSet();
+        for (int id : ids) {
+            bits.set(id);
+        }
+        return bits;
+    }
+}